@@ -0,0 +1,179 @@
+package bankkata.benchmark;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.BalanceView;
+import bankkata.domain.model.Clock;
+import bankkata.domain.model.Money;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.domain.service.LedgerTotals;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of deposits and withdrawals through the AccountService, on a
+ * single thread, by ID and by handle, on one shared account and on one
+ * account per thread, of lock-free balance reads while a writer updates the same account,
+ * and of bank-wide ledger reads, with and without holding back the writers.
+ * <p>
+ * Accounts keep their full history, so they are recreated on every iteration
+ * to keep the heap bounded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AccountServiceBenchmark {
+
+    static final Clock FIXED_CLOCK = fixedClock();
+    // Large enough that withdrawals never run out of funds during an iteration
+    static final Money OPENING_BALANCE = Money.ofCents(Long.MAX_VALUE / 2);
+
+    private static final Money AMOUNT = new Money(10.0);
+
+    @State(Scope.Benchmark)
+    public static class SharedAccount {
+        AccountService accountService;
+        AccountId accountId;
+        int handle;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            AccountRepository repository = new InMemoryAccountRepository();
+            accountService = new AccountService(repository);
+            accountId = openAccount(repository, "shared");
+            handle = accountService.handleOf(accountId);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnAccount {
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        AccountService accountService;
+        AccountId accountId;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            AccountRepository repository = new InMemoryAccountRepository();
+            accountService = new AccountService(repository);
+            accountId = openAccount(repository, "own-" + NEXT_ID.incrementAndGet());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account depositSingleThreaded(SharedAccount state) {
+        return state.accountService.deposit(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account depositByHandleSingleThreaded(SharedAccount state) {
+        return state.accountService.deposit(state.handle, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account withdrawSingleThreaded(SharedAccount state) {
+        return state.accountService.withdraw(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account depositContended(SharedAccount state) {
+        return state.accountService.deposit(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account withdrawContended(SharedAccount state) {
+        return state.accountService.withdraw(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account depositUncontended(OwnAccount state) {
+        return state.accountService.deposit(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account withdrawUncontended(OwnAccount state) {
+        return state.accountService.withdraw(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public BalanceView readBalanceWhileWriting(SharedAccount state) {
+        return state.accountService.getBalance(state.accountId);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public Account depositWhileReading(SharedAccount state) {
+        return state.accountService.deposit(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Group("ledgerWhileWriting")
+    @GroupThreads(1)
+    public LedgerTotals readLedgerWhileWriting(SharedAccount state) {
+        return state.accountService.getLedgerTotals();
+    }
+
+    @Benchmark
+    @Group("ledgerWhileWriting")
+    @GroupThreads(3)
+    public Account depositWhileReadingLedger(SharedAccount state) {
+        return state.accountService.deposit(state.accountId, AMOUNT);
+    }
+
+    @Benchmark
+    @Group("consistentLedgerWhileWriting")
+    @GroupThreads(1)
+    public LedgerTotals readConsistentLedgerWhileWriting(SharedAccount state) {
+        return state.accountService.getConsistentLedgerTotals();
+    }
+
+    @Benchmark
+    @Group("consistentLedgerWhileWriting")
+    @GroupThreads(3)
+    public Account depositWhileReconciling(SharedAccount state) {
+        return state.accountService.deposit(state.accountId, AMOUNT);
+    }
+
+    static AccountId openAccount(AccountRepository repository, String id) {
+        AccountId accountId = new AccountId(id);
+        Account account = new Account(accountId, FIXED_CLOCK);
+        account.deposit(OPENING_BALANCE);
+        repository.save(account);
+        return accountId;
+    }
+
+    private static Clock fixedClock() {
+        ZonedDateTime now = ZonedDateTime.now();
+        return () -> now;
+    }
+}
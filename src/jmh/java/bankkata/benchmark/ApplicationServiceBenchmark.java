@@ -0,0 +1,75 @@
+package bankkata.benchmark;
+
+import bankkata.application.dto.StatementDto;
+import bankkata.application.service.AccountApplicationService;
+import bankkata.application.service.StatementCache;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of reading a balance and a statement through the
+ * AccountApplicationService, with and without a statement cache, and of
+ * answering a retried deposit from the idempotency cache.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicationServiceBenchmark {
+
+    private static final String ACCOUNT_ID = "account";
+
+    private AccountApplicationService applicationService;
+    private AccountApplicationService cachingApplicationService;
+
+    @Setup
+    public void setUp() {
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountService accountService = new AccountService(repository);
+        TextStatementFormatter formatter = new TextStatementFormatter();
+        applicationService = new AccountApplicationService(accountService, formatter);
+        cachingApplicationService = new AccountApplicationService(accountService, formatter,
+                new StatementCache(formatter, 1024, 64L * 1024 * 1024));
+        AccountServiceBenchmark.openAccount(repository, ACCOUNT_ID);
+        for (int i = 0; i < 100; i++) {
+            applicationService.deposit(ACCOUNT_ID, 12.34);
+        }
+        applicationService.deposit(ACCOUNT_ID, 12.34, "retried");
+    }
+
+    @Benchmark
+    public double getBalance() {
+        return applicationService.getBalance(ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public StatementDto getStatement() {
+        return applicationService.getStatement(ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public StatementDto getCachedStatement() {
+        return cachingApplicationService.getStatement(ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public void retriedDeposit() {
+        applicationService.deposit(ACCOUNT_ID, 12.34, "retried");
+    }
+}
@@ -0,0 +1,107 @@
+package bankkata.benchmark;
+
+import bankkata.application.dto.AccountCommandDto;
+import bankkata.application.dto.CommandResultDto;
+import bankkata.application.service.AccountApplicationService;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.journal.JournalConfig;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import bankkata.infrastructure.repository.JournaledAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of applying a payroll-like run of deposits one call at a time compared
+ * with a single batch. With the journaled repository a batch pays one
+ * journal commit per account instead of one per deposit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    private static final int COMMAND_COUNT = 10_000;
+
+    @Param({"10", "1000"})
+    public int accountCount;
+
+    @Param({"memory", "journal"})
+    public String repositoryType;
+
+    private AccountApplicationService applicationService;
+    private List<AccountCommandDto> commands;
+    private JournaledAccountRepository journaledRepository;
+    private Path journalDirectory;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        AccountRepository repository;
+        if ("journal".equals(repositoryType)) {
+            journalDirectory = Files.createTempDirectory("batch-benchmark");
+            journaledRepository = new JournaledAccountRepository(JournalConfig.defaults(journalDirectory),
+                    AccountServiceBenchmark.FIXED_CLOCK);
+            repository = journaledRepository;
+        } else {
+            repository = new InMemoryAccountRepository();
+        }
+        applicationService = new AccountApplicationService(new AccountService(repository),
+                new TextStatementFormatter());
+        for (int i = 0; i < accountCount; i++) {
+            AccountServiceBenchmark.openAccount(repository, "account-" + i);
+        }
+        commands = new ArrayList<>(COMMAND_COUNT);
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            commands.add(new AccountCommandDto("account-" + i % accountCount, "DEPOSIT", 12.34));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (journaledRepository != null) {
+            journaledRepository.close();
+            journaledRepository = null;
+            try (Stream<Path> files = Files.walk(journalDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void depositOneByOne() {
+        for (AccountCommandDto command : commands) {
+            applicationService.deposit(command.accountId(), command.amount());
+        }
+    }
+
+    @Benchmark
+    public List<CommandResultDto> depositBatch() {
+        return applicationService.executeBatch(commands);
+    }
+}
@@ -0,0 +1,90 @@
+package bankkata.benchmark;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.ColumnarOperationStore;
+import bankkata.domain.model.Money;
+import bankkata.infrastructure.clock.CachedClock;
+import bankkata.infrastructure.clock.DefaultClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading the time with the default and the cached clocks, and of
+ * stamping a deposit into a columnar history with each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClockBenchmark {
+
+    private static final Money AMOUNT = new Money(10.0);
+
+    private final DefaultClock defaultClock = new DefaultClock();
+    private final CachedClock preciseClock = CachedClock.precise();
+    private CachedClock coarseClock;
+    private Account defaultClockAccount;
+    private Account coarseClockAccount;
+
+    @Setup(Level.Trial)
+    public void startClock() {
+        coarseClock = CachedClock.coarse(Duration.ofMillis(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopClock() {
+        coarseClock.close();
+    }
+
+    // Accounts keep their full history, so they are recreated on every iteration
+    @Setup(Level.Iteration)
+    public void openAccounts() {
+        defaultClockAccount = new Account(new AccountId("default"), defaultClock::now,
+                new ColumnarOperationStore(1024));
+        coarseClockAccount = new Account(new AccountId("coarse"), coarseClock, new ColumnarOperationStore(1024));
+    }
+
+    @Benchmark
+    public ZonedDateTime defaultNow() {
+        return defaultClock.now();
+    }
+
+    @Benchmark
+    public long preciseEpochMillis() {
+        return preciseClock.epochMillis();
+    }
+
+    @Benchmark
+    public long coarseEpochMillis() {
+        return coarseClock.epochMillis();
+    }
+
+    @Benchmark
+    public Account depositStampedWithZonedDateTime() {
+        defaultClockAccount.deposit(AMOUNT);
+        return defaultClockAccount;
+    }
+
+    @Benchmark
+    public Account depositStampedWithCoarseClock() {
+        coarseClockAccount.deposit(AMOUNT);
+        return coarseClockAccount;
+    }
+}
@@ -0,0 +1,68 @@
+package bankkata.benchmark;
+
+import bankkata.domain.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Money construction, arithmetic and conversion at the API edge.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    // Non-final so that the JIT cannot constant-fold the inputs
+    private double amount = 1234.56;
+    private double halfCentAmount = 1.005;
+    private Money left = new Money(1234.56);
+    private Money right = new Money(78.9);
+
+    @Benchmark
+    public Money fromDouble() {
+        return new Money(amount);
+    }
+
+    @Benchmark
+    public Money fromDoubleRequiringRounding() {
+        return new Money(halfCentAmount);
+    }
+
+    @Benchmark
+    public Money add() {
+        return left.add(right);
+    }
+
+    @Benchmark
+    public Money subtract() {
+        return left.subtract(right);
+    }
+
+    @Benchmark
+    public boolean compare() {
+        return left.isGreaterThan(right);
+    }
+
+    @Benchmark
+    public BigDecimal toBigDecimal() {
+        return left.getAmount();
+    }
+
+    @Benchmark
+    public double toDouble() {
+        return left.toDouble();
+    }
+}
@@ -0,0 +1,140 @@
+package bankkata.benchmark;
+
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationHistory;
+import bankkata.domain.model.OperationType;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.history.OffHeapArena;
+import bankkata.infrastructure.history.HistorySegmentFile;
+import bankkata.infrastructure.history.OffHeapOperationStore;
+import bankkata.infrastructure.history.TieredOperationStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering a full text statement for histories of various sizes,
+ * compared with the original String.format based rendering. Statements are
+ * also written straight from an off-heap history without materializing the
+ * operations, and from a tiered history keeping its last 1,000 operations on
+ * the heap and the rest in a segment file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class StatementBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    private int operationCount;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private TextStatementFormatter formatter;
+    private List<Operation> operations;
+    private OffHeapArena arena;
+    private OperationHistory offHeapHistory;
+    private HistorySegmentFile segmentFile;
+    private OperationHistory tieredHistory;
+
+    @Setup
+    public void setUp() throws IOException {
+        formatter = new TextStatementFormatter();
+        operations = createOperations(operationCount);
+        arena = OffHeapArena.direct();
+        OffHeapOperationStore store = new OffHeapOperationStore(arena);
+        for (Operation operation : operations) {
+            store.append(operation.getType(), operation.getTimestamp(), operation.getAmount().getCents(),
+                    operation.getBalanceAfterOperation().getCents());
+        }
+        offHeapHistory = store;
+        segmentFile = HistorySegmentFile.create(Files.createTempDirectory("statement-benchmark"));
+        TieredOperationStore tieredStore = new TieredOperationStore(segmentFile, 1_000);
+        for (Operation operation : operations) {
+            tieredStore.append(operation.getType(), operation.getTimestamp(), operation.getAmount().getCents(),
+                    operation.getBalanceAfterOperation().getCents());
+        }
+        tieredHistory = tieredStore;
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+        segmentFile.close();
+    }
+
+    @Benchmark
+    public String generateStatement() {
+        return formatter.generateStatement(operations);
+    }
+
+    @Benchmark
+    public void writeStatement() throws IOException {
+        formatter.writeStatement(operations, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void writeStatementFromOffHeapHistory() throws IOException {
+        formatter.writeStatement(offHeapHistory, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void writeStatementFromTieredHistory() throws IOException {
+        formatter.writeStatement(tieredHistory, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public String generateStatementWithStringFormat() {
+        StringBuilder statement = new StringBuilder();
+        for (int i = operations.size() - 1; i >= 0; i--) {
+            Operation operation = operations.get(i);
+            statement.append(String.format("| %9s | %10s | %10s | %10s | %10s |",
+                    operation.getType().toString(),
+                    operation.getTimestamp().format(DATE_FORMATTER),
+                    operation.getTimestamp().format(TIME_FORMATTER),
+                    String.format("%.2f", operation.getAmount().getAmount()),
+                    String.format("%.2f", operation.getBalanceAfterOperation().getAmount())))
+                    .append(System.lineSeparator());
+        }
+        return statement.toString();
+    }
+
+    static List<Operation> createOperations(int count) {
+        List<Operation> operations = new ArrayList<>(count);
+        ZonedDateTime timestamp = ZonedDateTime.now().minusSeconds(count);
+        long balanceCents = 0;
+        for (int i = 0; i < count; i++) {
+            long amountCents = 1_000 + i % 97 * 13;
+            boolean withdrawal = i % 3 == 2;
+            balanceCents += withdrawal ? -amountCents : amountCents;
+            operations.add(new Operation(
+                    withdrawal ? OperationType.WITHDRAWAL : OperationType.DEPOSIT,
+                    timestamp.plusSeconds(i),
+                    Money.ofCents(amountCents),
+                    Money.ofCents(balanceCents)));
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,94 @@
+package bankkata.benchmark;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of transfers through the AccountService, between one pair of
+ * accounts shared by all threads and between one pair of accounts per thread.
+ * Each thread alternates the direction of its transfers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TransferBenchmark {
+
+    private static final Money AMOUNT = new Money(10.0);
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+        InMemoryAccountRepository repository;
+        AccountService accountService;
+        AccountId first;
+        AccountId second;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            repository = new InMemoryAccountRepository();
+            accountService = new AccountService(repository);
+            first = AccountServiceBenchmark.openAccount(repository, "shared-first");
+            second = AccountServiceBenchmark.openAccount(repository, "shared-second");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnPair {
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        AccountId first;
+        AccountId second;
+        boolean reverse;
+
+        @Setup(Level.Iteration)
+        public void setUp(Bank bank) {
+            int id = NEXT_ID.incrementAndGet();
+            first = AccountServiceBenchmark.openAccount(bank.repository, "own-first-" + id);
+            second = AccountServiceBenchmark.openAccount(bank.repository, "own-second-" + id);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account transferSingleThreaded(Bank bank, OwnPair pair) {
+        return transfer(bank, pair, pair.first, pair.second);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account transferContended(Bank bank, OwnPair pair) {
+        return transfer(bank, pair, bank.first, bank.second);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account transferDisjointPairs(Bank bank, OwnPair pair) {
+        return transfer(bank, pair, pair.first, pair.second);
+    }
+
+    private static Account transfer(Bank bank, OwnPair pair, AccountId first, AccountId second) {
+        pair.reverse = !pair.reverse;
+        return pair.reverse
+                ? bank.accountService.transfer(second, first, AMOUNT)
+                : bank.accountService.transfer(first, second, AMOUNT);
+    }
+}
@@ -0,0 +1,116 @@
+package bankkata.benchmark;
+
+import bankkata.application.service.AccountApplicationService;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.http.AccountHttpServer;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import bankkata.infrastructure.wire.WireClient;
+import bankkata.infrastructure.wire.WireProtocol;
+import bankkata.infrastructure.wire.WireServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local load generator comparing deposits sent over the binary wire protocol,
+ * one at a time and pipelined, with deposits sent over the HTTP text path.
+ * Each benchmark thread uses its own connection; run with {@code -t} to add
+ * concurrent clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireBenchmark {
+
+    private static final String ACCOUNT_ID = "account";
+    private static final int PIPELINE_DEPTH = 64;
+
+    private WireServer wireServer;
+    private AccountHttpServer httpServer;
+
+    @Setup
+    public void setUp() throws IOException {
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountService accountService = new AccountService(repository);
+        AccountServiceBenchmark.openAccount(repository, ACCOUNT_ID);
+        InetSocketAddress loopback = new InetSocketAddress("127.0.0.1", 0);
+        wireServer = WireServer.start(accountService, loopback);
+        httpServer = AccountHttpServer.start(
+                new AccountApplicationService(accountService, new TextStatementFormatter()), loopback);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        httpServer.close();
+        wireServer.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private final AccountId accountId = new AccountId(ACCOUNT_ID);
+        private WireClient wireClient;
+        private HttpClient httpClient;
+        private HttpRequest depositRequest;
+
+        @Setup
+        public void setUp(WireBenchmark benchmark) throws IOException {
+            wireClient = WireClient.connect(benchmark.wireServer.address());
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            InetSocketAddress address = benchmark.httpServer.address();
+            depositRequest = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + address.getPort()
+                            + "/accounts/" + ACCOUNT_ID + "/deposit?amount=0.01"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            wireClient.close();
+        }
+    }
+
+    @Benchmark
+    public long binaryDeposit(Client client) throws IOException {
+        return client.wireClient.call(WireProtocol.Command.DEPOSIT, client.accountId, 1).balanceCents();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public void binaryPipelinedDeposit(Client client, Blackhole blackhole) throws IOException {
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            client.wireClient.send(i, WireProtocol.Command.DEPOSIT, client.accountId, 1);
+        }
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            blackhole.consume(client.wireClient.receive());
+        }
+    }
+
+    @Benchmark
+    public int httpDeposit(Client client) throws IOException, InterruptedException {
+        return client.httpClient.send(client.depositRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -1,13 +1,64 @@
 package bankkata;
 
+import bankkata.application.service.AccountApplicationService;
+import bankkata.application.service.StatementCache;
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.CachedClock;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.http.AccountHttpServer;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import bankkata.infrastructure.wire.WireServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
 /**
  * Bank Account Application Demo
  * <p>
- * Note: This is a simple demo using the original implementation.
- * The highly scalable architecture is implemented in the domain, application,
- * and infrastructure packages, but needs further wiring to be fully functional.
+ * Serves an in-memory bank over HTTP, and over the binary wire protocol on
+ * the next port, for load testing on a local machine.
+ * Arguments: {@code [port] [accountCount]}, by default 8080 and 1000. The
+ * accounts are named {@code account-0} to {@code account-<accountCount - 1>}.
  */
 public class App {
-    public static void main(String[] args) {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_ACCOUNT_COUNT = 1000;
+    private static final String HTTP_NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    public static void main(String[] args) throws IOException {
+        // Read once by the JDK HTTP server; see AccountHttpServer
+        if (System.getProperty(HTTP_NODELAY_PROPERTY) == null) {
+            System.setProperty(HTTP_NODELAY_PROPERTY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ACCOUNT_COUNT;
+
+        AccountRepository repository = new InMemoryAccountRepository();
+        CachedClock clock = CachedClock.precise();
+        for (int i = 0; i < accountCount; i++) {
+            repository.save(new Account(new AccountId("account-" + i), clock));
+        }
+        AccountService accountService = new AccountService(repository);
+        TextStatementFormatter formatter = new TextStatementFormatter();
+        AccountApplicationService applicationService = new AccountApplicationService(
+                accountService, formatter,
+                new StatementCache(formatter, accountCount, 256L * 1024 * 1024));
+
+        AccountHttpServer server = AccountHttpServer.start(applicationService, new InetSocketAddress(port));
+        WireServer wireServer = WireServer.start(accountService, new InetSocketAddress(port + 1));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            try {
+                wireServer.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        System.out.printf("Serving %d accounts on port %d (virtual threads: %b), wire protocol on port %d%n",
+                accountCount, server.address().getPort(), server.usesVirtualThreads(),
+                wireServer.address().getPort());
     }
 }
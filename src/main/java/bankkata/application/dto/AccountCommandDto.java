@@ -0,0 +1,8 @@
+package bankkata.application.dto;
+
+/**
+ * Data Transfer Object for a deposit or withdrawal submitted in a batch.
+ * The type is the name of the operation, {@code DEPOSIT} or {@code WITHDRAWAL}.
+ */
+public record AccountCommandDto(String accountId, String type, double amount) {
+}
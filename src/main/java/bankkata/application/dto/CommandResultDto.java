@@ -0,0 +1,8 @@
+package bankkata.application.dto;
+
+/**
+ * Data Transfer Object for the outcome of a batch command.
+ * The failure reason is null when the command succeeded.
+ */
+public record CommandResultDto(AccountCommandDto command, boolean success, String failureReason) {
+}
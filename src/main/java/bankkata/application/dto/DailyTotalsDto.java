@@ -0,0 +1,10 @@
+package bankkata.application.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the totals of the operations of one day.
+ */
+public record DailyTotalsDto(LocalDate date, int operationCount, double deposits, double withdrawals,
+                             double closingBalance) {
+}
@@ -0,0 +1,10 @@
+package bankkata.application.dto;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the bank-wide totals of the balances and
+ * operations of all accounts.
+ */
+public record LedgerTotalsDto(double totalBalance, Map<String, Long> operationCounts) {
+}
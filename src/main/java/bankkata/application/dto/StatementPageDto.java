@@ -0,0 +1,10 @@
+package bankkata.application.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of an account statement.
+ * The cursor is null on the last page.
+ */
+public record StatementPageDto(String formattedStatement, List<OperationDto> operations, String nextCursor) {
+}
@@ -0,0 +1,39 @@
+package bankkata.application.metrics;
+
+import bankkata.application.exception.ApplicationException;
+import bankkata.domain.exception.AccountNotFoundException;
+import bankkata.domain.exception.InsufficientFundsException;
+import bankkata.domain.exception.InvalidOperationException;
+
+/**
+ * Reasons an operation failed, as counted by {@link OperationMetrics}.
+ */
+public enum FailureKind {
+    ACCOUNT_NOT_FOUND,
+    INSUFFICIENT_FUNDS,
+    INVALID_AMOUNT,
+    OTHER;
+
+    /**
+     * Classifies a failure, looking through the {@link ApplicationException}
+     * wrapping domain exceptions.
+     *
+     * @param failure the exception thrown by the operation
+     * @return the kind of failure
+     */
+    public static FailureKind of(Throwable failure) {
+        Throwable cause = failure instanceof ApplicationException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof AccountNotFoundException) {
+            return ACCOUNT_NOT_FOUND;
+        }
+        if (cause instanceof InsufficientFundsException) {
+            return INSUFFICIENT_FUNDS;
+        }
+        if (cause instanceof IllegalArgumentException || cause instanceof InvalidOperationException) {
+            return INVALID_AMOUNT;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,110 @@
+package bankkata.application.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative long values with log-linear buckets, in the
+ * style of HdrHistogram.
+ * <p>
+ * Values below 16 are counted exactly; above, each power of two is split
+ * into 16 buckets, so a recorded value is reported with a relative error of
+ * at most 1/16. Counts are kept in one array per stripe and each thread
+ * records into the stripe picked by its ID, so recording takes no lock and
+ * rarely contends. Snapshots read the stripes without stopping writers and
+ * are therefore only weakly consistent.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    // Slot after the buckets holding the sum of the recorded values
+    private static final int SUM = BUCKETS;
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    public Histogram() {
+        int stripeCount = Math.min(MAX_STRIPES,
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS + 1);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value the value to record
+     */
+    @SuppressWarnings("deprecation") // Thread.threadId() needs Java 19
+    public void record(long value) {
+        long clamped = Math.max(value, 0);
+        AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.incrementAndGet(bucketOf(clamped));
+        stripe.addAndGet(SUM, clamped);
+    }
+
+    /**
+     * Returns the count, mean and percentiles of the values recorded so far.
+     *
+     * @return the histogram snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                long bucketCount = stripe.get(bucket);
+                counts[bucket] += bucketCount;
+                count += bucketCount;
+            }
+            sum += stripe.get(SUM);
+        }
+        if (count == 0) {
+            return HistogramSnapshot.EMPTY;
+        }
+        return new HistogramSnapshot(count, (double) sum / count,
+                valueAtPercentile(counts, count, 50.0), valueAtPercentile(counts, count, 90.0),
+                valueAtPercentile(counts, count, 99.0), valueAtPercentile(counts, count, 99.9),
+                valueAtPercentile(counts, count, 100.0));
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value counted in a bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static long valueAtPercentile(long[] counts, long count, double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return highestValueIn(bucket);
+            }
+        }
+        return highestValueIn(BUCKETS - 1);
+    }
+}
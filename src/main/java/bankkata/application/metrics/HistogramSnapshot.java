@@ -0,0 +1,18 @@
+package bankkata.application.metrics;
+
+/**
+ * Summary of the values recorded by a {@link Histogram}. Percentiles are the
+ * highest value of the bucket they fall in.
+ *
+ * @param count the number of recorded values
+ * @param mean  the mean of the recorded values
+ * @param p50   the median
+ * @param p90   the 90th percentile
+ * @param p99   the 99th percentile
+ * @param p999  the 99.9th percentile
+ * @param max   the maximum
+ */
+public record HistogramSnapshot(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+
+    static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0);
+}
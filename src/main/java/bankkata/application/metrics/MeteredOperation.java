@@ -0,0 +1,11 @@
+package bankkata.application.metrics;
+
+/**
+ * Operations of the application service measured by {@link OperationMetrics}.
+ */
+public enum MeteredOperation {
+    DEPOSIT,
+    WITHDRAW,
+    GET_BALANCE,
+    GET_STATEMENT
+}
@@ -0,0 +1,90 @@
+package bankkata.application.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the operations of the application
+ * service, plus a histogram of the history sizes of rendered statements.
+ * <p>
+ * Recording uses {@link LongAdder}s and striped {@link Histogram}s, so the
+ * hot path takes no lock. Latencies are measured in nanoseconds from a start
+ * time taken with {@link System#nanoTime()}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class OperationMetrics {
+    private static final MeteredOperation[] OPERATIONS = MeteredOperation.values();
+    private static final FailureKind[] FAILURE_KINDS = FailureKind.values();
+
+    private final Histogram[] latencies = new Histogram[OPERATIONS.length];
+    private final LongAdder[] successes = new LongAdder[OPERATIONS.length];
+    private final LongAdder[][] failures = new LongAdder[OPERATIONS.length][FAILURE_KINDS.length];
+    private final Histogram historySizes = new Histogram();
+
+    public OperationMetrics() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            latencies[i] = new Histogram();
+            successes[i] = new LongAdder();
+            for (int kind = 0; kind < FAILURE_KINDS.length; kind++) {
+                failures[i][kind] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Records a successful operation.
+     *
+     * @param operation  the operation
+     * @param startNanos the {@link System#nanoTime()} when the operation started
+     */
+    public void recordSuccess(MeteredOperation operation, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        successes[operation.ordinal()].increment();
+        latencies[operation.ordinal()].record(elapsed);
+    }
+
+    /**
+     * Records a failed operation.
+     *
+     * @param operation  the operation
+     * @param failure    the exception thrown by the operation
+     * @param startNanos the {@link System#nanoTime()} when the operation started
+     */
+    public void recordFailure(MeteredOperation operation, Throwable failure, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        failures[operation.ordinal()][FailureKind.of(failure).ordinal()].increment();
+        latencies[operation.ordinal()].record(elapsed);
+    }
+
+    /**
+     * Records the number of operations in a rendered statement.
+     *
+     * @param size the history size
+     */
+    public void recordHistorySize(int size) {
+        historySizes.record(size);
+    }
+
+    /**
+     * Returns the metrics recorded so far, for scraping. The snapshot is
+     * taken without stopping recording, so it is only weakly consistent.
+     *
+     * @return the metrics snapshot
+     */
+    public OperationMetricsSnapshot snapshot() {
+        Map<MeteredOperation, OperationMetricsSnapshot.OperationStats> operations =
+                new EnumMap<>(MeteredOperation.class);
+        for (MeteredOperation operation : OPERATIONS) {
+            int i = operation.ordinal();
+            Map<FailureKind, Long> failureCounts = new EnumMap<>(FailureKind.class);
+            for (FailureKind kind : FAILURE_KINDS) {
+                failureCounts.put(kind, failures[i][kind.ordinal()].sum());
+            }
+            operations.put(operation, new OperationMetricsSnapshot.OperationStats(successes[i].sum(),
+                    Map.copyOf(failureCounts), latencies[i].snapshot()));
+        }
+        return new OperationMetricsSnapshot(Map.copyOf(operations), historySizes.snapshot());
+    }
+}
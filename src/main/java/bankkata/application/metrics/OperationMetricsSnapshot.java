@@ -0,0 +1,33 @@
+package bankkata.application.metrics;
+
+import java.util.Map;
+
+/**
+ * Metrics recorded by {@link OperationMetrics}.
+ *
+ * @param operations   the statistics of each operation
+ * @param historySizes the distribution of the history sizes of rendered statements
+ */
+public record OperationMetricsSnapshot(Map<MeteredOperation, OperationStats> operations,
+                                       HistogramSnapshot historySizes) {
+
+    /**
+     * Statistics of one operation.
+     *
+     * @param successCount  the number of successful calls
+     * @param failureCounts the number of failed calls by kind of failure
+     * @param latencyNanos  the latency of successful and failed calls, in nanoseconds
+     */
+    public record OperationStats(long successCount, Map<FailureKind, Long> failureCounts,
+                                 HistogramSnapshot latencyNanos) {
+
+        /**
+         * Returns the number of failed calls of any kind.
+         *
+         * @return the failure count
+         */
+        public long failureCount() {
+            return failureCounts.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
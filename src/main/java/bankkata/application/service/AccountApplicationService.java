@@ -1,30 +1,127 @@
 package bankkata.application.service;
 
+import bankkata.application.dto.AccountCommandDto;
+import bankkata.application.dto.CommandResultDto;
+import bankkata.application.dto.DailyTotalsDto;
+import bankkata.application.dto.LedgerTotalsDto;
 import bankkata.application.dto.OperationDto;
 import bankkata.application.dto.StatementDto;
+import bankkata.application.dto.StatementPageDto;
 import bankkata.application.exception.ApplicationException;
+import bankkata.application.metrics.MeteredOperation;
+import bankkata.application.metrics.OperationMetrics;
 import bankkata.domain.exception.AccountNotFoundException;
 import bankkata.domain.exception.InvalidOperationException;
-import bankkata.domain.model.Account;
 import bankkata.domain.model.AccountId;
+import bankkata.domain.model.HistorySnapshot;
 import bankkata.domain.model.Money;
 import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationPage;
+import bankkata.domain.model.OperationType;
+import bankkata.domain.service.AccountCommand;
 import bankkata.domain.service.AccountService;
+import bankkata.domain.service.CommandResult;
+import bankkata.domain.service.LedgerTotals;
 import bankkata.domain.service.StatementService;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Application service for account operations.
  * This class serves as the entry point to the application business logic.
+ * <p>
+ * Deposits, withdrawals, balance reads and statements are measured by an
+ * {@link OperationMetrics}, which records without locking. Deposits and
+ * withdrawals sent with an idempotency key are applied at most once per key,
+ * as remembered by an {@link IdempotencyCache}.
  */
 public class AccountApplicationService {
+    private static final int DEFAULT_IDEMPOTENCY_KEYS = 65_536;
+    private static final Duration DEFAULT_IDEMPOTENCY_TTL = Duration.ofHours(24);
+
     private final AccountService accountService;
     private final StatementService statementService;
+    private final StatementCache statementCache;
+    private final OperationMetrics metrics;
+    private final IdempotencyCache idempotencyCache;
 
     public AccountApplicationService(AccountService accountService, StatementService statementService) {
+        this(accountService, statementService, new StatementCache(statementService, 0, 0));
+    }
+
+    /**
+     * Creates the service with a cache of the statements returned by
+     * {@link #getStatement(String)}.
+     *
+     * @param accountService   the account service
+     * @param statementService the service rendering statements
+     * @param statementCache   the cache of rendered statements
+     */
+    public AccountApplicationService(AccountService accountService, StatementService statementService,
+                                     StatementCache statementCache) {
+        this(accountService, statementService, statementCache, new OperationMetrics());
+    }
+
+    /**
+     * Creates the service with a cache of the statements returned by
+     * {@link #getStatement(String)}, recording into the given metrics.
+     *
+     * @param accountService   the account service
+     * @param statementService the service rendering statements
+     * @param statementCache   the cache of rendered statements
+     * @param metrics          the metrics of the operations
+     */
+    public AccountApplicationService(AccountService accountService, StatementService statementService,
+                                     StatementCache statementCache, OperationMetrics metrics) {
+        this(accountService, statementService, statementCache, metrics,
+                new IdempotencyCache(DEFAULT_IDEMPOTENCY_KEYS, DEFAULT_IDEMPOTENCY_TTL));
+    }
+
+    /**
+     * Creates the service with a cache of the statements returned by
+     * {@link #getStatement(String)}, recording into the given metrics and
+     * remembering idempotency keys in the given cache.
+     *
+     * @param accountService   the account service
+     * @param statementService the service rendering statements
+     * @param statementCache   the cache of rendered statements
+     * @param metrics          the metrics of the operations
+     * @param idempotencyCache the cache of the outcomes of keyed deposits and withdrawals
+     */
+    public AccountApplicationService(AccountService accountService, StatementService statementService,
+                                     StatementCache statementCache, OperationMetrics metrics,
+                                     IdempotencyCache idempotencyCache) {
         this.accountService = accountService;
         this.statementService = statementService;
+        this.statementCache = statementCache;
+        this.metrics = metrics;
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    /**
+     * Returns the metrics of the operations of this service.
+     *
+     * @return the operation metrics
+     */
+    public OperationMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -35,13 +132,35 @@ public class AccountApplicationService {
      * @throws ApplicationException if the operation fails
      */
     public void deposit(String accountId, double amount) {
+        long start = System.nanoTime();
         try {
             accountService.deposit(new AccountId(accountId), new Money(amount));
+            metrics.recordSuccess(MeteredOperation.DEPOSIT, start);
         } catch (AccountNotFoundException | InvalidOperationException e) {
+            metrics.recordFailure(MeteredOperation.DEPOSIT, e, start);
             throw new ApplicationException("Failed to deposit: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MeteredOperation.DEPOSIT, e, start);
+            throw e;
         }
     }
 
+    /**
+     * Deposits money into an account at most once per idempotency key. A
+     * retry with the same key returns the outcome of the first deposit,
+     * including its failure, without touching the account.
+     *
+     * @param accountId      the ID of the account
+     * @param amount         the amount to deposit
+     * @param idempotencyKey the key identifying the deposit across retries
+     * @throws ApplicationException if the operation fails
+     * @throws IllegalArgumentException if the key was already used for another command
+     */
+    public void deposit(String accountId, double amount, String idempotencyKey) {
+        idempotencyCache.execute(idempotencyKey, new KeyedCommand(OperationType.DEPOSIT, accountId, amount),
+                () -> deposit(accountId, amount));
+    }
+
     /**
      * Withdraws money from an account.
      *
@@ -50,53 +169,330 @@ public class AccountApplicationService {
      * @throws ApplicationException if the operation fails
      */
     public void withdraw(String accountId, double amount) {
+        long start = System.nanoTime();
         try {
             accountService.withdraw(new AccountId(accountId), new Money(amount));
+            metrics.recordSuccess(MeteredOperation.WITHDRAW, start);
         } catch (AccountNotFoundException | InvalidOperationException e) {
+            metrics.recordFailure(MeteredOperation.WITHDRAW, e, start);
             throw new ApplicationException("Failed to withdraw: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MeteredOperation.WITHDRAW, e, start);
+            throw e;
+        }
+    }
+
+    /**
+     * Withdraws money from an account at most once per idempotency key. A
+     * retry with the same key returns the outcome of the first withdrawal,
+     * including its failure, without touching the account.
+     *
+     * @param accountId      the ID of the account
+     * @param amount         the amount to withdraw
+     * @param idempotencyKey the key identifying the withdrawal across retries
+     * @throws ApplicationException if the operation fails
+     * @throws IllegalArgumentException if the key was already used for another command
+     */
+    public void withdraw(String accountId, double amount, String idempotencyKey) {
+        idempotencyCache.execute(idempotencyKey, new KeyedCommand(OperationType.WITHDRAWAL, accountId, amount),
+                () -> withdraw(accountId, amount));
+    }
+
+    /**
+     * Transfers money between two accounts atomically.
+     *
+     * @param fromAccountId the ID of the account to debit
+     * @param toAccountId   the ID of the account to credit
+     * @param amount        the amount to transfer
+     * @throws ApplicationException if the operation fails
+     */
+    public void transfer(String fromAccountId, String toAccountId, double amount) {
+        try {
+            accountService.transfer(new AccountId(fromAccountId), new AccountId(toAccountId), new Money(amount));
+        } catch (AccountNotFoundException | InvalidOperationException e) {
+            throw new ApplicationException("Failed to transfer: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Gets the balance of an account.
+     * Applies a batch of deposits and withdrawals. Commands on the same
+     * account are applied in submission order, with one lock acquisition and
+     * one save per account. Invalid or failing commands are reported in the
+     * results and do not stop the batch.
+     *
+     * @param commands the commands to apply
+     * @return the result of each command, in the order of the commands
+     */
+    public List<CommandResultDto> executeBatch(List<AccountCommandDto> commands) {
+        CommandResultDto[] results = new CommandResultDto[commands.size()];
+        List<AccountCommand> valid = new ArrayList<>(commands.size());
+        int[] positions = new int[commands.size()];
+        for (int i = 0; i < commands.size(); i++) {
+            AccountCommandDto command = commands.get(i);
+            try {
+                valid.add(toCommand(command));
+                positions[valid.size() - 1] = i;
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                results[i] = new CommandResultDto(command, false, "Invalid command: " + e.getMessage());
+            }
+        }
+        List<CommandResult> applied = accountService.execute(valid);
+        for (int i = 0; i < applied.size(); i++) {
+            CommandResult result = applied.get(i);
+            results[positions[i]] = new CommandResultDto(commands.get(positions[i]), result.succeeded(),
+                    result.failureReason());
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Applies a stream of deposits and withdrawals in consecutive batches of
+     * at most chunkSize commands, so that arbitrarily long streams are
+     * processed in bounded memory.
+     *
+     * @param commands  the commands to apply
+     * @param chunkSize the maximum number of commands per batch
+     * @param results   the callback receiving the result of each command, in
+     *                  the order of the commands
+     * @throws IllegalArgumentException if chunkSize is not positive
+     */
+    public void executeBatch(Stream<AccountCommandDto> commands, int chunkSize, Consumer<CommandResultDto> results) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        Iterator<AccountCommandDto> iterator = commands.iterator();
+        List<AccountCommandDto> chunk = new ArrayList<>(chunkSize);
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                executeBatch(chunk).forEach(results);
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the balance of an account, without blocking concurrent operations
+     * on it.
      *
      * @param accountId the ID of the account
      * @return the account balance
      * @throws ApplicationException if the operation fails
      */
     public double getBalance(String accountId) {
+        long start = System.nanoTime();
         try {
-            Account account = accountService.getAccount(new AccountId(accountId));
-            return account.getBalance().getAmount().doubleValue();
+            double balance = accountService.getBalance(new AccountId(accountId)).balance().toDouble();
+            metrics.recordSuccess(MeteredOperation.GET_BALANCE, start);
+            return balance;
         } catch (AccountNotFoundException e) {
+            metrics.recordFailure(MeteredOperation.GET_BALANCE, e, start);
+            throw new ApplicationException("Failed to get balance: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MeteredOperation.GET_BALANCE, e, start);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the per-day totals of the operations of an account within a range
+     * of days. The totals are maintained as operations are performed, so no
+     * history is scanned.
+     *
+     * @param accountId the ID of the account
+     * @param from      the first day, inclusive
+     * @param to        the last day, inclusive
+     * @return the totals of the days with operations, in date order
+     * @throws ApplicationException if the operation fails
+     */
+    public List<DailyTotalsDto> getDailyTotals(String accountId, LocalDate from, LocalDate to) {
+        try {
+            return accountService.readAccount(new AccountId(accountId), account -> account.getDailyTotals(from, to))
+                    .stream()
+                    .map(totals -> new DailyTotalsDto(totals.date(), totals.operationCount(),
+                            Money.ofCents(totals.depositCents()).toDouble(),
+                            Money.ofCents(totals.withdrawalCents()).toDouble(),
+                            totals.closingBalance().toDouble()))
+                    .toList();
+        } catch (AccountNotFoundException | IllegalArgumentException e) {
+            throw new ApplicationException("Failed to get daily totals: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the balance of an account at the end of a day.
+     *
+     * @param accountId the ID of the account
+     * @param date      the day
+     * @return the balance after the last operation stamped on or before the day
+     * @throws ApplicationException if the operation fails
+     */
+    public double getBalanceAt(String accountId, LocalDate date) {
+        try {
+            return accountService.readAccount(new AccountId(accountId), account -> account.getBalanceAt(date))
+                    .toDouble();
+        } catch (AccountNotFoundException | IllegalArgumentException e) {
             throw new ApplicationException("Failed to get balance: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Gets a statement for an account.
+     * Gets the sum of the balances of all accounts and the number of
+     * operations of each type, from totals maintained as operations are
+     * applied rather than by scanning the accounts.
+     *
+     * @param consistent whether to briefly hold back all operations so that
+     *                   the totals reflect a single point in time, as needed
+     *                   for reconciliation
+     * @return the ledger totals
+     */
+    public LedgerTotalsDto getLedgerTotals(boolean consistent) {
+        LedgerTotals totals = consistent ? accountService.getConsistentLedgerTotals() : accountService.getLedgerTotals();
+        Map<String, Long> operationCounts = new LinkedHashMap<>();
+        totals.operationCounts().forEach((type, count) -> operationCounts.put(type.name(), count));
+        return new LedgerTotalsDto(totals.totalBalance().toDouble(), operationCounts);
+    }
+
+    /**
+     * Gets a statement for an account. The statement is taken from the
+     * statement cache when possible, and only the rows of the operations
+     * performed since it was cached are rendered. The operation DTOs are
+     * created from the history snapshot only as they are read.
      *
      * @param accountId the ID of the account
      * @return the account statement
      * @throws ApplicationException if the operation fails
      */
     public StatementDto getStatement(String accountId) {
+        long start = System.nanoTime();
         try {
-            Account account = accountService.getAccount(new AccountId(accountId));
-            List<Operation> operations = account.getOperations();
-            String formattedStatement = statementService.generateStatement(operations);
+            AccountId id = new AccountId(accountId);
+            HistorySnapshot history = accountService.getHistorySnapshot(id);
+            String formattedStatement = statementCache.getStatement(id, history);
 
-            List<OperationDto> operationDtos = operations.stream()
-                    .map(op -> new OperationDto(
-                            op.getType().toString(),
-                            op.getTimestamp(),
-                            op.getAmount().getAmount().doubleValue(),
-                            op.getBalanceAfterOperation().getAmount().doubleValue()))
-                    .toList();
-
-            return new StatementDto(formattedStatement, operationDtos);
+            metrics.recordHistorySize(history.size());
+            metrics.recordSuccess(MeteredOperation.GET_STATEMENT, start);
+            return new StatementDto(formattedStatement, new OperationDtoList(history));
         } catch (AccountNotFoundException e) {
+            metrics.recordFailure(MeteredOperation.GET_STATEMENT, e, start);
+            throw new ApplicationException("Failed to get statement: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MeteredOperation.GET_STATEMENT, e, start);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets one page of the statement of an account, limited to the operations
+     * performed within a time range. Pages are returned newest first; pass the
+     * cursor of a page to get the next, older one.
+     *
+     * @param accountId the ID of the account
+     * @param from      the start of the range, inclusive
+     * @param to        the end of the range, exclusive
+     * @param pageSize  the maximum number of operations in the page
+     * @param cursor    the cursor returned with the previous page, or null for the newest page
+     * @return the statement page
+     * @throws ApplicationException if the operation fails
+     */
+    public StatementPageDto getStatement(String accountId, ZonedDateTime from, ZonedDateTime to,
+                                         int pageSize, String cursor) {
+        try {
+            int position = cursor == null ? Integer.MAX_VALUE : Integer.parseInt(cursor);
+            OperationPage page = accountService.readAccount(new AccountId(accountId),
+                    account -> account.findOperations(from.toInstant(), to.toInstant(), pageSize, position));
+            List<Operation> operations = page.operations();
+            String formattedStatement = statementService.generateStatement(operations);
+            String nextCursor = page.nextCursor().isPresent()
+                    ? Integer.toString(page.nextCursor().getAsInt())
+                    : null;
+
+            return new StatementPageDto(formattedStatement, toDtos(operations), nextCursor);
+        } catch (AccountNotFoundException | IllegalArgumentException e) {
             throw new ApplicationException("Failed to get statement: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Streams a statement for an account to a writer, row by row, without
+     * materializing the statement or its operations. The writer is flushed
+     * but not closed.
+     *
+     * @param accountId the ID of the account
+     * @param writer    the destination of the statement
+     * @throws ApplicationException if the operation fails
+     */
+    public void writeStatement(String accountId, Writer writer) {
+        try {
+            HistorySnapshot history = accountService.getHistorySnapshot(new AccountId(accountId));
+            statementService.writeStatement(history, writer);
+            writer.flush();
+        } catch (AccountNotFoundException | IOException e) {
+            throw new ApplicationException("Failed to write statement: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams a statement for an account to a channel as UTF-8 text, without
+     * materializing the statement or its operations. The channel is not closed.
+     *
+     * @param accountId the ID of the account
+     * @param channel   the destination of the statement
+     * @throws ApplicationException if the operation fails
+     */
+    public void writeStatement(String accountId, WritableByteChannel channel) {
+        writeStatement(accountId, new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8)));
+    }
+
+    private static AccountCommand toCommand(AccountCommandDto command) {
+        OperationType type = switch (String.valueOf(command.type())) {
+            case "DEPOSIT" -> OperationType.DEPOSIT;
+            case "WITHDRAWAL" -> OperationType.WITHDRAWAL;
+            default -> throw new IllegalArgumentException("Unsupported command type " + command.type());
+        };
+        return new AccountCommand(new AccountId(command.accountId()), type, new Money(command.amount()));
+    }
+
+    private static List<OperationDto> toDtos(List<Operation> operations) {
+        return operations.stream()
+                .map(AccountApplicationService::toDto)
+                .toList();
+    }
+
+    private static OperationDto toDto(Operation operation) {
+        return new OperationDto(
+                operation.getType().toString(),
+                operation.getTimestamp(),
+                operation.getAmount().toDouble(),
+                operation.getBalanceAfterOperation().toDouble());
+    }
+
+    /**
+     * Unmodifiable list of operation DTOs read from a history snapshot on
+     * access, so callers that only need the formatted statement pay nothing
+     * for it.
+     */
+    private static final class OperationDtoList extends AbstractList<OperationDto> implements RandomAccess {
+        private final HistorySnapshot history;
+
+        private OperationDtoList(HistorySnapshot history) {
+            this.history = history;
+        }
+
+        @Override
+        public OperationDto get(int index) {
+            return toDto(history.get(index));
+        }
+
+        @Override
+        public int size() {
+            return history.size();
+        }
+    }
+
+    /**
+     * Parameters an idempotency key is bound to.
+     */
+    private record KeyedCommand(OperationType type, String accountId, double amount) {
+    }
 }
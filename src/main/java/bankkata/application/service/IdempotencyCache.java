@@ -0,0 +1,205 @@
+package bankkata.application.service;
+
+import bankkata.application.exception.ApplicationException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the outcomes of commands sent with an idempotency key, so that a
+ * retried command is answered with the outcome of its first execution
+ * instead of being applied again.
+ * <p>
+ * Keys are spread over 64 lock stripes by hash, each holding a 64th of the
+ * maximum number of entries, rounded down. The cache therefore never holds
+ * more keys than its maximum, but a key can be evicted before the cache as a
+ * whole is full. Each stripe keeps its entries in insertion order, which is
+ * also expiry order since every entry lives for the same time, so expired
+ * entries are purged from the head of the stripe on access and the oldest
+ * entry is evicted once the stripe is full. Outcomes
+ * are successes, {@link ApplicationException}s and
+ * {@link IllegalArgumentException}s, such as insufficient funds, which a
+ * retry would only repeat; a command failing with any other exception is
+ * forgotten, so that its retry runs again.
+ * <p>
+ * A key is bound to the parameters of the first command sent with it, such
+ * as its operation, account and amount: reusing it for a command with other
+ * parameters is rejected rather than answered with an unrelated outcome.
+ * <p>
+ * A duplicate arriving while the first execution is still running waits for
+ * its outcome. An entry evicted before its command completes no longer
+ * deduplicates its key.
+ * <p>
+ * This class is thread-safe. Commands run outside the stripe locks.
+ */
+public class IdempotencyCache {
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries the maximum number of remembered keys, at least one per stripe
+     * @param ttl        how long an outcome is remembered
+     * @throws IllegalArgumentException if maxEntries is less than 64 or ttl is not positive
+     */
+    public IdempotencyCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(int maxEntries, Duration ttl, LongSupplier nanoTime) {
+        if (maxEntries < STRIPES) {
+            throw new IllegalArgumentException("Maximum number of entries must be at least " + STRIPES);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        int stripeCapacity = maxEntries / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Runs a command unless a command with the same key already ran within
+     * the time to live, in which case its outcome is returned again.
+     *
+     * @param idempotencyKey the key identifying the command across retries
+     * @param parameters     the parameters of the command, compared with
+     *                       {@code equals} to those the key was first used with
+     * @param command        the command to run
+     * @throws ApplicationException     the failure of the first execution of the command
+     * @throws IllegalArgumentException the failure of the first execution of the command, if the key
+     *                                  or the parameters are null, or if the key was used with other parameters
+     */
+    public void execute(String idempotencyKey, Object parameters, Runnable command) {
+        if (idempotencyKey == null || parameters == null) {
+            throw new IllegalArgumentException("Idempotency key and command parameters must not be null");
+        }
+        Stripe stripe = stripes[spread(idempotencyKey.hashCode()) & (STRIPES - 1)];
+        long now = nanoTime.getAsLong();
+        Entry entry;
+        boolean first = false;
+        synchronized (stripe) {
+            stripe.purgeExpired(now);
+            entry = stripe.get(idempotencyKey);
+            if (entry == null) {
+                entry = new Entry(parameters, now + ttlNanos);
+                stripe.put(idempotencyKey, entry);
+                first = true;
+            }
+        }
+        if (first) {
+            run(stripe, idempotencyKey, entry, command);
+        } else if (!entry.parameters.equals(parameters)) {
+            throw new IllegalArgumentException("Idempotency key " + idempotencyKey
+                    + " was already used for another command");
+        } else {
+            entry.await();
+        }
+    }
+
+    /**
+     * Returns the number of remembered keys, expired ones included until
+     * they are purged.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static void run(Stripe stripe, String idempotencyKey, Entry entry, Runnable command) {
+        try {
+            command.run();
+            entry.complete(null);
+        } catch (ApplicationException | IllegalArgumentException e) {
+            entry.complete(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            synchronized (stripe) {
+                stripe.remove(idempotencyKey, entry);
+            }
+            entry.complete(e);
+            throw e;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // Never serialized
+    @SuppressWarnings("serial")
+    private static final class Stripe extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void purgeExpired(long now) {
+            Iterator<Entry> iterator = values().iterator();
+            while (iterator.hasNext() && iterator.next().expiresAtNanos - now <= 0) {
+                iterator.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Entry {
+        private final Object parameters;
+        private final long expiresAtNanos;
+        private boolean done;
+        private Throwable failure;
+
+        Entry(Object parameters, long expiresAtNanos) {
+            this.parameters = parameters;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        synchronized void complete(Throwable failure) {
+            this.failure = failure;
+            this.done = true;
+            notifyAll();
+        }
+
+        synchronized void await() {
+            boolean interrupted = false;
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+    }
+}
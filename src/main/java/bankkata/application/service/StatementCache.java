@@ -0,0 +1,174 @@
+package bankkata.application.service;
+
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.HistorySnapshot;
+import bankkata.domain.service.StatementService;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rendered account statements, keyed by account.
+ * <p>
+ * Each entry holds the statement and the number of operations it covers.
+ * When more operations have been performed since, only their rows are
+ * rendered and placed in front of the cached ones. Entries are evicted least
+ * recently used first once the cache holds more than a maximum number of
+ * entries or of bytes, with statements counted at two bytes per character.
+ * An entry is re-rendered in full when the history no longer starts and
+ * continues like the cached statement, for example after the account was
+ * reloaded from a snapshot. Only the first sequence number of the history
+ * and its last cached operation are compared, so a hit reads the newest
+ * operations only, which stay on the heap in every operation store.
+ * <p>
+ * This class is thread-safe. Statements are rendered outside the cache lock.
+ */
+public class StatementCache {
+    private final StatementService statementService;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<AccountId, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+    private long hitCount;
+    private long extensionCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache.
+     *
+     * @param statementService the service rendering the statements
+     * @param maxEntries       the maximum number of cached statements
+     * @param maxBytes         the maximum total size of the cached statements
+     * @throws IllegalArgumentException if a bound is negative
+     */
+    public StatementCache(StatementService statementService, int maxEntries, long maxBytes) {
+        if (maxEntries < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Cache bounds must not be negative");
+        }
+        this.statementService = statementService;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the statement of the operations of a history snapshot,
+     * rendering only what the cached statement of the account lacks.
+     *
+     * @param accountId the ID of the account
+     * @param history   a snapshot of the operation history of the account
+     * @return the formatted statement
+     */
+    public String getStatement(AccountId accountId, HistorySnapshot history) {
+        int count = history.size();
+        Entry cached;
+        synchronized (this) {
+            cached = entries.get(accountId);
+            if (cached != null && cached.operationCount == count && cached.matches(history)) {
+                hitCount++;
+                return cached.statement;
+            }
+        }
+
+        String statement;
+        boolean extended = cached != null && cached.operationCount < count && cached.matches(history);
+        if (extended) {
+            statement = statementService.extendStatement(cached.statement, history, cached.operationCount, count);
+        } else {
+            statement = statementService.generateStatement(history, count);
+        }
+        Entry entry = new Entry(statement, count, history);
+
+        synchronized (this) {
+            if (extended) {
+                extensionCount++;
+            } else {
+                missCount++;
+            }
+            Entry current = entries.get(accountId);
+            if (current == null || current.operationCount <= count) {
+                put(accountId, entry);
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * Removes the cached statement of an account.
+     *
+     * @param accountId the ID of the account
+     */
+    public synchronized void invalidate(AccountId accountId) {
+        Entry removed = entries.remove(accountId);
+        if (removed != null) {
+            sizeBytes -= removed.sizeBytes();
+        }
+    }
+
+    /**
+     * Returns the current counters of the cache.
+     *
+     * @return the cache metrics
+     */
+    public synchronized StatementCacheMetrics metrics() {
+        return new StatementCacheMetrics(hitCount, extensionCount, missCount, evictionCount, entries.size(),
+                sizeBytes);
+    }
+
+    private void put(AccountId accountId, Entry entry) {
+        Entry replaced = entries.remove(accountId);
+        if (replaced != null) {
+            sizeBytes -= replaced.sizeBytes();
+        }
+        if (maxEntries == 0 || entry.sizeBytes() > maxBytes) {
+            return;
+        }
+        entries.put(accountId, entry);
+        sizeBytes += entry.sizeBytes();
+
+        Iterator<Map.Entry<AccountId, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || sizeBytes > maxBytes) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            sizeBytes -= evicted.sizeBytes();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * A rendered statement with the first sequence number and the last
+     * operation it covers, to recognize the history it was rendered from.
+     */
+    private static final class Entry {
+        private final String statement;
+        private final int operationCount;
+        private final int firstSequence;
+        private final long lastEpochMillis;
+        private final long lastBalanceCents;
+
+        private Entry(String statement, int operationCount, HistorySnapshot history) {
+            this.statement = statement;
+            this.operationCount = operationCount;
+            this.firstSequence = history.firstSequence();
+            this.lastEpochMillis = operationCount == 0 ? 0 : history.epochMillisAt(operationCount - 1);
+            this.lastBalanceCents = operationCount == 0 ? 0 : history.balanceCentsAt(operationCount - 1);
+        }
+
+        private boolean matches(HistorySnapshot history) {
+            if (history.firstSequence() != firstSequence) {
+                return false;
+            }
+            if (operationCount == 0) {
+                return true;
+            }
+            return operationCount <= history.size()
+                    && history.epochMillisAt(operationCount - 1) == lastEpochMillis
+                    && history.balanceCentsAt(operationCount - 1) == lastBalanceCents;
+        }
+
+        private long sizeBytes() {
+            return 2L * statement.length();
+        }
+    }
+}
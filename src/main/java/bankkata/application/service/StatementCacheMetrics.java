@@ -0,0 +1,15 @@
+package bankkata.application.service;
+
+/**
+ * Metrics of a {@link StatementCache}.
+ *
+ * @param hitCount       the number of statements returned from the cache unchanged
+ * @param extensionCount the number of cached statements extended with new rows
+ * @param missCount      the number of statements rendered in full
+ * @param evictionCount  the number of statements evicted to respect the bounds
+ * @param entryCount     the number of cached statements
+ * @param sizeBytes      the estimated size of the cached statements
+ */
+public record StatementCacheMetrics(long hitCount, long extensionCount, long missCount, long evictionCount,
+                                    int entryCount, long sizeBytes) {
+}
@@ -0,0 +1,10 @@
+package bankkata.domain.exception;
+
+/**
+ * Exception thrown when a debit exceeds the balance of an account.
+ */
+public class InsufficientFundsException extends IllegalArgumentException {
+    public InsufficientFundsException() {
+        super("Insufficient funds");
+    }
+}
@@ -1,28 +1,127 @@
 package bankkata.domain.model;
 
+import bankkata.domain.exception.InsufficientFundsException;
 import lombok.Getter;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.OptionalInt;
 
 /**
  * Represents a bank account that can perform deposit and withdrawal operations.
  * This is an entity - it has identity and mutable state.
+ * <p>
+ * Mutations must be serialized by the caller. After each operation the
+ * account publishes an immutable {@link BalanceView} through a volatile
+ * field, so the balance can be read from any thread without locking. The
+ * other reads must be serialized with the mutations too; a
+ * {@link #snapshotHistory()} taken that way can then be read from any thread.
  */
 public class Account {
     @Getter
     private final AccountId id;
-    private final List<Operation> operations;
+    private final OperationStore operations;
+    private final OperationIndex operationIndex;
+    private final DailyAggregates dailyAggregates = new DailyAggregates();
     private final Clock clock;
-    @Getter
-    private Money balance;
+    private final int idHash;
+    private long balanceCents;
+    private int unloadedOperationCount;
+    private volatile BalanceView balanceView = BalanceView.EMPTY;
 
     public Account(AccountId id, Clock clock) {
+        this(id, clock, new ListOperationStore());
+    }
+
+    /**
+     * Creates an account keeping its history in the given store.
+     *
+     * @param id         the account ID
+     * @param clock      the clock used to stamp operations
+     * @param operations an empty store for the operation history
+     * @throws IllegalArgumentException if the store is not empty
+     */
+    public Account(AccountId id, Clock clock, OperationStore operations) {
+        if (operations.size() != 0) {
+            throw new IllegalArgumentException("Operation store must be empty");
+        }
         this.id = id;
+        this.idHash = id.hashCode();
         this.clock = clock;
-        this.balance = Money.ZERO;
-        this.operations = new ArrayList<>();
+        this.balanceCents = 0;
+        this.operations = operations;
+        this.operationIndex = new OperationIndex(operations::epochMillisAt);
+    }
+
+    /**
+     * Returns the hash code of the account ID, computed once, so that callers
+     * holding the account can pick its lock without hashing the ID again.
+     *
+     * @return the hash code of the ID
+     */
+    public int idHash() {
+        return idHash;
+    }
+
+    /**
+     * Recreates an account from its recorded history, for example when
+     * replaying a journal. The balance is taken from the last operation.
+     *
+     * @param id      the account ID
+     * @param clock   the clock used to stamp future operations
+     * @param history the operations in the order they were performed
+     * @return the restored account
+     */
+    public static Account restore(AccountId id, Clock clock, List<Operation> history) {
+        return restore(id, clock, new AccountSnapshot(id, Money.ZERO, 0), history);
+    }
+
+    /**
+     * Recreates an account from a snapshot and the operations performed after
+     * it. Operations older than the snapshot are not loaded, so they are not
+     * part of {@link #getOperations()} but are still counted by
+     * {@link #getOperationCount()}.
+     *
+     * @param id       the account ID
+     * @param clock    the clock used to stamp future operations
+     * @param snapshot the state of the account when the snapshot was taken
+     * @param tail     the operations performed after the snapshot, in order
+     * @return the restored account
+     */
+    public static Account restore(AccountId id, Clock clock, AccountSnapshot snapshot, List<Operation> tail) {
+        return restore(id, clock, snapshot, tail, new ListOperationStore());
+    }
+
+    /**
+     * Recreates an account from a snapshot and the operations performed after
+     * it, keeping its history in the given store.
+     *
+     * @param id         the account ID
+     * @param clock      the clock used to stamp future operations
+     * @param snapshot   the state of the account when the snapshot was taken
+     * @param tail       the operations performed after the snapshot, in order
+     * @param operations an empty store for the operation history
+     * @return the restored account
+     * @throws IllegalArgumentException if the store is not empty
+     */
+    public static Account restore(AccountId id, Clock clock, AccountSnapshot snapshot, List<Operation> tail,
+                                  OperationStore operations) {
+        Account account = new Account(id, clock, operations);
+        account.unloadedOperationCount = snapshot.operationCount();
+        account.balanceCents = snapshot.balance().getCents();
+        if (snapshot.operationCount() > 0) {
+            account.dailyAggregates.startAfterUnaddedOperations();
+        }
+        account.balanceView = new BalanceView(account.balanceCents, snapshot.operationCount(), null);
+        for (Operation operation : tail) {
+            account.append(operation.getType(), operation.getTimestamp(), operation.getAmount().getCents(),
+                    operation.getBalanceAfterOperation().getCents());
+        }
+        return account;
     }
 
     /**
@@ -30,12 +129,12 @@ public class Account {
      *
      * @param amount the amount to deposit
      * @throws IllegalArgumentException if amount is negative or zero
+     * @throws ArithmeticException      if the balance would overflow
      */
     public void deposit(Money amount) {
         validatePositiveAmount(amount);
 
-        balance = balance.add(amount);
-        recordOperation(OperationType.DEPOSIT, amount);
+        recordOperation(OperationType.DEPOSIT, amount, Math.addExact(balanceCents, amount.getCents()));
     }
 
     /**
@@ -49,17 +148,205 @@ public class Account {
         validatePositiveAmount(amount);
         validateSufficientFunds(amount);
 
-        balance = balance.subtract(amount);
-        recordOperation(OperationType.WITHDRAWAL, amount);
+        recordOperation(OperationType.WITHDRAWAL, amount, Math.subtractExact(balanceCents, amount.getCents()));
+    }
+
+    /**
+     * Transfers money between two accounts, recording a transfer out on the
+     * source and a transfer in on the target with the same timestamp. Both
+     * accounts are validated before either is changed, so the transfer is
+     * applied completely or not at all: if the transfer in cannot be
+     * recorded, the source is credited back with a reversing transfer in
+     * before the failure is rethrown. The caller must hold the exclusive
+     * right to mutate both accounts.
+     *
+     * @param from   the account to debit
+     * @param to     the account to credit
+     * @param amount the amount to transfer
+     * @throws IllegalArgumentException if amount is negative or zero, if the
+     *                                  accounts are the same or if there are
+     *                                  insufficient funds
+     * @throws ArithmeticException      if the target balance would overflow
+     */
+    public static void transfer(Account from, Account to, Money amount) {
+        if (from.id.equals(to.id)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        from.validatePositiveAmount(amount);
+        from.validateSufficientFunds(amount);
+        long targetBalance = Math.addExact(to.balanceCents, amount.getCents());
+
+        long epochMillis = from.clock.epochMillis();
+        ZoneId zone = from.clock.zone();
+        long sourceBalance = from.balanceCents;
+        from.append(OperationType.TRANSFER_OUT, epochMillis, zone, amount.getCents(),
+                Math.subtractExact(sourceBalance, amount.getCents()));
+        try {
+            to.append(OperationType.TRANSFER_IN, epochMillis, zone, amount.getCents(), targetBalance);
+        } catch (RuntimeException e) {
+            try {
+                from.append(OperationType.TRANSFER_IN, epochMillis, zone, amount.getCents(), sourceBalance);
+            } catch (RuntimeException reversalFailure) {
+                e.addSuppressed(reversalFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the balance of the account after its last completed operation.
+     * Safe to call from any thread without locking.
+     *
+     * @return the balance
+     */
+    public Money getBalance() {
+        return Money.ofCents(balanceView.balanceCents());
+    }
+
+    /**
+     * Returns a consistent view of the balance, operation count and last
+     * operation timestamp after the last completed operation. Safe to call
+     * from any thread without locking; never blocks writers.
+     *
+     * @return the balance view
+     */
+    public BalanceView getBalanceView() {
+        return balanceView;
+    }
+
+    /**
+     * Returns the number of operations performed on the account since it was
+     * opened, including operations not loaded in memory.
+     *
+     * @return the operation count
+     */
+    public int getOperationCount() {
+        return unloadedOperationCount + operations.size();
     }
 
     /**
      * Returns an unmodifiable list of all operations performed on the account.
+     * Depending on the operation store, the operations may be materialized
+     * as the list is read.
      *
      * @return list of operations
      */
     public List<Operation> getOperations() {
-        return Collections.unmodifiableList(operations);
+        return operations.asList();
+    }
+
+    /**
+     * Returns a read-only view of the loaded operation history giving access
+     * to the fields of each operation without materializing it.
+     *
+     * @return the operation history
+     */
+    public OperationHistory getOperationHistory() {
+        return new HistoryView(operations);
+    }
+
+    /**
+     * Returns an immutable snapshot of the loaded operation history. Taking
+     * it must be serialized with the mutations of the account, but it costs
+     * no copy of the history with the stores of this project, except for the
+     * bounded hot tier of a tiered store, and it can then be read from any
+     * thread while the account keeps changing.
+     *
+     * @return the history snapshot
+     */
+    public HistorySnapshot snapshotHistory() {
+        return new HistorySnapshot(operations.snapshot(), unloadedOperationCount);
+    }
+
+    /**
+     * Returns the per-day totals of the operations stamped within a range of
+     * days, maintained as operations are performed. Each operation counts on
+     * its date in its own time zone. For an account restored from a
+     * snapshot, only the days after the first loaded operation are
+     * available, as earlier days may have operations that are not loaded.
+     *
+     * @param from the first day, inclusive
+     * @param to   the last day, inclusive
+     * @return the totals of the days with operations, in date order
+     * @throws IllegalArgumentException if the range starts on a day whose
+     *                                  totals are not available
+     */
+    public List<DailyTotals> getDailyTotals(LocalDate from, LocalDate to) {
+        return dailyAggregates.totals(from, to);
+    }
+
+    /**
+     * Returns the balance at the end of a day, found by binary search over
+     * the daily totals instead of replaying the history. For an account
+     * restored from a snapshot, only the days from the first loaded operation
+     * on are available.
+     *
+     * @param date the day
+     * @return the balance after the last operation stamped on or before the day
+     * @throws IllegalArgumentException if the balance at the end of the day is not available
+     */
+    public Money getBalanceAt(LocalDate date) {
+        return Money.ofCents(dailyAggregates.closingBalanceCents(date));
+    }
+
+    /**
+     * Visits the operations whose timestamp is within a time range, in
+     * chronological order, without materializing them. Timestamps are compared
+     * at millisecond precision. Only operations loaded in memory are visited.
+     *
+     * @param from    the start of the range, inclusive
+     * @param to      the end of the range, exclusive
+     * @param visitor the callback receiving each operation
+     */
+    public void forEachOperation(Instant from, Instant to, OperationVisitor visitor) {
+        OperationHistory history = new HistoryView(operations);
+        int end = operationIndex.firstAtOrAfter(to.toEpochMilli());
+        for (int position = operationIndex.firstAtOrAfter(from.toEpochMilli()); position < end; position++) {
+            visitor.visit(history, operationIndex.operationAt(position));
+        }
+    }
+
+    /**
+     * Finds the operations whose timestamp is within a time range, newest
+     * first, one page at a time. Timestamps are compared at millisecond
+     * precision. Only operations loaded in memory are searched.
+     *
+     * @param from  the start of the range, inclusive
+     * @param to    the end of the range, exclusive
+     * @param limit the maximum number of operations to return
+     * @return the newest page of operations in the range
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public OperationPage findOperations(Instant from, Instant to, int limit) {
+        return findOperations(from, to, limit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the next page of operations within a time range, continuing from
+     * the cursor returned with the previous page.
+     *
+     * @param from   the start of the range, inclusive
+     * @param to     the end of the range, exclusive
+     * @param limit  the maximum number of operations to return
+     * @param cursor the cursor of the page, as returned by {@link OperationPage#nextCursor()}
+     * @return the requested page of operations
+     * @throws IllegalArgumentException if limit is not positive or the cursor is negative
+     */
+    public OperationPage findOperations(Instant from, Instant to, int limit, int cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (cursor < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int first = operationIndex.firstAtOrAfter(from.toEpochMilli());
+        int end = Math.min(operationIndex.firstAtOrAfter(to.toEpochMilli()), cursor);
+        int start = Math.max(first, end - limit);
+        List<Operation> page = new ArrayList<>(Math.max(end - start, 0));
+        for (int position = start; position < end; position++) {
+            page.add(operations.get(operationIndex.operationAt(position)));
+        }
+        return new OperationPage(page, start > first ? OptionalInt.of(start) : OptionalInt.empty());
     }
 
     private void validatePositiveAmount(Money amount) {
@@ -69,12 +356,73 @@ public class Account {
     }
 
     private void validateSufficientFunds(Money amount) {
-        if (amount.isGreaterThan(balance)) {
-            throw new IllegalArgumentException("Insufficient funds");
+        if (amount.getCents() > balanceCents) {
+            throw new InsufficientFundsException();
         }
     }
 
-    private void recordOperation(OperationType type, Money amount) {
-        operations.add(new Operation(type, clock.now(), amount, balance));
+    private void recordOperation(OperationType type, Money amount, long newBalanceCents) {
+        append(type, clock.epochMillis(), clock.zone(), amount.getCents(), newBalanceCents);
+    }
+
+    // The balance only changes once the store has accepted the operation, so
+    // a failed append, e.g. a full store or a failed spill, leaves the
+    // account unchanged
+    private void append(OperationType type, long epochMillis, ZoneId zone, long amountCents, long balanceCents) {
+        operations.append(type, epochMillis, zone, amountCents, balanceCents);
+        this.balanceCents = balanceCents;
+        operationIndex.add(epochMillis);
+        dailyAggregates.add(type, epochMillis, zone, amountCents, balanceCents);
+        balanceView = new BalanceView(balanceCents, getOperationCount(), epochMillis, zone);
+    }
+
+    private void append(OperationType type, ZonedDateTime timestamp, long amountCents, long balanceCents) {
+        operations.append(type, timestamp, amountCents, balanceCents);
+        this.balanceCents = balanceCents;
+        long epochMillis = operations.epochMillisAt(operations.size() - 1);
+        operationIndex.add(epochMillis);
+        dailyAggregates.add(type, epochMillis, timestamp.getZone(), amountCents, balanceCents);
+        balanceView = new BalanceView(balanceCents, getOperationCount(), epochMillis, timestamp.getZone());
+    }
+
+    /**
+     * Read-only view of an operation store.
+     */
+    private static final class HistoryView implements OperationHistory {
+        private final OperationHistory history;
+
+        private HistoryView(OperationHistory history) {
+            this.history = history;
+        }
+
+        @Override
+        public int size() {
+            return history.size();
+        }
+
+        @Override
+        public OperationType typeAt(int index) {
+            return history.typeAt(index);
+        }
+
+        @Override
+        public long epochMillisAt(int index) {
+            return history.epochMillisAt(index);
+        }
+
+        @Override
+        public ZoneId zoneAt(int index) {
+            return history.zoneAt(index);
+        }
+
+        @Override
+        public long amountCentsAt(int index) {
+            return history.amountCentsAt(index);
+        }
+
+        @Override
+        public long balanceCentsAt(int index) {
+            return history.balanceCentsAt(index);
+        }
     }
 }
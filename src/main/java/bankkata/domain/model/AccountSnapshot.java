@@ -0,0 +1,11 @@
+package bankkata.domain.model;
+
+/**
+ * Point-in-time summary of an account, used to bound recovery time.
+ *
+ * @param accountId      the account ID
+ * @param balance        the balance after the last counted operation
+ * @param operationCount the number of operations performed since the account was opened
+ */
+public record AccountSnapshot(AccountId accountId, Money balance, int operationCount) {
+}
@@ -0,0 +1,57 @@
+package bankkata.domain.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Immutable view of the balance of an account after its last operation,
+ * published by the account so that it can be read without locking.
+ * <p>
+ * The timestamp of the last operation is kept as epoch milliseconds and a
+ * zone, and only materialized by {@link #lastOperationTimestamp()}.
+ *
+ * @param balanceCents             the balance in cents
+ * @param operationCount           the number of operations performed since the account was opened
+ * @param lastOperationEpochMillis the timestamp of the last operation in epoch milliseconds, or 0 if no
+ *                                 operation is loaded
+ * @param lastOperationZone        the time zone of the last operation, or null if no operation is loaded
+ */
+public record BalanceView(long balanceCents, int operationCount, long lastOperationEpochMillis,
+                          ZoneId lastOperationZone) {
+
+    static final BalanceView EMPTY = new BalanceView(0, 0, null);
+
+    /**
+     * Creates a view from a materialized timestamp, truncated to milliseconds.
+     *
+     * @param balanceCents           the balance in cents
+     * @param operationCount         the number of operations performed since the account was opened
+     * @param lastOperationTimestamp the timestamp of the last operation, or null if no operation is loaded
+     */
+    public BalanceView(long balanceCents, int operationCount, ZonedDateTime lastOperationTimestamp) {
+        this(balanceCents, operationCount,
+                lastOperationTimestamp == null ? 0 : lastOperationTimestamp.toInstant().toEpochMilli(),
+                lastOperationTimestamp == null ? null : lastOperationTimestamp.getZone());
+    }
+
+    /**
+     * Returns the balance.
+     *
+     * @return the balance
+     */
+    public Money balance() {
+        return Money.ofCents(balanceCents);
+    }
+
+    /**
+     * Returns the timestamp of the last operation.
+     *
+     * @return the timestamp, or null if no operation is loaded
+     */
+    public ZonedDateTime lastOperationTimestamp() {
+        return lastOperationZone == null
+                ? null
+                : Instant.ofEpochMilli(lastOperationEpochMillis).atZone(lastOperationZone);
+    }
+}
@@ -1,10 +1,15 @@
 package bankkata.domain.model;
 
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 /**
  * A clock interface that provides the current date and time.
  * This enables easier testing by allowing date and time mocking.
+ * <p>
+ * Accounts stamp operations through {@link #epochMillis()} and
+ * {@link #zone()}, so that clocks able to answer them without building a
+ * {@link ZonedDateTime} make stamping allocation-free.
  */
 public interface Clock {
     /**
@@ -13,4 +18,22 @@ public interface Clock {
      * @return the current date and time
      */
     ZonedDateTime now();
+
+    /**
+     * Returns the current time in milliseconds since the epoch.
+     *
+     * @return the current epoch milliseconds
+     */
+    default long epochMillis() {
+        return now().toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the time zone of the clock.
+     *
+     * @return the zone
+     */
+    default ZoneId zone() {
+        return now().getZone();
+    }
 }
@@ -0,0 +1,166 @@
+package bankkata.domain.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact operation store keeping the history in primitive columns: the type
+ * ordinal, the epoch-millisecond timestamp and the amount and balance in
+ * cents, about 25 bytes per operation instead of a graph of objects.
+ * <p>
+ * {@link Operation} objects are only created when the history is read through
+ * {@link #get(int)} or {@link #asList()}. Timestamps are kept at millisecond
+ * precision; their zones are kept in a small dictionary, and a zone column is
+ * only allocated once a second zone is seen.
+ * <p>
+ * Columns are only ever appended to and copied when they grow, so a snapshot
+ * shares them.
+ */
+public class ColumnarOperationStore implements OperationStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_ZONES = 256;
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private byte[] types;
+    private long[] timestamps;
+    private long[] amounts;
+    private long[] balances;
+    private byte[] zoneColumn;
+    private final List<ZoneId> zones;
+    private final boolean readOnly;
+    private int size;
+
+    public ColumnarOperationStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a store with room for a number of operations before growing.
+     *
+     * @param initialCapacity the initial capacity
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public ColumnarOperationStore(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        types = new byte[initialCapacity];
+        timestamps = new long[initialCapacity];
+        amounts = new long[initialCapacity];
+        balances = new long[initialCapacity];
+        zones = new ArrayList<>(1);
+        readOnly = false;
+    }
+
+    private ColumnarOperationStore(ColumnarOperationStore source) {
+        types = source.types;
+        timestamps = source.timestamps;
+        amounts = source.amounts;
+        balances = source.balances;
+        zoneColumn = source.zoneColumn;
+        zones = List.copyOf(source.zones);
+        size = source.size;
+        readOnly = true;
+    }
+
+    @Override
+    public void append(OperationType type, ZonedDateTime timestamp, long amountCents, long balanceCents) {
+        append(type, timestamp.toEpochSecond() * 1000 + timestamp.getNano() / 1_000_000, timestamp.getZone(),
+                amountCents, balanceCents);
+    }
+
+    @Override
+    public void append(OperationType type, long epochMillis, ZoneId timestampZone, long amountCents,
+                       long balanceCents) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Operation store snapshot is read-only");
+        }
+        if (size == types.length) {
+            grow();
+        }
+        int zone = zoneIndex(timestampZone);
+        if (zone > 0 && zoneColumn == null) {
+            zoneColumn = new byte[types.length];
+        }
+        if (zoneColumn != null) {
+            zoneColumn[size] = (byte) zone;
+        }
+        types[size] = (byte) type.ordinal();
+        timestamps[size] = epochMillis;
+        amounts[size] = amountCents;
+        balances[size] = balanceCents;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Operation get(int index) {
+        ZoneId zone = zoneAt(index);
+        return new Operation(TYPES[types[index]], Instant.ofEpochMilli(timestamps[index]).atZone(zone),
+                Money.ofCents(amounts[index]), Money.ofCents(balances[index]));
+    }
+
+    @Override
+    public OperationType typeAt(int index) {
+        return TYPES[types[Objects.checkIndex(index, size)]];
+    }
+
+    @Override
+    public long epochMillisAt(int index) {
+        return timestamps[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public ZoneId zoneAt(int index) {
+        Objects.checkIndex(index, size);
+        return zones.get(zoneColumn == null ? 0 : zoneColumn[index] & 0xFF);
+    }
+
+    @Override
+    public long amountCentsAt(int index) {
+        return amounts[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public long balanceCentsAt(int index) {
+        return balances[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public OperationStore snapshot() {
+        return new ColumnarOperationStore(this);
+    }
+
+    private int zoneIndex(ZoneId zone) {
+        for (int i = 0; i < zones.size(); i++) {
+            if (zones.get(i).equals(zone)) {
+                return i;
+            }
+        }
+        if (zones.size() == MAX_ZONES) {
+            throw new IllegalStateException("Too many distinct time zones in one history");
+        }
+        zones.add(zone);
+        return zones.size() - 1;
+    }
+
+    private void grow() {
+        int capacity = size + Math.max(size >> 1, 1);
+        types = Arrays.copyOf(types, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        balances = Arrays.copyOf(balances, capacity);
+        if (zoneColumn != null) {
+            zoneColumn = Arrays.copyOf(zoneColumn, capacity);
+        }
+    }
+}
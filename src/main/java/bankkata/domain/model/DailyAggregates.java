@@ -0,0 +1,189 @@
+package bankkata.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-day totals of the operations of an account, kept up to date as
+ * operations are appended, so that daily reports and end-of-day balances do
+ * not replay the history.
+ * <p>
+ * Days are stored in columns sorted by date. The bounds of the day of the
+ * latest operation are cached, so adding an operation stamped on that day,
+ * the common case, costs a range check and a few array writes. The first
+ * operation of a new day resolves its date in the zone of the operation
+ * once. An operation stamped on an earlier day than the latest one, e.g.
+ * after a clock step back, is added to that day, found by binary search; the
+ * closing balance of a day is the balance after the last operation added to
+ * it.
+ * <p>
+ * When the totals start after operations that were never added, as for an
+ * account restored from a snapshot, the days up to the first added
+ * operation may be missing some of them. Their totals, and the balances at
+ * the end of the days before it, are then refused rather than reported
+ * wrong. Not thread-safe; guarded by the owning account.
+ */
+final class DailyAggregates {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] days = new long[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private long[] deposits = new long[INITIAL_CAPACITY];
+    private long[] withdrawals = new long[INITIAL_CAPACITY];
+    private long[] closingBalances = new long[INITIAL_CAPACITY];
+    private int size;
+    // Whether operations before the first added one were not added, and its day
+    private boolean partial;
+    private long firstDay;
+
+    // Bounds of the day of the latest operation, in epoch milliseconds
+    private ZoneId cachedZone;
+    private long cachedDayStart = Long.MAX_VALUE;
+    private long cachedDayEnd = Long.MIN_VALUE;
+    private long cachedDay;
+
+    /**
+     * Marks the totals as starting after operations that are not added, so
+     * that the days they may fall on are refused.
+     */
+    void startAfterUnaddedOperations() {
+        this.partial = true;
+    }
+
+    /**
+     * Adds an operation to the totals of its day.
+     *
+     * @param type         the operation type
+     * @param epochMillis  the operation timestamp in epoch milliseconds
+     * @param zone         the time zone of the timestamp
+     * @param amountCents  the operation amount in cents
+     * @param balanceCents the balance after the operation in cents
+     */
+    void add(OperationType type, long epochMillis, ZoneId zone, long amountCents, long balanceCents) {
+        long day = epochMillis >= cachedDayStart && epochMillis < cachedDayEnd && zone.equals(cachedZone)
+                ? cachedDay
+                : dayOf(epochMillis, zone);
+        if (size == 0) {
+            firstDay = day;
+        }
+        int slot = size > 0 && days[size - 1] == day ? size - 1 : slotFor(day);
+        counts[slot]++;
+        if (type.isCredit()) {
+            deposits[slot] += amountCents;
+        } else {
+            withdrawals[slot] += amountCents;
+        }
+        closingBalances[slot] = balanceCents;
+    }
+
+    /**
+     * Returns the totals of the days within a range that have operations.
+     *
+     * @param from the first day, inclusive
+     * @param to   the last day, inclusive
+     * @return the totals, in date order
+     * @throws IllegalArgumentException if the range starts on a day that may
+     *                                  miss operations that were not added
+     */
+    List<DailyTotals> totals(LocalDate from, LocalDate to) {
+        if (partial && (size == 0 || from.toEpochDay() <= firstDay)) {
+            throw unavailable("Daily totals", 1);
+        }
+        int start = firstSlotAtOrAfter(from.toEpochDay());
+        int end = firstSlotAtOrAfter(to.toEpochDay() + 1);
+        List<DailyTotals> totals = new ArrayList<>(Math.max(end - start, 0));
+        for (int slot = start; slot < end; slot++) {
+            totals.add(new DailyTotals(LocalDate.ofEpochDay(days[slot]), counts[slot], deposits[slot],
+                    withdrawals[slot], closingBalances[slot]));
+        }
+        return totals;
+    }
+
+    /**
+     * Returns the balance at the end of a day: the closing balance of the
+     * latest day up to it with operations, or zero.
+     *
+     * @param date the day
+     * @return the balance in cents
+     * @throws IllegalArgumentException if the day is before the first added
+     *                                  operation and operations were not added
+     */
+    long closingBalanceCents(LocalDate date) {
+        if (partial && (size == 0 || date.toEpochDay() < firstDay)) {
+            throw unavailable("End-of-day balances", 0);
+        }
+        int slot = firstSlotAtOrAfter(date.toEpochDay() + 1) - 1;
+        return slot < 0 ? 0 : closingBalances[slot];
+    }
+
+    private IllegalArgumentException unavailable(String what, int daysAfterFirst) {
+        if (size == 0) {
+            return new IllegalArgumentException(what + " are not available before the first operation "
+                    + "performed since the account was restored");
+        }
+        return new IllegalArgumentException(what + " are only available from "
+                + LocalDate.ofEpochDay(firstDay + daysAfterFirst) + ", as the account was restored from a snapshot");
+    }
+
+    private long dayOf(long epochMillis, ZoneId zone) {
+        LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+        cachedZone = zone;
+        cachedDay = date.toEpochDay();
+        cachedDayStart = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        cachedDayEnd = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return cachedDay;
+    }
+
+    private int slotFor(long day) {
+        int slot = firstSlotAtOrAfter(day);
+        if (slot < size && days[slot] == day) {
+            return slot;
+        }
+        if (size == days.length) {
+            grow();
+        }
+        if (slot < size) {
+            // Earlier day than the latest one: shift the later days
+            int moved = size - slot;
+            System.arraycopy(days, slot, days, slot + 1, moved);
+            System.arraycopy(counts, slot, counts, slot + 1, moved);
+            System.arraycopy(deposits, slot, deposits, slot + 1, moved);
+            System.arraycopy(withdrawals, slot, withdrawals, slot + 1, moved);
+            System.arraycopy(closingBalances, slot, closingBalances, slot + 1, moved);
+        }
+        days[slot] = day;
+        counts[slot] = 0;
+        deposits[slot] = 0;
+        withdrawals[slot] = 0;
+        closingBalances[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    private int firstSlotAtOrAfter(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void grow() {
+        int capacity = days.length * 2;
+        days = Arrays.copyOf(days, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        deposits = Arrays.copyOf(deposits, capacity);
+        withdrawals = Arrays.copyOf(withdrawals, capacity);
+        closingBalances = Arrays.copyOf(closingBalances, capacity);
+    }
+}
@@ -0,0 +1,26 @@
+package bankkata.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Totals of the operations of an account stamped on one day. Transfers in
+ * count as deposits and transfers out as withdrawals.
+ *
+ * @param date                the day, in the time zone of the operations
+ * @param operationCount      the number of operations of the day
+ * @param depositCents        the sum of the deposits of the day in cents
+ * @param withdrawalCents     the sum of the withdrawals of the day in cents
+ * @param closingBalanceCents the balance after the last operation of the day in cents
+ */
+public record DailyTotals(LocalDate date, int operationCount, long depositCents, long withdrawalCents,
+                          long closingBalanceCents) {
+
+    /**
+     * Returns the closing balance.
+     *
+     * @return the balance at the end of the day
+     */
+    public Money closingBalance() {
+        return Money.ofCents(closingBalanceCents);
+    }
+}
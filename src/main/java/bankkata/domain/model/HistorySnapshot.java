@@ -0,0 +1,81 @@
+package bankkata.domain.model;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Immutable copy of the loaded operation history of an account at one point
+ * in time, taken with {@link Account#snapshotHistory()}. Operations performed
+ * afterwards are not part of it, so it can be read from any thread, at
+ * length, while the account keeps changing.
+ */
+public final class HistorySnapshot implements OperationHistory {
+    private final OperationStore operations;
+    private final int firstSequence;
+
+    HistorySnapshot(OperationStore operations, int firstSequence) {
+        this.operations = operations;
+        this.firstSequence = firstSequence;
+    }
+
+    /**
+     * Returns the sequence number of the operation at position 0, that is
+     * the number of earlier operations of the account that are not loaded,
+     * for example because it was restored from a snapshot.
+     *
+     * @return the sequence number of the oldest loaded operation
+     */
+    public int firstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Returns the operation at a position, materializing it if needed.
+     *
+     * @param index the position of the operation
+     * @return the operation
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public Operation get(int index) {
+        return operations.get(index);
+    }
+
+    /**
+     * Returns an unmodifiable list view of the operations of the snapshot.
+     *
+     * @return the list view
+     */
+    public List<Operation> asList() {
+        return operations.asList();
+    }
+
+    @Override
+    public int size() {
+        return operations.size();
+    }
+
+    @Override
+    public OperationType typeAt(int index) {
+        return operations.typeAt(index);
+    }
+
+    @Override
+    public long epochMillisAt(int index) {
+        return operations.epochMillisAt(index);
+    }
+
+    @Override
+    public ZoneId zoneAt(int index) {
+        return operations.zoneAt(index);
+    }
+
+    @Override
+    public long amountCentsAt(int index) {
+        return operations.amountCentsAt(index);
+    }
+
+    @Override
+    public long balanceCentsAt(int index) {
+        return operations.balanceCentsAt(index);
+    }
+}
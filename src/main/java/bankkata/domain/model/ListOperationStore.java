@@ -0,0 +1,84 @@
+package bankkata.domain.model;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Operation store keeping one {@link Operation} object per operation. Reads
+ * return the stored instances, with the exact timestamps they were recorded with.
+ * <p>
+ * The operations are kept in an array that is only ever appended to and
+ * copied when it grows, so a snapshot shares it.
+ */
+public class ListOperationStore implements OperationStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean readOnly;
+    private Operation[] operations;
+    private int size;
+
+    public ListOperationStore() {
+        this(new Operation[INITIAL_CAPACITY], 0, false);
+    }
+
+    private ListOperationStore(Operation[] operations, int size, boolean readOnly) {
+        this.operations = operations;
+        this.size = size;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public void append(OperationType type, ZonedDateTime timestamp, long amountCents, long balanceCents) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Operation store snapshot is read-only");
+        }
+        if (size == operations.length) {
+            operations = Arrays.copyOf(operations, size + (size >> 1) + 1);
+        }
+        operations[size] = new Operation(type, timestamp, Money.ofCents(amountCents), Money.ofCents(balanceCents));
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Operation get(int index) {
+        return operations[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public OperationType typeAt(int index) {
+        return get(index).getType();
+    }
+
+    @Override
+    public long epochMillisAt(int index) {
+        ZonedDateTime timestamp = get(index).getTimestamp();
+        return timestamp.toEpochSecond() * 1000 + timestamp.getNano() / 1_000_000;
+    }
+
+    @Override
+    public ZoneId zoneAt(int index) {
+        return get(index).getTimestamp().getZone();
+    }
+
+    @Override
+    public long amountCentsAt(int index) {
+        return get(index).getAmount().getCents();
+    }
+
+    @Override
+    public long balanceCentsAt(int index) {
+        return get(index).getBalanceAfterOperation().getCents();
+    }
+
+    @Override
+    public OperationStore snapshot() {
+        return new ListOperationStore(operations, size, true);
+    }
+}
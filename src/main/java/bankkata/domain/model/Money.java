@@ -1,46 +1,97 @@
 package bankkata.domain.model;
 
+import bankkata.util.MoneyUtil;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Value object representing money in the application.
- * Using BigDecimal ensures precise calculations for financial operations.
+ * <p>
+ * Amounts are held as a fixed-point number of minor units (cents) in a
+ * {@code long}, so arithmetic never allocates intermediate {@link BigDecimal}s.
+ * All arithmetic is overflow-checked. The {@code BigDecimal} and {@code double}
+ * forms are only built on demand at the API edge.
  */
 @Getter
 @EqualsAndHashCode
-@RequiredArgsConstructor
 public class Money {
-    public static final Money ZERO = new Money(BigDecimal.ZERO);
+    public static final Money ZERO = new Money(0L);
 
-    private final BigDecimal amount;
+    private final long cents;
 
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Creates money from an amount, rounded HALF_UP to two decimal places.
+     *
+     * @param amount the amount
+     * @throws ArithmeticException if the amount does not fit in a long number of cents
+     */
+    public Money(BigDecimal amount) {
+        this(MoneyUtil.toCents(amount));
+    }
+
+    /**
+     * Creates money from an amount, rounded HALF_UP to two decimal places.
+     *
+     * @param amount the amount
+     * @throws NumberFormatException if the amount is NaN or infinite
+     * @throws ArithmeticException   if the amount does not fit in a long number of cents
+     */
     public Money(double amount) {
-        this(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP));
+        this(MoneyUtil.toCents(amount));
+    }
+
+    /**
+     * Creates money from a number of minor units.
+     *
+     * @param cents the amount in cents
+     * @return the money
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Returns the amount with a scale of two.
+     *
+     * @return the amount as a BigDecimal
+     */
+    public BigDecimal getAmount() {
+        return MoneyUtil.fromCents(cents);
+    }
+
+    /**
+     * Returns the amount as a double, identical to {@code getAmount().doubleValue()}.
+     *
+     * @return the amount as a double
+     */
+    public double toDouble() {
+        return MoneyUtil.toDouble(cents);
     }
 
     public Money add(Money other) {
-        return new Money(this.amount.add(other.amount));
+        return ofCents(Math.addExact(this.cents, other.cents));
     }
 
     public Money subtract(Money other) {
-        return new Money(this.amount.subtract(other.amount));
+        return ofCents(Math.subtractExact(this.cents, other.cents));
     }
 
     public boolean isGreaterThan(Money other) {
-        return this.amount.compareTo(other.amount) > 0;
+        return this.cents > other.cents;
     }
 
     public boolean isLessThanOrEqualToZero() {
-        return this.amount.compareTo(BigDecimal.ZERO) <= 0;
+        return this.cents <= 0;
     }
 
     @Override
     public String toString() {
-        return amount.toPlainString();
+        return getAmount().toPlainString();
     }
 }
@@ -0,0 +1,29 @@
+package bankkata.domain.model;
+
+import java.time.ZoneId;
+
+/**
+ * Read-only, allocation-free access to the operation history of an account.
+ * Each field of the operation at a position is read as a primitive, so the
+ * history can be scanned without materializing {@link Operation} objects.
+ * Positions run from 0, the oldest loaded operation, to {@code size() - 1}.
+ */
+public interface OperationHistory {
+
+    /**
+     * Returns the number of operations in the history.
+     *
+     * @return the operation count
+     */
+    int size();
+
+    OperationType typeAt(int index);
+
+    long epochMillisAt(int index);
+
+    ZoneId zoneAt(int index);
+
+    long amountCentsAt(int index);
+
+    long balanceCentsAt(int index);
+}
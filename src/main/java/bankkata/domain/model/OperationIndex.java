@@ -0,0 +1,113 @@
+package bankkata.domain.model;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Index of the operations of an account ordered by timestamp, at millisecond
+ * precision, so that time-range lookups cost O(log n) instead of a scan.
+ * <p>
+ * Operations normally arrive in chronological order; the history itself is
+ * then sorted and the index stores nothing. The first operation stamped
+ * earlier than the latest one, e.g. after a clock step back, switches the
+ * index to an explicit order in which later operations are inserted at their
+ * sorted position.
+ */
+final class OperationIndex {
+    private final IntToLongFunction timestamps;
+    // Positions in the history sorted by timestamp, or null while the history is sorted
+    private int[] order;
+    private int size;
+    private long latest = Long.MIN_VALUE;
+
+    /**
+     * Creates an index over a history.
+     *
+     * @param timestamps the timestamp in epoch milliseconds of the operation
+     *                   at a position of the history
+     */
+    OperationIndex(IntToLongFunction timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    /**
+     * Indexes the operation appended at the next position of the history.
+     *
+     * @param epochMillis the operation timestamp in epoch milliseconds
+     */
+    void add(long epochMillis) {
+        int operationIndex = size;
+        if (order == null && epochMillis >= latest) {
+            size++;
+            latest = epochMillis;
+            return;
+        }
+        if (order == null) {
+            order = new int[Math.max(size + (size >> 1), size + 1)];
+            Arrays.setAll(order, position -> position);
+        } else if (size == order.length) {
+            order = Arrays.copyOf(order, size + (size >> 1));
+        }
+        int position = size;
+        if (epochMillis < latest) {
+            // Keep operations with equal timestamps in insertion order
+            position = firstAfter(epochMillis);
+            System.arraycopy(order, position, order, position + 1, size - position);
+        }
+        order[position] = operationIndex;
+        size++;
+        latest = Math.max(latest, epochMillis);
+    }
+
+    /**
+     * Returns the index position of the first operation at or after a timestamp.
+     *
+     * @param epochMillis the timestamp in epoch milliseconds
+     * @return the position, between 0 and {@link #size()}
+     */
+    int firstAtOrAfter(long epochMillis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position in the account history of the operation at an index position.
+     *
+     * @param position the index position
+     * @return the operation position in the account history
+     */
+    int operationAt(int position) {
+        return order == null ? position : order[position];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private long timestampAt(int position) {
+        return timestamps.applyAsLong(operationAt(position));
+    }
+
+    private int firstAfter(long epochMillis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) <= epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,25 @@
+package bankkata.domain.model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list backed by an operation store.
+ */
+final class OperationListView extends AbstractList<Operation> implements RandomAccess {
+    private final OperationStore store;
+
+    OperationListView(OperationStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Operation get(int index) {
+        return store.get(index);
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+}
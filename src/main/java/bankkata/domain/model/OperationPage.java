@@ -0,0 +1,13 @@
+package bankkata.domain.model;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * One page of a time-range query over the operations of an account.
+ *
+ * @param operations the operations of the page, in chronological order
+ * @param nextCursor the cursor of the next, older page, or empty on the last page
+ */
+public record OperationPage(List<Operation> operations, OptionalInt nextCursor) {
+}
@@ -0,0 +1,77 @@
+package bankkata.domain.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Storage of the operation history of an account, in the order the
+ * operations were performed.
+ * <p>
+ * Besides materializing {@link Operation} objects, a store exposes the fields
+ * of each operation as primitives through {@link OperationHistory}, so that
+ * hot paths can read the history without allocating. Implementations are not
+ * thread-safe; they are guarded by the owning account. Other threads read the
+ * history through a {@link #snapshot()} taken under that guard.
+ */
+public interface OperationStore extends OperationHistory {
+
+    /**
+     * Appends an operation.
+     *
+     * @param type         the operation type
+     * @param timestamp    when the operation was performed
+     * @param amountCents  the operation amount in cents
+     * @param balanceCents the balance after the operation in cents
+     */
+    void append(OperationType type, ZonedDateTime timestamp, long amountCents, long balanceCents);
+
+    /**
+     * Appends an operation stamped with a primitive timestamp. Stores keeping
+     * timestamps as epoch milliseconds override this method so that no
+     * {@link ZonedDateTime} is built until the operation is read.
+     *
+     * @param type         the operation type
+     * @param epochMillis  when the operation was performed, in epoch milliseconds
+     * @param zone         the time zone of the timestamp
+     * @param amountCents  the operation amount in cents
+     * @param balanceCents the balance after the operation in cents
+     */
+    default void append(OperationType type, long epochMillis, ZoneId zone, long amountCents, long balanceCents) {
+        append(type, Instant.ofEpochMilli(epochMillis).atZone(zone), amountCents, balanceCents);
+    }
+
+    /**
+     * Returns the operation at a position, materializing it if needed.
+     *
+     * @param index the position of the operation
+     * @return the operation
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    Operation get(int index);
+
+    /**
+     * Returns a read-only store holding the operations stored so far. Later
+     * appends are not visible through it, and it may be read from any thread
+     * once the thread that took it publishes it safely, for example by
+     * releasing the lock guarding this store. Appending to a snapshot throws
+     * {@link UnsupportedOperationException}.
+     * <p>
+     * Append-only stores share their storage with the snapshot, so taking
+     * one costs no copy of the history.
+     *
+     * @return the snapshot
+     */
+    OperationStore snapshot();
+
+    /**
+     * Returns an unmodifiable list view of the stored operations. Operations
+     * are materialized one by one as the view is read.
+     *
+     * @return the list view
+     */
+    default List<Operation> asList() {
+        return new OperationListView(this);
+    }
+}
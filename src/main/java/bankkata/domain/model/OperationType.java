@@ -4,5 +4,20 @@ package bankkata.domain.model;
  * Represents the type of operation performed on an account.
  */
 public enum OperationType {
-    DEPOSIT, WITHDRAWAL
+    DEPOSIT(true), WITHDRAWAL(false), TRANSFER_OUT(false), TRANSFER_IN(true);
+
+    private final boolean credit;
+
+    OperationType(boolean credit) {
+        this.credit = credit;
+    }
+
+    /**
+     * Tells whether operations of this type add their amount to the balance.
+     *
+     * @return true for credits, false for debits
+     */
+    public boolean isCredit() {
+        return credit;
+    }
 }
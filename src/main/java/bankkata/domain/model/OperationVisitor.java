@@ -0,0 +1,17 @@
+package bankkata.domain.model;
+
+/**
+ * Callback receiving the positions of operations in an account history, for
+ * scans that read the fields they need without materializing operations.
+ */
+@FunctionalInterface
+public interface OperationVisitor {
+
+    /**
+     * Visits one operation.
+     *
+     * @param history the history holding the operation
+     * @param index   the position of the operation in the history
+     */
+    void visit(OperationHistory history, int index);
+}
@@ -4,6 +4,7 @@ import bankkata.domain.model.Account;
 import bankkata.domain.model.AccountId;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for account persistence operations.
@@ -24,4 +25,13 @@ public interface AccountRepository {
      * @return the saved account
      */
     Account save(Account account);
+
+    /**
+     * Visits every account, for bulk jobs such as statement exports. The scan
+     * is weakly consistent: accounts opened while it runs may or may not be
+     * visited, and each account is visited at most once.
+     *
+     * @param visitor the callback receiving each account
+     */
+    void forEachAccount(Consumer<Account> visitor);
 }
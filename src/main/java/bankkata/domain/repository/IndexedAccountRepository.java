@@ -0,0 +1,44 @@
+package bankkata.domain.repository;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Repository that also indexes accounts by a dense int handle.
+ * <p>
+ * An account receives its handle when it is first saved: handles start at 0,
+ * grow by one per account and are never reused, even when the account stored
+ * under an ID is replaced. Callers resolve an external ID once with
+ * {@link #findHandle(AccountId)} and then reach the account by handle, without
+ * hashing or comparing the ID again.
+ */
+public interface IndexedAccountRepository extends AccountRepository {
+    /**
+     * Finds the handle of an account.
+     *
+     * @param accountId the account ID
+     * @return the handle, or empty if no account was saved with this ID
+     */
+    OptionalInt findHandle(AccountId accountId);
+
+    /**
+     * Finds an account by its handle.
+     *
+     * @param handle the account handle
+     * @return the account wrapped in an Optional, empty if no account has this handle
+     */
+    Optional<Account> findByHandle(int handle);
+
+    /**
+     * Saves an account under the handle it already has.
+     *
+     * @param handle  the handle of the account
+     * @param account the account to save
+     * @return the saved account
+     * @throws IllegalArgumentException if the handle is not the one of the account
+     */
+    Account save(int handle, Account account);
+}
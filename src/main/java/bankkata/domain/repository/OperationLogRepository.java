@@ -0,0 +1,42 @@
+package bankkata.domain.repository;
+
+import bankkata.domain.model.AccountSnapshot;
+
+import java.util.function.Consumer;
+
+/**
+ * Repository that records account operations in a replayable, ordered log.
+ * <p>
+ * Together these methods allow taking snapshots while writers keep running:
+ * every operation logged before {@link #operationLogPosition()} or
+ * {@link #syncOperationLog()} returns is reflected by a subsequent
+ * {@link #forEachLoggedAccount(Consumer)}, while operations logged afterwards
+ * may or may not be, and are replayed from the log on recovery.
+ */
+public interface OperationLogRepository extends AccountRepository {
+    /**
+     * Returns the current end of the operation log.
+     *
+     * @return the log position
+     */
+    long operationLogPosition();
+
+    /**
+     * Forces the operation log to stable storage and returns the position up
+     * to which it is durable. Unlike {@link #operationLogPosition()}, the log
+     * is guaranteed to extend at least to this position after a crash.
+     *
+     * @return the durable log position
+     */
+    long syncOperationLog();
+
+    /**
+     * Visits the logged state of every account. Each snapshot is consistent on
+     * its own, but snapshots of different accounts may be taken at different times.
+     * A snapshot may reflect operations that are logged but not yet durable;
+     * they are durable once a subsequent {@link #syncOperationLog()} returns.
+     *
+     * @param visitor the callback receiving one snapshot per account
+     */
+    void forEachLoggedAccount(Consumer<AccountSnapshot> visitor);
+}
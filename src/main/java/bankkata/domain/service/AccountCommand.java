@@ -0,0 +1,29 @@
+package bankkata.domain.service;
+
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.OperationType;
+
+/**
+ * A deposit or withdrawal to be applied as part of a batch.
+ *
+ * @param accountId the ID of the account
+ * @param type      the operation to perform
+ * @param amount    the amount of the operation
+ */
+public record AccountCommand(AccountId accountId, OperationType type, Money amount) {
+
+    public AccountCommand {
+        if (accountId == null || type == null || amount == null) {
+            throw new IllegalArgumentException("Command fields must not be null");
+        }
+    }
+
+    public static AccountCommand deposit(AccountId accountId, Money amount) {
+        return new AccountCommand(accountId, OperationType.DEPOSIT, amount);
+    }
+
+    public static AccountCommand withdrawal(AccountId accountId, Money amount) {
+        return new AccountCommand(accountId, OperationType.WITHDRAWAL, amount);
+    }
+}
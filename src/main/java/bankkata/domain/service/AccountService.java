@@ -3,17 +3,66 @@ package bankkata.domain.service;
 import bankkata.domain.exception.AccountNotFoundException;
 import bankkata.domain.model.Account;
 import bankkata.domain.model.AccountId;
+import bankkata.domain.model.BalanceView;
+import bankkata.domain.model.HistorySnapshot;
 import bankkata.domain.model.Money;
+import bankkata.domain.model.OperationType;
 import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.repository.IndexedAccountRepository;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for performing operations on accounts.
+ * <p>
+ * Mutations are serialized per account using lock striping keyed by the
+ * {@link AccountId} hash, so operations on the same account are linearizable
+ * while operations on different accounts proceed in parallel. Balance reads
+ * do not take the locks. Other reads of an account, such as its history or
+ * its daily totals, go through {@link #readAccount(AccountId, Function)} or
+ * {@link #getHistorySnapshot(AccountId)}, which take the lock only for as
+ * long as the read, or the snapshot, takes.
+ * <p>
+ * With an {@link IndexedAccountRepository}, callers can resolve an account ID
+ * to its handle once with {@link #handleOf(AccountId)} and then use the
+ * overloads taking the handle, which reach the account without hashing or
+ * comparing its ID: the account is read once from its handle and its lock
+ * is picked from the ID hash the account caches. Both kinds of calls on one
+ * account share its lock.
+ * <p>
+ * The service keeps bank-wide totals of the balances and operations of the
+ * accounts it serves, updated under the account lock by every successful
+ * operation once its account is saved. The accounts already in the repository when the service is
+ * created are scanned once for their balances; accounts opened later must
+ * start empty, and must only be modified through this service.
  */
 public class AccountService {
+    private static final int DEFAULT_LOCK_STRIPES = 1024;
+
     private final AccountRepository accountRepository;
+    private final IndexedAccountRepository indexedRepository;
+    private final StripedAccountLocks accountLocks;
+    private final BankLedger ledger = new BankLedger();
 
     public AccountService(AccountRepository accountRepository) {
+        this(accountRepository, DEFAULT_LOCK_STRIPES);
+    }
+
+    /**
+     * Creates a service with a custom number of lock stripes.
+     *
+     * @param accountRepository the repository holding the accounts
+     * @param lockStripes       the number of lock stripes, rounded up to a power of two
+     * @throws IllegalArgumentException if lockStripes is not positive
+     */
+    public AccountService(AccountRepository accountRepository, int lockStripes) {
         this.accountRepository = accountRepository;
+        this.indexedRepository = accountRepository instanceof IndexedAccountRepository indexed ? indexed : null;
+        this.accountLocks = new StripedAccountLocks(lockStripes);
+        accountRepository.forEachAccount(account -> ledger.addOpeningBalance(account.getBalanceView().balanceCents()));
     }
 
     /**
@@ -25,9 +74,61 @@ public class AccountService {
      * @throws AccountNotFoundException if the account is not found
      */
     public Account deposit(AccountId accountId, Money amount) {
-        Account account = findAccount(accountId);
-        account.deposit(amount);
-        return accountRepository.save(account);
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            Account account = findAccount(accountId);
+            account.deposit(amount);
+            Account saved = accountRepository.save(account);
+            ledger.record(OperationType.DEPOSIT, amount.getCents());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deposits money into an account and returns the balance view published
+     * by this deposit. Unlike reading the view of the returned account, the
+     * result cannot include later operations of concurrent callers.
+     *
+     * @param accountId the ID of the account
+     * @param amount    the amount to deposit
+     * @return the balance view right after the deposit
+     * @throws AccountNotFoundException if the account is not found
+     */
+    public BalanceView depositAndGetBalance(AccountId accountId, Money amount) {
+        Lock lock = accountLocks.lockFor(accountId);
+        // Reentrant: deposit takes the same lock again
+        lock.lock();
+        try {
+            return deposit(accountId, amount).getBalanceView();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deposits money into an account given by its handle.
+     *
+     * @param handle the handle of the account
+     * @param amount the amount to deposit
+     * @return the updated account
+     * @throws AccountNotFoundException if no account has this handle
+     * @throws IllegalStateException    if the repository does not index accounts by handle
+     */
+    public Account deposit(int handle, Money amount) {
+        Account account = findAccount(handle);
+        Lock lock = accountLocks.lockFor(account);
+        lock.lock();
+        try {
+            account.deposit(amount);
+            Account saved = indexedRepository.save(handle, account);
+            ledger.record(OperationType.DEPOSIT, amount.getCents());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -39,9 +140,240 @@ public class AccountService {
      * @throws AccountNotFoundException if the account is not found
      */
     public Account withdraw(AccountId accountId, Money amount) {
-        Account account = findAccount(accountId);
-        account.withdraw(amount);
-        return accountRepository.save(account);
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            Account account = findAccount(accountId);
+            account.withdraw(amount);
+            Account saved = accountRepository.save(account);
+            ledger.record(OperationType.WITHDRAWAL, amount.getCents());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Withdraws money from an account and returns the balance view published
+     * by this withdrawal. Unlike reading the view of the returned account,
+     * the result cannot include later operations of concurrent callers.
+     *
+     * @param accountId the ID of the account
+     * @param amount    the amount to withdraw
+     * @return the balance view right after the withdrawal
+     * @throws AccountNotFoundException if the account is not found
+     */
+    public BalanceView withdrawAndGetBalance(AccountId accountId, Money amount) {
+        Lock lock = accountLocks.lockFor(accountId);
+        // Reentrant: withdraw takes the same lock again
+        lock.lock();
+        try {
+            return withdraw(accountId, amount).getBalanceView();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Withdraws money from an account given by its handle.
+     *
+     * @param handle the handle of the account
+     * @param amount the amount to withdraw
+     * @return the updated account
+     * @throws AccountNotFoundException if no account has this handle
+     * @throws IllegalStateException    if the repository does not index accounts by handle
+     */
+    public Account withdraw(int handle, Money amount) {
+        Account account = findAccount(handle);
+        Lock lock = accountLocks.lockFor(account);
+        lock.lock();
+        try {
+            account.withdraw(amount);
+            Account saved = indexedRepository.save(handle, account);
+            ledger.record(OperationType.WITHDRAWAL, amount.getCents());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Transfers money between two accounts atomically.
+     * <p>
+     * The stripe locks of both accounts are acquired in ascending stripe
+     * order, so concurrent transfers in opposite directions cannot deadlock,
+     * and transfers between disjoint pairs of accounts run in parallel.
+     *
+     * @param from   the ID of the account to debit
+     * @param to     the ID of the account to credit
+     * @param amount the amount to transfer
+     * @return the updated source account
+     * @throws AccountNotFoundException if either account is not found
+     */
+    public Account transfer(AccountId from, AccountId to, Money amount) {
+        int fromStripe = accountLocks.stripeIndex(from);
+        int toStripe = accountLocks.stripeIndex(to);
+        Lock first = accountLocks.lockAt(Math.min(fromStripe, toStripe));
+        Lock second = accountLocks.lockAt(Math.max(fromStripe, toStripe));
+        // Both may be the same stripe; the locks are reentrant
+        first.lock();
+        second.lock();
+        try {
+            Account source = findAccount(from);
+            Account target = findAccount(to);
+            Account.transfer(source, target, amount);
+            // Each leg counts in the ledger once its account is saved
+            accountRepository.save(target);
+            ledger.record(OperationType.TRANSFER_IN, amount.getCents());
+            Account saved = accountRepository.save(source);
+            ledger.record(OperationType.TRANSFER_OUT, amount.getCents());
+            return saved;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    /**
+     * Applies a batch of deposits and withdrawals. Commands are grouped by
+     * account; each group is applied in submission order under a single lock
+     * acquisition and saved once. A failing command does not stop the batch.
+     *
+     * @param commands the commands to apply
+     * @return the result of each command, in the order of the commands
+     */
+    public List<CommandResult> execute(List<AccountCommand> commands) {
+        CommandBatch batch = new CommandBatch(commands);
+        for (CommandBatch.Group group : batch.groups()) {
+            Lock lock = accountLocks.lockFor(group.accountId());
+            lock.lock();
+            try {
+                batch.apply(group, accountRepository, ledger);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return batch.results();
+    }
+
+    /**
+     * Gets the balance of an account without taking its lock. The view is the
+     * one published by the last completed operation, so readers never wait
+     * for writers and writers never wait for readers.
+     *
+     * @param accountId the ID of the account
+     * @return the balance view of the account
+     * @throws AccountNotFoundException if the account is not found
+     */
+    public BalanceView getBalance(AccountId accountId) {
+        return findAccount(accountId).getBalanceView();
+    }
+
+    /**
+     * Gets the balance of an account given by its handle, without taking its
+     * lock.
+     *
+     * @param handle the handle of the account
+     * @return the balance view of the account
+     * @throws AccountNotFoundException if no account has this handle
+     * @throws IllegalStateException    if the repository does not index accounts by handle
+     */
+    public BalanceView getBalance(int handle) {
+        return findAccount(handle).getBalanceView();
+    }
+
+    /**
+     * Reads the bank-wide totals without taking any lock. The read costs the
+     * same whatever the number of accounts, but operations in progress may be
+     * partly included, so the total balance can be off by their amounts.
+     *
+     * @return the ledger totals
+     */
+    public LedgerTotals getLedgerTotals() {
+        return ledger.totals();
+    }
+
+    /**
+     * Reads the bank-wide totals as of a single point in time, for
+     * reconciliation. Every lock stripe is acquired, in ascending order, so
+     * the read waits for the operations in progress and holds back new ones
+     * until the totals are read; the total balance then equals the sum of
+     * the balances of the accounts.
+     *
+     * @return the ledger totals
+     */
+    public LedgerTotals getConsistentLedgerTotals() {
+        int stripes = accountLocks.size();
+        int locked = 0;
+        try {
+            for (; locked < stripes; locked++) {
+                accountLocks.lockAt(locked).lock();
+            }
+            return ledger.totals();
+        } finally {
+            while (locked > 0) {
+                accountLocks.lockAt(--locked).unlock();
+            }
+        }
+    }
+
+    /**
+     * Reads an account under its lock, so that the read sees no operation
+     * half applied. The reader should be short: writers of the account, and
+     * of the accounts sharing its lock stripe, wait for it.
+     *
+     * @param accountId the ID of the account
+     * @param reader    the function reading the account
+     * @param <T>       the type of the result
+     * @return the result of the reader
+     * @throws AccountNotFoundException if the account is not found
+     */
+    public <T> T readAccount(AccountId accountId, Function<Account, T> reader) {
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            return reader.apply(findAccount(accountId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the loaded history of an account under its lock.
+     * The snapshot can then be read at length, e.g. to stream a statement,
+     * without holding back the writers of the account.
+     *
+     * @param accountId the ID of the account
+     * @return the history snapshot
+     * @throws AccountNotFoundException if the account is not found
+     */
+    public HistorySnapshot getHistorySnapshot(AccountId accountId) {
+        return readAccount(accountId, Account::snapshotHistory);
+    }
+
+    /**
+     * Visits the IDs of all accounts of the repository, in the order of the
+     * repository. No lock is taken.
+     *
+     * @param visitor the callback receiving each account ID
+     */
+    public void forEachAccountId(Consumer<AccountId> visitor) {
+        accountRepository.forEachAccount(account -> visitor.accept(account.getId()));
+    }
+
+    /**
+     * Resolves an account ID to the handle accepted by the overloads of this
+     * service taking one. Handles never change, so they can be kept for the
+     * lifetime of the repository.
+     *
+     * @param accountId the ID of the account
+     * @return the handle of the account
+     * @throws AccountNotFoundException if the account is not found
+     * @throws IllegalStateException    if the repository does not index accounts by handle
+     */
+    public int handleOf(AccountId accountId) {
+        return indexedRepository().findHandle(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId.value()));
     }
 
     /**
@@ -59,4 +391,16 @@ public class AccountService {
         return accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId.value()));
     }
+
+    private Account findAccount(int handle) {
+        return indexedRepository().findByHandle(handle)
+                .orElseThrow(() -> new AccountNotFoundException("#" + handle));
+    }
+
+    private IndexedAccountRepository indexedRepository() {
+        if (indexedRepository == null) {
+            throw new IllegalStateException("Repository does not index accounts by handle");
+        }
+        return indexedRepository;
+    }
 }
@@ -0,0 +1,67 @@
+package bankkata.domain.service;
+
+import bankkata.domain.model.OperationType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bank-wide running totals: the sum of the balances of all accounts and the
+ * number of operations of each type.
+ * <p>
+ * The totals are kept in {@link LongAdder}s, which spread concurrent updates
+ * over cells instead of contending on one counter, so recording an operation
+ * takes no lock and reading the totals is independent of the number of
+ * accounts. An operation is recorded by the service that applied it, after
+ * it succeeded; a read taken while operations are being recorded may see
+ * some of their updates and not others, such as one leg of a transfer.
+ * <p>
+ * This class is thread-safe.
+ */
+final class BankLedger {
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final LongAdder totalBalanceCents = new LongAdder();
+    private final LongAdder[] operationCounts = new LongAdder[TYPES.length];
+
+    BankLedger() {
+        for (int i = 0; i < TYPES.length; i++) {
+            operationCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Adds the balance an account holds before any operation is recorded for
+     * it, such as the balance of an account restored from a journal.
+     *
+     * @param balanceCents the balance, in cents
+     */
+    void addOpeningBalance(long balanceCents) {
+        totalBalanceCents.add(balanceCents);
+    }
+
+    /**
+     * Records an operation applied to an account.
+     *
+     * @param type        the type of the operation
+     * @param amountCents the amount of the operation, in cents
+     */
+    void record(OperationType type, long amountCents) {
+        totalBalanceCents.add(type.isCredit() ? amountCents : -amountCents);
+        operationCounts[type.ordinal()].increment();
+    }
+
+    /**
+     * Reads the totals.
+     *
+     * @return the totals recorded so far
+     */
+    LedgerTotals totals() {
+        Map<OperationType, Long> counts = new EnumMap<>(OperationType.class);
+        for (OperationType type : TYPES) {
+            counts.put(type, operationCounts[type.ordinal()].sum());
+        }
+        return new LedgerTotals(totalBalanceCents.sum(), Map.copyOf(counts));
+    }
+}
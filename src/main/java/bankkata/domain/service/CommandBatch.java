@@ -0,0 +1,133 @@
+package bankkata.domain.service;
+
+import bankkata.domain.exception.AccountNotFoundException;
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.OperationType;
+import bankkata.domain.repository.AccountRepository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of commands grouped by account, in order of first appearance.
+ * <p>
+ * Each group is applied to its account in submission order with a single
+ * lookup and a single save; the results are stored at the index of their
+ * command in the original batch.
+ */
+final class CommandBatch {
+    private final List<AccountCommand> commands;
+    private final CommandResult[] results;
+    private final Map<AccountId, Group> groups = new LinkedHashMap<>();
+
+    CommandBatch(List<AccountCommand> commands) {
+        this.commands = commands;
+        this.results = new CommandResult[commands.size()];
+        for (int i = 0; i < commands.size(); i++) {
+            groups.computeIfAbsent(commands.get(i).accountId(), Group::new).add(i);
+        }
+    }
+
+    Collection<Group> groups() {
+        return groups.values();
+    }
+
+    /**
+     * Applies the commands of a group. The caller must hold the exclusive
+     * right to mutate the account of the group. The applied commands are
+     * reported as succeeded only once the account is saved; if the save
+     * fails, they are reported as failed and the batch goes on.
+     *
+     * @param group             the group to apply
+     * @param accountRepository the repository holding the account
+     * @param ledger            the ledger recording the saved commands
+     */
+    void apply(Group group, AccountRepository accountRepository, BankLedger ledger) {
+        Account account = accountRepository.findById(group.accountId).orElse(null);
+        if (account == null) {
+            fail(group, new AccountNotFoundException(group.accountId.value()).getMessage());
+            return;
+        }
+        // Positions of the applied commands, reported once the account is saved
+        int[] applied = new int[group.size];
+        int appliedCount = 0;
+        for (int i = 0; i < group.size; i++) {
+            int index = group.indices[i];
+            AccountCommand command = commands.get(index);
+            try {
+                switch (command.type()) {
+                    case DEPOSIT -> account.deposit(command.amount());
+                    case WITHDRAWAL -> account.withdraw(command.amount());
+                    default -> throw new IllegalArgumentException("Unsupported command: " + command.type());
+                }
+                applied[appliedCount++] = index;
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                results[index] = CommandResult.failure(command, e.getMessage());
+            }
+        }
+        if (appliedCount == 0) {
+            return;
+        }
+        String saveFailure = null;
+        try {
+            accountRepository.save(account);
+        } catch (RuntimeException e) {
+            // Earlier groups are already saved, so the batch carries on
+            saveFailure = "Account could not be saved: " + e.getMessage();
+        }
+        for (int i = 0; i < appliedCount; i++) {
+            AccountCommand command = commands.get(applied[i]);
+            if (saveFailure == null) {
+                ledger.record(command.type(), command.amount().getCents());
+                results[applied[i]] = CommandResult.success(command);
+            } else {
+                results[applied[i]] = CommandResult.failure(command, saveFailure);
+            }
+        }
+    }
+
+    /**
+     * Marks every command of a group as failed.
+     *
+     * @param group  the group
+     * @param reason the failure reason
+     */
+    void fail(Group group, String reason) {
+        for (int i = 0; i < group.size; i++) {
+            int index = group.indices[i];
+            results[index] = CommandResult.failure(commands.get(index), reason);
+        }
+    }
+
+    List<CommandResult> results() {
+        return List.of(results);
+    }
+
+    /**
+     * Positions of the commands of one account within the batch.
+     */
+    static final class Group {
+        private final AccountId accountId;
+        private int[] indices = new int[4];
+        private int size;
+
+        private Group(AccountId accountId) {
+            this.accountId = accountId;
+        }
+
+        AccountId accountId() {
+            return accountId;
+        }
+
+        private void add(int index) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            indices[size++] = index;
+        }
+    }
+}
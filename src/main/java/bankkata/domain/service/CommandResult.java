@@ -0,0 +1,27 @@
+package bankkata.domain.service;
+
+/**
+ * Outcome of one command of a batch.
+ *
+ * @param command       the command
+ * @param failureReason why the command was not applied, or null if it was
+ */
+public record CommandResult(AccountCommand command, String failureReason) {
+
+    public static CommandResult success(AccountCommand command) {
+        return new CommandResult(command, null);
+    }
+
+    public static CommandResult failure(AccountCommand command, String reason) {
+        return new CommandResult(command, reason);
+    }
+
+    /**
+     * Tells whether the command was applied.
+     *
+     * @return true if the command succeeded
+     */
+    public boolean succeeded() {
+        return failureReason == null;
+    }
+}
@@ -0,0 +1,34 @@
+package bankkata.domain.service;
+
+import bankkata.domain.model.Money;
+import bankkata.domain.model.OperationType;
+
+import java.util.Map;
+
+/**
+ * Bank-wide totals read from the ledger of an account service.
+ *
+ * @param totalBalanceCents the sum of the balances of all accounts, in cents
+ * @param operationCounts   the number of operations of each type applied by the service
+ */
+public record LedgerTotals(long totalBalanceCents, Map<OperationType, Long> operationCounts) {
+
+    /**
+     * Returns the sum of the balances of all accounts.
+     *
+     * @return the total balance
+     */
+    public Money totalBalance() {
+        return Money.ofCents(totalBalanceCents);
+    }
+
+    /**
+     * Returns the number of operations of a type.
+     *
+     * @param type the operation type
+     * @return the operation count
+     */
+    public long operationCount(OperationType type) {
+        return operationCounts.getOrDefault(type, 0L);
+    }
+}
@@ -0,0 +1,51 @@
+package bankkata.domain.service;
+
+/**
+ * Configuration of the {@link ShardedAccountService} execution engine.
+ *
+ * @param shardCount     the number of shards, each owned by a single thread
+ * @param queueCapacity  the maximum number of pending commands per shard
+ * @param overflowPolicy what to do when a shard queue is full
+ */
+public record ShardConfig(int shardCount, int queueCapacity, OverflowPolicy overflowPolicy) {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    public ShardConfig {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy must not be null");
+        }
+    }
+
+    /**
+     * Returns a configuration with one shard per available processor, which
+     * blocks callers when a shard queue is full.
+     *
+     * @return the default configuration
+     */
+    public static ShardConfig defaults() {
+        return new ShardConfig(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY,
+                OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Backpressure applied to callers when the target shard queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The caller blocks until the shard has room for the command.
+         */
+        BLOCK,
+        /**
+         * The command is rejected immediately and its future fails with a
+         * {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        REJECT
+    }
+}
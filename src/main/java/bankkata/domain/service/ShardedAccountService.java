@@ -0,0 +1,303 @@
+package bankkata.domain.service;
+
+import bankkata.domain.exception.AccountNotFoundException;
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.BalanceView;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.OperationType;
+import bankkata.domain.repository.AccountRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Alternative execution engine for account operations based on the
+ * single-writer principle.
+ * <p>
+ * Account IDs are partitioned across a fixed number of shards. Each shard is
+ * owned by one thread that drains a bounded command queue, so commands for the
+ * same account are applied sequentially without any locking. Callers receive a
+ * {@link CompletableFuture} completed by the shard thread.
+ * <p>
+ * The engine must be the only writer of the accounts it serves; mixing it
+ * with {@link AccountService} on the same accounts is not supported. Like
+ * {@link AccountService}, it keeps bank-wide totals of the operations it
+ * applies, but offers no consistent read of them.
+ */
+public class ShardedAccountService implements AutoCloseable {
+    private final AccountRepository accountRepository;
+    private final ShardConfig config;
+    private final List<Shard> shards;
+    private final BankLedger ledger = new BankLedger();
+    private volatile boolean closed;
+
+    public ShardedAccountService(AccountRepository accountRepository) {
+        this(accountRepository, ShardConfig.defaults());
+    }
+
+    public ShardedAccountService(AccountRepository accountRepository, ShardConfig config) {
+        this.accountRepository = accountRepository;
+        this.config = config;
+        accountRepository.forEachAccount(account -> ledger.addOpeningBalance(account.getBalanceView().balanceCents()));
+        this.shards = new ArrayList<>(config.shardCount());
+        for (int i = 0; i < config.shardCount(); i++) {
+            Shard shard = new Shard(i, config.queueCapacity());
+            shards.add(shard);
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Deposits money into an account on the shard owning it.
+     *
+     * @param accountId the ID of the account
+     * @param amount    the amount to deposit
+     * @return a future completed with the updated account, or failed with
+     *         {@link AccountNotFoundException}, {@link IllegalArgumentException}
+     *         or {@link RejectedExecutionException}
+     */
+    public CompletableFuture<Account> deposit(AccountId accountId, Money amount) {
+        return submit(accountId, OperationType.DEPOSIT, amount);
+    }
+
+    /**
+     * Withdraws money from an account on the shard owning it.
+     *
+     * @param accountId the ID of the account
+     * @param amount    the amount to withdraw
+     * @return a future completed with the updated account, or failed with
+     *         {@link AccountNotFoundException}, {@link IllegalArgumentException}
+     *         or {@link RejectedExecutionException}
+     */
+    public CompletableFuture<Account> withdraw(AccountId accountId, Money amount) {
+        return submit(accountId, OperationType.WITHDRAWAL, amount);
+    }
+
+    /**
+     * Applies a batch of deposits and withdrawals. Commands are grouped by
+     * account and each shard receives the groups it owns in a single hop;
+     * every group is applied in submission order and saved once. A failing
+     * command does not stop the batch, and commands a shard cannot accept are
+     * reported as failed.
+     *
+     * @param commands the commands to apply
+     * @return a future completed with the result of each command, in the order
+     *         of the commands
+     */
+    public CompletableFuture<List<CommandResult>> execute(List<AccountCommand> commands) {
+        CommandBatch batch = new CommandBatch(commands);
+        Map<Shard, List<CommandBatch.Group>> groupsByShard = new LinkedHashMap<>();
+        for (CommandBatch.Group group : batch.groups()) {
+            groupsByShard.computeIfAbsent(shardFor(group.accountId()), shard -> new ArrayList<>()).add(group);
+        }
+        List<CompletableFuture<?>> parts = new ArrayList<>(groupsByShard.size());
+        groupsByShard.forEach((shard, groups) -> {
+            BatchCommand command = new BatchCommand(batch, groups);
+            parts.add(command.result);
+            submit(shard, command);
+        });
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).thenApply(done -> batch.results());
+    }
+
+    /**
+     * Gets the balance of an account directly from the calling thread,
+     * without going through the shard queue. The view is the one published
+     * by the last operation the shard completed.
+     *
+     * @param accountId the ID of the account
+     * @return the balance view of the account
+     * @throws AccountNotFoundException if the account is not found
+     */
+    public BalanceView getBalance(AccountId accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId.value()))
+                .getBalanceView();
+    }
+
+    /**
+     * Reads the bank-wide totals of the accounts served by this engine,
+     * without going through the shard queues. Operations in progress on the
+     * shards may be partly included.
+     *
+     * @return the ledger totals
+     */
+    public LedgerTotals getLedgerTotals() {
+        return ledger.totals();
+    }
+
+    /**
+     * Stops accepting commands, lets every shard drain the commands already
+     * queued and waits for the shard threads to terminate. Commands submitted
+     * concurrently are either applied or rejected, never left pending.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        for (Shard shard : shards) {
+            shard.queue.put(shard.stop);
+        }
+        for (Shard shard : shards) {
+            shard.thread.join();
+            // Commands that raced with close may have landed behind the stop marker
+            List<Command> stranded = new ArrayList<>();
+            shard.queue.drainTo(stranded);
+            stranded.forEach(command -> command.reject(new RejectedExecutionException("Account service is closed")));
+        }
+    }
+
+    private CompletableFuture<Account> submit(AccountId accountId, OperationType type, Money amount) {
+        MutationCommand command = new MutationCommand(accountId, type, amount);
+        submit(shardFor(accountId), command);
+        return command.result;
+    }
+
+    private void submit(Shard shard, Command command) {
+        if (closed) {
+            command.reject(new RejectedExecutionException("Account service is closed"));
+            return;
+        }
+        try {
+            enqueue(shard, command);
+        } catch (RejectedExecutionException e) {
+            command.reject(e);
+            return;
+        }
+        // A put blocked on a full queue can complete after the shard stopped
+        // and drained it; whoever removes the command rejects it
+        if ((closed || shard.stopped) && shard.queue.remove(command)) {
+            command.reject(new RejectedExecutionException("Account service is closed"));
+        }
+    }
+
+    private void enqueue(Shard shard, Command command) {
+        if (config.overflowPolicy() == ShardConfig.OverflowPolicy.REJECT) {
+            if (!shard.queue.offer(command)) {
+                throw new RejectedExecutionException("Shard " + shard.index + " queue is full");
+            }
+            return;
+        }
+        try {
+            shard.queue.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for shard " + shard.index, e);
+        }
+    }
+
+    private Shard shardFor(AccountId accountId) {
+        int h = accountId.hashCode();
+        return shards.get(Math.floorMod(h ^ (h >>> 16), shards.size()));
+    }
+
+    private abstract static class Command {
+        abstract void execute();
+
+        abstract void reject(RejectedExecutionException cause);
+    }
+
+    private final class MutationCommand extends Command {
+        private final AccountId accountId;
+        private final OperationType type;
+        private final Money amount;
+        private final CompletableFuture<Account> result = new CompletableFuture<>();
+
+        private MutationCommand(AccountId accountId, OperationType type, Money amount) {
+            this.accountId = accountId;
+            this.type = type;
+            this.amount = amount;
+        }
+
+        @Override
+        void execute() {
+            try {
+                Account account = accountRepository.findById(accountId)
+                        .orElseThrow(() -> new AccountNotFoundException(accountId.value()));
+                if (type == OperationType.DEPOSIT) {
+                    account.deposit(amount);
+                } else {
+                    account.withdraw(amount);
+                }
+                Account saved = accountRepository.save(account);
+                // Only operations that were saved count in the ledger
+                ledger.record(type, amount.getCents());
+                result.complete(saved);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        void reject(RejectedExecutionException cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    private final class BatchCommand extends Command {
+        private final CommandBatch batch;
+        private final List<CommandBatch.Group> groups;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private BatchCommand(CommandBatch batch, List<CommandBatch.Group> groups) {
+            this.batch = batch;
+            this.groups = groups;
+        }
+
+        @Override
+        void execute() {
+            try {
+                groups.forEach(group -> batch.apply(group, accountRepository, ledger));
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        void reject(RejectedExecutionException cause) {
+            groups.forEach(group -> batch.fail(group, cause.getMessage()));
+            result.complete(null);
+        }
+    }
+
+    private final class Shard {
+        private final Command stop = new MutationCommand(null, null, null);
+        private final int index;
+        private final BlockingQueue<Command> queue;
+        private final Thread thread;
+        private volatile boolean stopped;
+
+        private Shard(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this::run, "account-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            try {
+                Command command;
+                while ((command = queue.take()) != stop) {
+                    command.execute();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // However the loop ended, nothing queued behind it may stay pending
+                stopped = true;
+                List<Command> stranded = new ArrayList<>();
+                queue.drainTo(stranded);
+                stranded.forEach(command -> command.reject(
+                        new RejectedExecutionException("Shard " + index + " is stopped")));
+            }
+        }
+    }
+}
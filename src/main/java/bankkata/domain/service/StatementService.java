@@ -1,7 +1,10 @@
 package bankkata.domain.service;
 
 import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationHistory;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
@@ -15,4 +18,52 @@ public interface StatementService {
      * @return the formatted statement
      */
     String generateStatement(List<Operation> operations);
+
+    /**
+     * Writes a statement from a list of operations to a writer, one row at a
+     * time and newest first, without building the whole statement in memory.
+     * The writer is neither flushed nor closed.
+     *
+     * @param operations the list of operations
+     * @param writer     the destination of the statement
+     * @throws IOException if writing fails
+     */
+    void writeStatement(List<Operation> operations, Writer writer) throws IOException;
+
+    /**
+     * Writes a statement straight from the primitive fields of an operation
+     * history, newest first, without materializing the operations. The writer
+     * is neither flushed nor closed.
+     *
+     * @param history the operation history
+     * @param writer  the destination of the statement
+     * @throws IOException if writing fails
+     */
+    void writeStatement(OperationHistory history, Writer writer) throws IOException;
+
+    /**
+     * Generates a statement for the first operations of a history, newest
+     * first, without materializing the operations.
+     *
+     * @param history the operation history
+     * @param count   the number of operations to include, from the oldest
+     * @return the formatted statement
+     * @throws IndexOutOfBoundsException if count exceeds the history size
+     */
+    String generateStatement(OperationHistory history, int count);
+
+    /**
+     * Extends a statement generated for the first operations of a history
+     * with the operations performed since. Only the rows of the new
+     * operations are rendered; they are placed before the existing rows
+     * since statements are newest first.
+     *
+     * @param statement the statement generated for the first {@code from} operations
+     * @param history   the operation history
+     * @param from      the number of operations in the statement
+     * @param to        the number of operations to include, from the oldest
+     * @return the formatted statement
+     * @throws IndexOutOfBoundsException if the range is outside the history
+     */
+    String extendStatement(String statement, OperationHistory history, int from, int to);
 }
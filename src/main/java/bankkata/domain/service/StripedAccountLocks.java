@@ -0,0 +1,81 @@
+package bankkata.domain.service;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that accounts are striped over by the hash of their ID.
+ * Operations on the same account always map to the same lock, while
+ * operations on different accounts only contend when their IDs collide
+ * on a stripe.
+ */
+final class StripedAccountLocks {
+    private final Lock[] stripes;
+    private final int mask;
+
+    StripedAccountLocks(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Lock[Math.max(size, 1)];
+        this.mask = stripes.length - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding the given account.
+     *
+     * @param accountId the ID of the account
+     * @return the stripe lock for the account
+     */
+    Lock lockFor(AccountId accountId) {
+        return stripes[stripeIndex(accountId)];
+    }
+
+    /**
+     * Returns the lock guarding the given account, from the hash it caches,
+     * the same lock as {@link #lockFor(AccountId)} with its ID.
+     *
+     * @param account the account
+     * @return the stripe lock for the account
+     */
+    Lock lockFor(Account account) {
+        return stripes[stripeIndex(account.idHash())];
+    }
+
+    /**
+     * Returns the lock of a stripe. Callers locking several stripes must
+     * acquire them in ascending index order to avoid deadlocks.
+     *
+     * @param stripeIndex the index returned by {@link #stripeIndex(AccountId)}
+     * @return the stripe lock
+     */
+    Lock lockAt(int stripeIndex) {
+        return stripes[stripeIndex];
+    }
+
+    /**
+     * Returns the number of stripes, always a power of two.
+     *
+     * @return the stripe count
+     */
+    int size() {
+        return stripes.length;
+    }
+
+    int stripeIndex(AccountId accountId) {
+        return stripeIndex(accountId.hashCode());
+    }
+
+    private int stripeIndex(int h) {
+        // Spread the higher bits downwards, as HashMap does, so that IDs
+        // differing only in their high bits do not share a stripe
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
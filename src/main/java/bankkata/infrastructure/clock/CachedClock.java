@@ -0,0 +1,127 @@
+package bankkata.infrastructure.clock;
+
+import bankkata.domain.model.Clock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock for stamping operations at a high rate.
+ * <p>
+ * The zone is resolved once, when the clock is created, and
+ * {@link #epochMillis()} allocates nothing. A precise clock reads the system
+ * time on every call. A coarse clock returns the time last published by a
+ * background ticker thread, which is a single volatile read, at the cost of
+ * lagging behind the system time by up to its resolution; its time never
+ * goes backwards. {@link #now()} builds a {@link ZonedDateTime} from the same
+ * time, for callers that need one.
+ * <p>
+ * This class is thread-safe. A coarse clock must be closed to stop its
+ * ticker thread.
+ */
+public final class CachedClock implements Clock, AutoCloseable {
+    private final ZoneId zone;
+    private final Thread ticker;
+    private volatile long coarseEpochMillis;
+    private volatile boolean running = true;
+
+    private CachedClock(ZoneId zone, Duration resolution) {
+        this.zone = zone;
+        if (resolution == null) {
+            this.ticker = null;
+            return;
+        }
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.coarseEpochMillis = System.currentTimeMillis();
+        long resolutionNanos = resolution.toNanos();
+        this.ticker = new Thread(() -> tick(resolutionNanos), "clock-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Creates a clock reading the system time on every call, in the system
+     * default zone.
+     *
+     * @return the clock
+     */
+    public static CachedClock precise() {
+        return precise(ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a clock reading the system time on every call.
+     *
+     * @param zone the zone of the timestamps
+     * @return the clock
+     */
+    public static CachedClock precise(ZoneId zone) {
+        return new CachedClock(zone, null);
+    }
+
+    /**
+     * Creates a clock whose time is refreshed by a ticker thread, in the
+     * system default zone.
+     *
+     * @param resolution the interval between refreshes
+     * @return the clock
+     * @throws IllegalArgumentException if the resolution is not positive
+     */
+    public static CachedClock coarse(Duration resolution) {
+        return coarse(resolution, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a clock whose time is refreshed by a ticker thread.
+     *
+     * @param resolution the interval between refreshes
+     * @param zone       the zone of the timestamps
+     * @return the clock
+     * @throws IllegalArgumentException if the resolution is not positive
+     */
+    public static CachedClock coarse(Duration resolution, ZoneId zone) {
+        return new CachedClock(zone, resolution);
+    }
+
+    @Override
+    public ZonedDateTime now() {
+        return Instant.ofEpochMilli(epochMillis()).atZone(zone);
+    }
+
+    @Override
+    public long epochMillis() {
+        return ticker == null ? System.currentTimeMillis() : coarseEpochMillis;
+    }
+
+    @Override
+    public ZoneId zone() {
+        return zone;
+    }
+
+    /**
+     * Stops the ticker thread of a coarse clock, which then keeps returning
+     * the last published time. Does nothing for a precise clock.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (ticker != null) {
+            LockSupport.unpark(ticker);
+        }
+    }
+
+    private void tick(long resolutionNanos) {
+        while (running) {
+            LockSupport.parkNanos(resolutionNanos);
+            long now = System.currentTimeMillis();
+            if (now > coarseEpochMillis) {
+                coarseEpochMillis = now;
+            }
+        }
+    }
+}
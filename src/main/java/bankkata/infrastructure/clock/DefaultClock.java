@@ -2,6 +2,7 @@ package bankkata.infrastructure.clock;
 
 import bankkata.domain.model.Clock;
 
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 /**
@@ -14,4 +15,14 @@ public class DefaultClock implements Clock {
     public ZonedDateTime now() {
         return ZonedDateTime.now();
     }
+
+    @Override
+    public long epochMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public ZoneId zone() {
+        return ZoneId.systemDefault();
+    }
 }
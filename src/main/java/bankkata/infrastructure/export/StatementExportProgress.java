@@ -0,0 +1,30 @@
+package bankkata.infrastructure.export;
+
+/**
+ * Progress of a running statement export, reported periodically by a
+ * {@link StatementExporter}.
+ *
+ * @param accountCount the number of statements written so far
+ * @param byteCount    the number of bytes written so far
+ * @param elapsedNanos how long the export has been running
+ */
+public record StatementExportProgress(long accountCount, long byteCount, long elapsedNanos) {
+
+    /**
+     * Returns the average throughput in statements per second.
+     *
+     * @return the statements written per second
+     */
+    public double accountsPerSecond() {
+        return elapsedNanos == 0 ? 0 : accountCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the average throughput in bytes per second.
+     *
+     * @return the bytes written per second
+     */
+    public double bytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : byteCount * 1e9 / elapsedNanos;
+    }
+}
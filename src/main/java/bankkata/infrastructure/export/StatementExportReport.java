@@ -0,0 +1,13 @@
+package bankkata.infrastructure.export;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of a completed statement export.
+ *
+ * @param totals the number of statements and bytes written and how long the export took
+ * @param files  the shard files written, one per worker
+ */
+public record StatementExportReport(StatementExportProgress totals, List<Path> files) {
+}
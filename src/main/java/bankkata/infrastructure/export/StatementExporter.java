@@ -0,0 +1,292 @@
+package bankkata.infrastructure.export;
+
+import bankkata.domain.model.AccountId;
+import bankkata.domain.service.AccountService;
+import bankkata.domain.service.StatementService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk job writing the statement of every account of a service to files.
+ * <p>
+ * The calling thread scans the accounts and hands their IDs to worker
+ * threads through a bounded queue. Each worker streams the statements it
+ * takes into its own shard file, {@code statements-<worker>.txt}, through a
+ * buffered writer over a file channel, so statements are never held in
+ * memory as strings and memory use does not depend on the number of
+ * accounts. Within a shard each statement is preceded by an
+ * {@code Account: <id>} line and followed by a blank line; the order of the
+ * accounts across and within shards is unspecified.
+ * <p>
+ * Each statement is rendered from a snapshot of the history of its account,
+ * taken under the account lock when a worker reaches the account, so
+ * operations performed while the export runs may or may not be included but
+ * never make a statement inconsistent.
+ */
+public class StatementExporter {
+    private static final String FILE_PREFIX = "statements-";
+    private static final String FILE_SUFFIX = ".txt";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUED_ACCOUNTS_PER_WORKER = 64;
+    private static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
+    private final AccountService accountService;
+    private final StatementService statementService;
+    private final int parallelism;
+    private final long progressIntervalNanos;
+
+    public StatementExporter(AccountService accountService, StatementService statementService, int parallelism) {
+        this(accountService, statementService, parallelism, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    /**
+     * Creates an exporter.
+     *
+     * @param accountService   the service holding the accounts
+     * @param statementService the service rendering the statements
+     * @param parallelism      the number of worker threads, and of shard files
+     * @param progressInterval the interval between progress reports
+     * @throws IllegalArgumentException if parallelism or progressInterval is not positive
+     */
+    public StatementExporter(AccountService accountService, StatementService statementService, int parallelism,
+                             Duration progressInterval) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (progressInterval.isNegative() || progressInterval.isZero()) {
+            throw new IllegalArgumentException("Progress interval must be positive");
+        }
+        this.accountService = accountService;
+        this.statementService = statementService;
+        this.parallelism = parallelism;
+        this.progressIntervalNanos = progressInterval.toNanos();
+    }
+
+    /**
+     * Exports the statements of all accounts, replacing the shard files of a
+     * previous export in the same directory, including those of an export
+     * with a higher parallelism.
+     *
+     * @param directory        the directory receiving the shard files, created if needed
+     * @param progressListener the callback receiving progress reports, called
+     *                         from the calling thread only
+     * @return the totals of the export and the files written
+     * @throws IOException if a shard file cannot be written; the export then stops
+     */
+    public StatementExportReport export(Path directory, Consumer<StatementExportProgress> progressListener)
+            throws IOException {
+        Files.createDirectories(directory);
+        deleteStaleShards(directory);
+        return new Run(directory, progressListener).execute();
+    }
+
+    private void deleteStaleShards(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                    String index = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+                    if (!index.isEmpty() && index.chars().allMatch(Character::isDigit)
+                            && Integer.parseInt(index) >= parallelism) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * State of one export.
+     */
+    private final class Run {
+        private final Path directory;
+        private final Consumer<StatementExportProgress> progressListener;
+        private final BlockingQueue<AccountId> queue = new ArrayBlockingQueue<>(parallelism * QUEUED_ACCOUNTS_PER_WORKER);
+        private final LongAdder accountCount = new LongAdder();
+        private final LongAdder byteCount = new LongAdder();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long startNanos = System.nanoTime();
+        private volatile boolean scanDone;
+        private long nextReportNanos = startNanos + progressIntervalNanos;
+
+        private Run(Path directory, Consumer<StatementExportProgress> progressListener) {
+            this.directory = directory;
+            this.progressListener = progressListener;
+        }
+
+        StatementExportReport execute() throws IOException {
+            List<Path> files = new ArrayList<>(parallelism);
+            List<Thread> workers = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                Path file = directory.resolve(String.format("%s%03d%s", FILE_PREFIX, i, FILE_SUFFIX));
+                Thread worker = new Thread(() -> work(file), "statement-export-" + i);
+                files.add(file);
+                workers.add(worker);
+                worker.start();
+            }
+            try {
+                try {
+                    accountService.forEachAccountId(this::enqueue);
+                } catch (ScanAborted e) {
+                    // A worker failed; it is reported below
+                }
+                scanDone = true;
+                for (Thread worker : workers) {
+                    while (worker.isAlive()) {
+                        worker.join(TimeUnit.NANOSECONDS.toMillis(progressIntervalNanos) + 1);
+                        reportIfDue();
+                    }
+                }
+            } catch (InterruptedException e) {
+                workers.forEach(Thread::interrupt);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Statement export interrupted");
+            } finally {
+                scanDone = true;
+            }
+            rethrowFailure();
+            StatementExportProgress totals = progress();
+            progressListener.accept(totals);
+            return new StatementExportReport(totals, List.copyOf(files));
+        }
+
+        private void enqueue(AccountId accountId) {
+            try {
+                while (!queue.offer(accountId, progressIntervalNanos, TimeUnit.NANOSECONDS)) {
+                    if (failure.get() != null) {
+                        throw new ScanAborted();
+                    }
+                    reportIfDue();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new InterruptedIOException("Statement export interrupted"));
+                throw new ScanAborted();
+            }
+            if (failure.get() != null) {
+                throw new ScanAborted();
+            }
+            reportIfDue();
+        }
+
+        private void work(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer writer = new BufferedWriter(
+                         Channels.newWriter(new CountingChannel(channel, byteCount), StandardCharsets.UTF_8),
+                         BUFFER_SIZE)) {
+                String lineSeparator = System.lineSeparator();
+                while (failure.get() == null) {
+                    AccountId accountId = queue.poll(progressIntervalNanos, TimeUnit.NANOSECONDS);
+                    if (accountId == null) {
+                        // Read the flag before the queue: once the scan is done, an empty queue stays empty
+                        if (scanDone && queue.isEmpty()) {
+                            break;
+                        }
+                        continue;
+                    }
+                    writer.write("Account: ");
+                    writer.write(accountId.value());
+                    writer.write(lineSeparator);
+                    statementService.writeStatement(accountService.getHistorySnapshot(accountId), writer);
+                    writer.write(lineSeparator);
+                    accountCount.increment();
+                }
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, new InterruptedIOException("Statement export interrupted"));
+            } catch (Throwable e) {
+                // Errors too, or the scan would wait forever for a dead worker
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private void reportIfDue() {
+            long now = System.nanoTime();
+            if (now - nextReportNanos >= 0) {
+                nextReportNanos = now + progressIntervalNanos;
+                progressListener.accept(progress());
+            }
+        }
+
+        private StatementExportProgress progress() {
+            return new StatementExportProgress(accountCount.sum(), byteCount.sum(), System.nanoTime() - startNanos);
+        }
+
+        private void rethrowFailure() throws IOException {
+            Throwable cause = failure.get();
+            if (cause instanceof IOException e) {
+                throw e;
+            }
+            if (cause instanceof UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (cause instanceof RuntimeException e) {
+                throw e;
+            }
+            if (cause instanceof Error e) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Thrown from the scan callback to stop the scan once a worker failed.
+     */
+    private static final class ScanAborted extends RuntimeException {
+        ScanAborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Channel counting the bytes written through it.
+     */
+    private static final class CountingChannel implements WritableByteChannel {
+        private final WritableByteChannel delegate;
+        private final LongAdder byteCount;
+
+        CountingChannel(WritableByteChannel delegate, LongAdder byteCount) {
+            this.delegate = delegate;
+            this.byteCount = byteCount;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            int written = delegate.write(source);
+            byteCount.add(written);
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
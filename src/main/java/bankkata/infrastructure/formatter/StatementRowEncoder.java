@@ -0,0 +1,219 @@
+package bankkata.infrastructure.formatter;
+
+import bankkata.domain.model.OperationType;
+
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Encodes statement rows straight into a reusable char buffer.
+ * <p>
+ * The output is identical to
+ * {@code String.format("| %9s | %10s | %10s | %10s | %10s |", ...)} with the
+ * date as {@code dd/MM/yyyy}, the time as {@code HH:mm:ss} and both amounts
+ * as {@code %.2f} in the default format locale, but no intermediate strings
+ * are created. Rows are encoded straight from an epoch-millisecond timestamp
+ * and a zone, with the calendar fields computed arithmetically, and inputs
+ * the fast path cannot reproduce exactly are reported so the caller can fall
+ * back.
+ * <p>
+ * Instances are not thread-safe; use one per rendering thread.
+ */
+final class StatementRowEncoder {
+    private static final int TYPE_WIDTH = 9;
+    private static final int COLUMN_WIDTH = 10;
+    private static final int TIME_LENGTH = 8;
+    private static final int MAX_YEAR = 9999;
+    private static final int SECONDS_PER_DAY = 86_400;
+    // Days from 0000-03-01 to 1970-01-01 and days per 400-year era
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final long DAYS_PER_ERA = 146_097;
+    private static final char[][] TYPE_NAMES = typeNames();
+    // Enough for the widest type name and two amounts of 19 digits with sign
+    private static final int ROW_CAPACITY = 128
+            + Arrays.stream(TYPE_NAMES).mapToInt(name -> name.length).max().orElse(0);
+
+    private final char[] row = new char[ROW_CAPACITY];
+    private final char decimalSeparator;
+    private final boolean asciiDigits;
+    // Offset of the last zone, valid for epoch seconds in [offsetFrom, offsetUntil)
+    private ZoneId offsetZone;
+    private int offset;
+    private long offsetFrom;
+    private long offsetUntil;
+
+    StatementRowEncoder() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    StatementRowEncoder(Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.asciiDigits = symbols.getZeroDigit() == '0';
+    }
+
+    /**
+     * Returns the buffer holding the last encoded row.
+     *
+     * @return the row buffer
+     */
+    char[] buffer() {
+        return row;
+    }
+
+    /**
+     * Encodes one row, without line separator, into the row buffer if the
+     * encoder can reproduce it exactly.
+     *
+     * @param type         the operation type
+     * @param epochMillis  the operation timestamp in epoch milliseconds
+     * @param zone         the zone the timestamp is displayed in
+     * @param amountCents  the operation amount in cents
+     * @param balanceCents the balance after the operation in cents
+     * @return the length of the encoded row, or -1 if the caller must fall back
+     */
+    int tryEncode(OperationType type, long epochMillis, ZoneId zone, long amountCents, long balanceCents) {
+        if (!asciiDigits || amountCents == Long.MIN_VALUE || balanceCents == Long.MIN_VALUE) {
+            return -1;
+        }
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        long localSeconds = epochSecond + offsetSeconds(epochSecond, zone);
+        long epochDay = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(localSeconds, SECONDS_PER_DAY);
+
+        // Civil date from the day count, on eras of 400 years starting in March
+        long shifted = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        long dayOfEra = shifted - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (int) ((5 * dayOfYear + 2) / 153);
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > MAX_YEAR) {
+            return -1;
+        }
+        return encode(type, (int) year, month, day, secondOfDay, amountCents, balanceCents);
+    }
+
+    private int offsetSeconds(long epochSecond, ZoneId zone) {
+        if (zone instanceof ZoneOffset fixed) {
+            return fixed.getTotalSeconds();
+        }
+        if (zone != offsetZone || epochSecond < offsetFrom || epochSecond >= offsetUntil) {
+            // Look up the offset and the transitions around it, so consecutive
+            // rows between two transitions reuse it
+            ZoneRules rules = zone.getRules();
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            offsetZone = zone;
+            offset = rules.getOffset(instant).getTotalSeconds();
+            offsetFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+        return offset;
+    }
+
+    private int encode(OperationType type, int year, int month, int day, int secondOfDay,
+                       long amountCents, long balanceCents) {
+        char[] out = row;
+        int pos = 0;
+        out[pos++] = '|';
+        out[pos++] = ' ';
+        char[] name = TYPE_NAMES[type.ordinal()];
+        System.arraycopy(name, 0, out, pos, name.length);
+        pos += name.length;
+        pos = separator(out, pos);
+
+        // dd/MM/yyyy always fills the column
+        pos = twoDigits(out, pos, day);
+        out[pos++] = '/';
+        pos = twoDigits(out, pos, month);
+        out[pos++] = '/';
+        pos = twoDigits(out, pos, year / 100);
+        pos = twoDigits(out, pos, year % 100);
+        pos = separator(out, pos);
+
+        pos = pad(out, pos, COLUMN_WIDTH - TIME_LENGTH);
+        pos = twoDigits(out, pos, secondOfDay / 3600);
+        out[pos++] = ':';
+        pos = twoDigits(out, pos, secondOfDay / 60 % 60);
+        out[pos++] = ':';
+        pos = twoDigits(out, pos, secondOfDay % 60);
+        pos = separator(out, pos);
+
+        pos = amount(out, pos, amountCents);
+        pos = separator(out, pos);
+        pos = amount(out, pos, balanceCents);
+        out[pos++] = ' ';
+        out[pos++] = '|';
+        return pos;
+    }
+
+    private int amount(char[] out, int pos, long cents) {
+        boolean negative = cents < 0;
+        long magnitude = Math.abs(cents);
+        long units = magnitude / 100;
+        int fraction = (int) (magnitude % 100);
+        int digits = digitCount(units);
+        pos = pad(out, pos, COLUMN_WIDTH - (negative ? 1 : 0) - digits - 3);
+        if (negative) {
+            out[pos++] = '-';
+        }
+        int end = pos + digits;
+        int digit = end;
+        do {
+            out[--digit] = (char) ('0' + units % 10);
+            units /= 10;
+        } while (units != 0);
+        pos = end;
+        out[pos++] = decimalSeparator;
+        return twoDigits(out, pos, fraction);
+    }
+
+    private static int separator(char[] out, int pos) {
+        out[pos++] = ' ';
+        out[pos++] = '|';
+        out[pos++] = ' ';
+        return pos;
+    }
+
+    private static int pad(char[] out, int pos, int count) {
+        for (int i = 0; i < count; i++) {
+            out[pos++] = ' ';
+        }
+        return pos;
+    }
+
+    private static int twoDigits(char[] out, int pos, int value) {
+        out[pos++] = (char) ('0' + value / 10);
+        out[pos++] = (char) ('0' + value % 10);
+        return pos;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private static char[][] typeNames() {
+        OperationType[] types = OperationType.values();
+        char[][] names = new char[types.length][];
+        for (OperationType type : types) {
+            names[type.ordinal()] = String.format("%" + TYPE_WIDTH + "s", type).toCharArray();
+        }
+        return names;
+    }
+}
@@ -1,13 +1,30 @@
 package bankkata.infrastructure.formatter;
 
 import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationHistory;
+import bankkata.domain.model.OperationType;
 import bankkata.domain.service.StatementService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Implementation of the StatementService that formats statements as text.
+ * <p>
+ * Rows are rendered by a {@link StatementRowEncoder} into a reusable buffer;
+ * the {@link String#format} based rendering is only used for the rare rows
+ * the encoder cannot reproduce exactly. Every overload renders through the
+ * same newest-first loop over an {@link OperationHistory}, lists of
+ * operations being read through an adapter.
  */
 public class TextStatementFormatter implements StatementService {
 
@@ -15,30 +32,149 @@ public class TextStatementFormatter implements StatementService {
     private static final String DIVIDER = "|-----------|------------|------------|------------|------------|";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    // Roughly the length of a row, to size the statement buffer up front
+    private static final int ROW_LENGTH_ESTIMATE = 72;
 
     @Override
     public String generateStatement(List<Operation> operations) {
-        StringBuilder statement = new StringBuilder();
-        statement.append(HEADER).append(System.lineSeparator());
-        statement.append(DIVIDER).append(System.lineSeparator());
+        return generateStatement(new OperationListHistory(operations), operations.size());
+    }
 
-        // Display operations in reverse chronological order (newest first)
-        for (int i = operations.size() - 1; i >= 0; i--) {
-            Operation operation = operations.get(i);
-            statement.append(formatOperation(operation)).append(System.lineSeparator());
-        }
+    @Override
+    public void writeStatement(List<Operation> operations, Writer writer) throws IOException {
+        writeStatement(new OperationListHistory(operations), writer);
+    }
+
+    @Override
+    public void writeStatement(OperationHistory history, Writer writer) throws IOException {
+        String lineSeparator = System.lineSeparator();
+        appendHeader(writer, lineSeparator);
+        appendRows(writer, history, 0, history.size(), lineSeparator);
+    }
 
+    @Override
+    public String generateStatement(OperationHistory history, int count) {
+        Objects.checkFromToIndex(0, count, history.size());
+        String lineSeparator = System.lineSeparator();
+        StringBuilder statement = new StringBuilder((count + 2) * ROW_LENGTH_ESTIMATE);
+        try {
+            appendHeader(statement, lineSeparator);
+            appendRows(statement, history, 0, count, lineSeparator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return statement.toString();
     }
 
-    private String formatOperation(Operation operation) {
-        String type = operation.getType().toString();
-        String date = operation.getTimestamp().format(DATE_FORMATTER);
-        String time = operation.getTimestamp().format(TIME_FORMATTER);
-        String amount = String.format("%.2f", operation.getAmount().getAmount());
-        String balance = String.format("%.2f", operation.getBalanceAfterOperation().getAmount());
+    @Override
+    public String extendStatement(String statement, OperationHistory history, int from, int to) {
+        Objects.checkFromToIndex(from, to, history.size());
+        if (from == to) {
+            return statement;
+        }
+        String lineSeparator = System.lineSeparator();
+        int headerLength = HEADER.length() + DIVIDER.length() + 2 * lineSeparator.length();
+        StringBuilder extended = new StringBuilder(statement.length() + (to - from) * ROW_LENGTH_ESTIMATE);
+        extended.append(statement, 0, headerLength);
+        try {
+            appendRows(extended, history, from, to, lineSeparator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        extended.append(statement, headerLength, statement.length());
+        return extended.toString();
+    }
+
+    private static void appendHeader(Appendable out, String lineSeparator) throws IOException {
+        out.append(HEADER).append(lineSeparator);
+        out.append(DIVIDER).append(lineSeparator);
+    }
+
+    /**
+     * Appends the rows of the operations in [from, to), newest first.
+     */
+    private void appendRows(Appendable out, OperationHistory history, int from, int to,
+                            String lineSeparator) throws IOException {
+        StatementRowEncoder encoder = new StatementRowEncoder();
+        for (int i = to - 1; i >= from; i--) {
+            OperationType type = history.typeAt(i);
+            long epochMillis = history.epochMillisAt(i);
+            long amountCents = history.amountCentsAt(i);
+            long balanceCents = history.balanceCentsAt(i);
+            int length = encoder.tryEncode(type, epochMillis, history.zoneAt(i), amountCents, balanceCents);
+            if (length >= 0) {
+                appendRow(out, encoder.buffer(), length);
+            } else {
+                ZonedDateTime timestamp = Instant.ofEpochMilli(epochMillis).atZone(history.zoneAt(i));
+                out.append(formatOperation(type, timestamp, amountCents, balanceCents));
+            }
+            out.append(lineSeparator);
+        }
+    }
+
+    private static void appendRow(Appendable out, char[] row, int length) throws IOException {
+        // Writer.append copies a CharSequence range into a String, so the
+        // usual sinks are given the buffer directly
+        if (out instanceof Writer writer) {
+            writer.write(row, 0, length);
+        } else if (out instanceof StringBuilder builder) {
+            builder.append(row, 0, length);
+        } else {
+            out.append(CharBuffer.wrap(row, 0, length));
+        }
+    }
+
+    private String formatOperation(OperationType operationType, ZonedDateTime timestamp,
+                                   long amountCents, long balanceCents) {
+        String type = operationType.toString();
+        String date = timestamp.format(DATE_FORMATTER);
+        String time = timestamp.format(TIME_FORMATTER);
+        String amount = String.format("%.2f", BigDecimal.valueOf(amountCents, 2));
+        String balance = String.format("%.2f", BigDecimal.valueOf(balanceCents, 2));
 
         return String.format("| %9s | %10s | %10s | %10s | %10s |",
                 type, date, time, amount, balance);
     }
+
+    /**
+     * Operation history reading a list of operations.
+     */
+    private static final class OperationListHistory implements OperationHistory {
+        private final List<Operation> operations;
+
+        private OperationListHistory(List<Operation> operations) {
+            this.operations = operations;
+        }
+
+        @Override
+        public int size() {
+            return operations.size();
+        }
+
+        @Override
+        public OperationType typeAt(int index) {
+            return operations.get(index).getType();
+        }
+
+        @Override
+        public long epochMillisAt(int index) {
+            ZonedDateTime timestamp = operations.get(index).getTimestamp();
+            return timestamp.toEpochSecond() * 1000 + timestamp.getNano() / 1_000_000;
+        }
+
+        @Override
+        public ZoneId zoneAt(int index) {
+            return operations.get(index).getTimestamp().getZone();
+        }
+
+        @Override
+        public long amountCentsAt(int index) {
+            return operations.get(index).getAmount().getCents();
+        }
+
+        @Override
+        public long balanceCentsAt(int index) {
+            return operations.get(index).getBalanceAfterOperation().getCents();
+        }
+    }
 }
@@ -0,0 +1,200 @@
+package bankkata.infrastructure.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local file receiving the cold history spilled by many
+ * {@link TieredOperationStore}s.
+ * <p>
+ * Segments are appended at the end of the file and never rewritten, so
+ * spilling is a single sequential write, and the segments of one history lie
+ * at increasing offsets. Reads go through a read-ahead window per thread: a
+ * miss reads the requested segment together with the bytes around it, half
+ * before and half after, so a history is mostly served from the window
+ * whether it is scanned oldest first or, as statements are, newest first.
+ * The file is a scratch file: it does not
+ * survive the instance and is deleted on {@link #close()}. Stores must not
+ * be used after the file is closed.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class HistorySegmentFile implements AutoCloseable {
+    private static final int DEFAULT_READ_AHEAD = 256 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ThreadLocal<ReadWindow> windows;
+    private final LongAdder windowFills = new LongAdder();
+    private long size;
+
+    private HistorySegmentFile(Path file, int readAhead) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.windows = ThreadLocal.withInitial(() -> new ReadWindow(readAhead));
+    }
+
+    /**
+     * Creates a segment file reading ahead 256 KiB.
+     *
+     * @param directory the directory holding the file, created if needed
+     * @return the segment file
+     * @throws UncheckedIOException if the file cannot be created
+     */
+    public static HistorySegmentFile create(Path directory) {
+        return create(directory, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * Creates a segment file.
+     *
+     * @param directory the directory holding the file, created if needed
+     * @param readAhead the number of bytes read from the file on a read miss,
+     *                  centred on the requested segment, which is read in
+     *                  full even if it is larger
+     * @return the segment file
+     * @throws IllegalArgumentException if readAhead is not positive
+     * @throws UncheckedIOException     if the file cannot be created
+     */
+    public static HistorySegmentFile create(Path directory, int readAhead) {
+        if (readAhead <= 0) {
+            throw new IllegalArgumentException("Read-ahead must be positive");
+        }
+        try {
+            Files.createDirectories(directory);
+            return new HistorySegmentFile(Files.createTempFile(directory, "history-", ".segments"), readAhead);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create history segment file in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a segment.
+     *
+     * @param segment the bytes of the segment, from its position to its limit
+     * @return the offset of the segment in the file
+     * @throws UncheckedIOException if the segment cannot be written
+     */
+    synchronized long append(ByteBuffer segment) {
+        long offset = size;
+        try {
+            long position = offset;
+            while (segment.hasRemaining()) {
+                position += channel.write(segment, position);
+            }
+            size = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill history segment to " + file, e);
+        }
+        return offset;
+    }
+
+    /**
+     * Returns a segment, from the read-ahead window of the calling thread.
+     * The buffer is only valid until the calling thread reads a segment
+     * outside the window, and only absolute reads may be used on it.
+     *
+     * @param offset the offset of the segment, as returned by {@link #append(ByteBuffer)}
+     * @param length the length of the segment in bytes
+     * @return the segment, starting at index 0
+     * @throws UncheckedIOException if the segment cannot be read
+     */
+    ByteBuffer segment(long offset, int length) {
+        return windows.get().segment(offset, length);
+    }
+
+    /**
+     * Returns the number of bytes spilled to the file.
+     *
+     * @return the file size
+     */
+    public synchronized long sizeBytes() {
+        return size;
+    }
+
+    /**
+     * Returns the number of read misses that refilled a read-ahead window.
+     *
+     * @return the number of window fills
+     */
+    long windowFills() {
+        return windowFills.sum();
+    }
+
+    /**
+     * Closes and deletes the file.
+     *
+     * @throws UncheckedIOException if the file cannot be deleted
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete history segment file " + file, e);
+        }
+    }
+
+    /**
+     * Bytes of the file last read by one thread.
+     */
+    private final class ReadWindow {
+        private ByteBuffer buffer;
+        private long start;
+        private int length;
+        private long segmentOffset = -1;
+        private ByteBuffer segment;
+
+        private ReadWindow(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+
+        ByteBuffer segment(long offset, int segmentLength) {
+            if (offset == segmentOffset) {
+                return segment;
+            }
+            if (offset < start || offset + segmentLength > start + length) {
+                fill(offset, segmentLength);
+            }
+            segment = buffer.slice((int) (offset - start), segmentLength);
+            segmentOffset = offset;
+            return segment;
+        }
+
+        private void fill(long offset, int segmentLength) {
+            if (buffer.capacity() < segmentLength) {
+                buffer = ByteBuffer.allocate(segmentLength);
+            }
+            buffer.clear();
+            segmentOffset = -1;
+            length = 0;
+            long windowStart = Math.max(0, offset - (buffer.capacity() - segmentLength) / 2);
+            int needed = (int) (offset - windowStart) + segmentLength;
+            try {
+                long position = windowStart;
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        break;
+                    }
+                    position += read;
+                }
+                if (buffer.position() < needed) {
+                    throw new IOException("Segment at " + offset + " ends past the end of " + file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read history segment from " + file, e);
+            }
+            start = windowStart;
+            length = buffer.position();
+            windowFills.increment();
+        }
+    }
+}
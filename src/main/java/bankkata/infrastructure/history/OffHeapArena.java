@@ -0,0 +1,177 @@
+package bankkata.infrastructure.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory outside the Java heap shared by many {@link OffHeapOperationStore}s.
+ * <p>
+ * Memory is reserved in large slabs, either direct buffers or memory-mapped
+ * scratch files, and handed out as blocks by bumping a pointer, so millions
+ * of account histories cost a handful of buffer objects on the heap. Blocks
+ * are never freed individually; the memory is released when the arena and
+ * its stores become unreachable, and mapped files are deleted on
+ * {@link #close()}. Stores must not be used after the arena is closed.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class OffHeapArena implements AutoCloseable {
+    private static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+
+    private final int slabSize;
+    private final Path directory;
+    private final List<Path> files = new ArrayList<>();
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+    private ByteBuffer current;
+    private long allocatedBytes;
+    private boolean closed;
+
+    private OffHeapArena(int slabSize, Path directory) {
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("Slab size must be positive");
+        }
+        this.slabSize = slabSize;
+        this.directory = directory;
+    }
+
+    /**
+     * Creates an arena backed by direct buffers of 64 MiB.
+     *
+     * @return the arena
+     */
+    public static OffHeapArena direct() {
+        return direct(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates an arena backed by direct buffers.
+     *
+     * @param slabSize the size in bytes of each direct buffer
+     * @return the arena
+     * @throws IllegalArgumentException if slabSize is not positive
+     */
+    public static OffHeapArena direct(int slabSize) {
+        return new OffHeapArena(slabSize, null);
+    }
+
+    /**
+     * Creates an arena backed by memory-mapped scratch files, so that cold
+     * history can be paged out by the operating system. The files do not
+     * survive the arena.
+     *
+     * @param directory the directory holding the scratch files
+     * @param slabSize  the size in bytes of each mapped file
+     * @return the arena
+     * @throws IllegalArgumentException if slabSize is not positive
+     */
+    public static OffHeapArena mapped(Path directory, int slabSize) {
+        return new OffHeapArena(slabSize, directory);
+    }
+
+    /**
+     * Allocates a zeroed block.
+     *
+     * @param size the size of the block in bytes
+     * @return the handle of the block, see {@link #slab(long)} and {@link #offset(long)}
+     * @throws IllegalArgumentException if size is not positive or larger than a slab
+     * @throws UncheckedIOException     if a mapped slab cannot be created
+     */
+    synchronized long allocate(int size) {
+        if (size <= 0 || size > slabSize) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + slabSize);
+        }
+        if (closed) {
+            throw new IllegalStateException("Arena is closed");
+        }
+        if (current == null || current.remaining() < size) {
+            current = newSlab();
+            ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+            grown[grown.length - 1] = current;
+            slabs = grown;
+        }
+        int offset = current.position();
+        current.position(offset + size);
+        allocatedBytes += size;
+        return (long) (slabs.length - 1) << 32 | offset;
+    }
+
+    /**
+     * Returns the slab holding a block. Only absolute reads and writes may be
+     * used on it.
+     *
+     * @param handle the handle of the block
+     * @return the slab
+     */
+    ByteBuffer slab(long handle) {
+        return slabs[(int) (handle >>> 32)];
+    }
+
+    static int offset(long handle) {
+        return (int) handle;
+    }
+
+    /**
+     * Returns the number of bytes handed out to stores.
+     *
+     * @return the allocated bytes
+     */
+    public synchronized long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the number of bytes reserved outside the heap.
+     *
+     * @return the reserved bytes
+     */
+    public long reservedBytes() {
+        return (long) slabs.length * slabSize;
+    }
+
+    /**
+     * Releases the slabs and deletes the mapped scratch files.
+     *
+     * @throws UncheckedIOException if a scratch file cannot be deleted
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current = null;
+        slabs = new ByteBuffer[0];
+        try {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete off-heap scratch files", e);
+        }
+    }
+
+    private ByteBuffer newSlab() {
+        if (directory == null) {
+            return ByteBuffer.allocateDirect(slabSize);
+        }
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "history-", ".slab");
+            files.add(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, slabSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map off-heap slab in " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package bankkata.infrastructure.history;
+
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationStore;
+import bankkata.domain.model.OperationType;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Operation store keeping the history outside the Java heap, in fixed-width
+ * records allocated from an {@link OffHeapArena}.
+ * <p>
+ * Each record holds the epoch-millisecond timestamp, the amount and balance
+ * in cents, the type ordinal and a zone index, 26 bytes in all. Records live
+ * in blocks that double from 16 up to 4096 records, so small histories stay
+ * small and large ones never copy. Only the block handles and the zone
+ * dictionary remain on the heap. Reads through the {@link
+ * bankkata.domain.model.OperationHistory} accessors do not allocate;
+ * {@link Operation} objects are only created by {@link #get(int)}.
+ * Timestamps are kept at millisecond precision. Records are never moved or
+ * rewritten, so a snapshot shares the blocks.
+ */
+public class OffHeapOperationStore implements OperationStore {
+    static final int RECORD_SIZE = 26;
+    static final int AMOUNT_OFFSET = 8;
+    static final int BALANCE_OFFSET = 16;
+    static final int TYPE_OFFSET = 24;
+    static final int ZONE_OFFSET = 25;
+    private static final int FIRST_BLOCK_SHIFT = 4;
+    private static final int MAX_BLOCK_SHIFT = 12;
+    // Records held by the blocks that double in size, before the fixed-size ones
+    private static final int GROWING_RECORDS = (1 << MAX_BLOCK_SHIFT + 1) - (1 << FIRST_BLOCK_SHIFT);
+    private static final int GROWING_BLOCKS = MAX_BLOCK_SHIFT - FIRST_BLOCK_SHIFT + 1;
+    private static final int MAX_ZONES = 256;
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final OffHeapArena arena;
+    private final List<ZoneId> zones;
+    private final boolean readOnly;
+    private long[] blocks = new long[4];
+    private int blockCount;
+    private int capacity;
+    private int size;
+
+    public OffHeapOperationStore(OffHeapArena arena) {
+        this.arena = arena;
+        this.zones = new ArrayList<>(1);
+        this.readOnly = false;
+    }
+
+    private OffHeapOperationStore(OffHeapOperationStore source) {
+        this.arena = source.arena;
+        this.zones = List.copyOf(source.zones);
+        this.readOnly = true;
+        this.blocks = source.blocks;
+        this.blockCount = source.blockCount;
+        this.capacity = source.capacity;
+        this.size = source.size;
+    }
+
+    @Override
+    public void append(OperationType type, ZonedDateTime timestamp, long amountCents, long balanceCents) {
+        append(type, timestamp.toEpochSecond() * 1000 + timestamp.getNano() / 1_000_000, timestamp.getZone(),
+                amountCents, balanceCents);
+    }
+
+    @Override
+    public void append(OperationType type, long epochMillis, ZoneId timestampZone, long amountCents,
+                       long balanceCents) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Operation store snapshot is read-only");
+        }
+        int zone = zoneIndex(timestampZone);
+        if (size == capacity) {
+            addBlock();
+        }
+        long handle = blockOf(size);
+        ByteBuffer slab = arena.slab(handle);
+        int offset = OffHeapArena.offset(handle) + recordInBlock(size) * RECORD_SIZE;
+        slab.putLong(offset, epochMillis);
+        slab.putLong(offset + AMOUNT_OFFSET, amountCents);
+        slab.putLong(offset + BALANCE_OFFSET, balanceCents);
+        slab.put(offset + TYPE_OFFSET, (byte) type.ordinal());
+        slab.put(offset + ZONE_OFFSET, (byte) zone);
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Operation get(int index) {
+        return new Operation(typeAt(index), Instant.ofEpochMilli(epochMillisAt(index)).atZone(zoneAt(index)),
+                Money.ofCents(amountCentsAt(index)), Money.ofCents(balanceCentsAt(index)));
+    }
+
+    @Override
+    public OperationType typeAt(int index) {
+        long handle = blockOf(Objects.checkIndex(index, size));
+        return TYPES[arena.slab(handle).get(recordOffset(handle, index) + TYPE_OFFSET)];
+    }
+
+    @Override
+    public long epochMillisAt(int index) {
+        long handle = blockOf(Objects.checkIndex(index, size));
+        return arena.slab(handle).getLong(recordOffset(handle, index));
+    }
+
+    @Override
+    public ZoneId zoneAt(int index) {
+        long handle = blockOf(Objects.checkIndex(index, size));
+        return zones.get(arena.slab(handle).get(recordOffset(handle, index) + ZONE_OFFSET) & 0xFF);
+    }
+
+    @Override
+    public long amountCentsAt(int index) {
+        long handle = blockOf(Objects.checkIndex(index, size));
+        return arena.slab(handle).getLong(recordOffset(handle, index) + AMOUNT_OFFSET);
+    }
+
+    @Override
+    public long balanceCentsAt(int index) {
+        long handle = blockOf(Objects.checkIndex(index, size));
+        return arena.slab(handle).getLong(recordOffset(handle, index) + BALANCE_OFFSET);
+    }
+
+    @Override
+    public OperationStore snapshot() {
+        return new OffHeapOperationStore(this);
+    }
+
+    private long blockOf(int index) {
+        if (index < GROWING_RECORDS) {
+            return blocks[31 - Integer.numberOfLeadingZeros((index >>> FIRST_BLOCK_SHIFT) + 1)];
+        }
+        return blocks[GROWING_BLOCKS + ((index - GROWING_RECORDS) >>> MAX_BLOCK_SHIFT)];
+    }
+
+    private static int recordInBlock(int index) {
+        if (index < GROWING_RECORDS) {
+            int block = 31 - Integer.numberOfLeadingZeros((index >>> FIRST_BLOCK_SHIFT) + 1);
+            return index - ((1 << FIRST_BLOCK_SHIFT + block) - (1 << FIRST_BLOCK_SHIFT));
+        }
+        return (index - GROWING_RECORDS) & ((1 << MAX_BLOCK_SHIFT) - 1);
+    }
+
+    private static int recordOffset(long handle, int index) {
+        return OffHeapArena.offset(handle) + recordInBlock(index) * RECORD_SIZE;
+    }
+
+    private void addBlock() {
+        int records = 1 << FIRST_BLOCK_SHIFT + Math.min(blockCount, MAX_BLOCK_SHIFT - FIRST_BLOCK_SHIFT);
+        long handle = arena.allocate(records * RECORD_SIZE);
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+        }
+        blocks[blockCount++] = handle;
+        capacity += records;
+    }
+
+    private int zoneIndex(ZoneId zone) {
+        for (int i = 0; i < zones.size(); i++) {
+            if (zones.get(i).equals(zone)) {
+                return i;
+            }
+        }
+        if (zones.size() == MAX_ZONES) {
+            throw new IllegalStateException("Too many distinct time zones in one history");
+        }
+        zones.add(zone);
+        return zones.size() - 1;
+    }
+}
@@ -0,0 +1,256 @@
+package bankkata.infrastructure.history;
+
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationStore;
+import bankkata.domain.model.OperationType;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Operation store keeping the recent operations of an account on the heap
+ * and spilling older ones to a {@link HistorySegmentFile} on local disk.
+ * <p>
+ * The hot tier is a ring of columns holding at least the last
+ * {@code hotOperations} operations. When it is full, its oldest
+ * {@code segmentOperations} operations are written to the file in one
+ * segment, in the 26-byte record format of {@link OffHeapOperationStore},
+ * and their slots are reused. The heap used by a history therefore stops
+ * growing once the ring is full, apart from one file offset per segment and
+ * the zone dictionary. Positions are not affected by spilling: reads through
+ * {@link #get(int)} and the {@link bankkata.domain.model.OperationHistory}
+ * accessors serve cold positions from the read-ahead window of the file, so
+ * statements and lists of operations read the whole history unchanged.
+ * Timestamps are kept at millisecond precision.
+ * <p>
+ * Like the other stores, this class is not thread-safe and is guarded by the
+ * owning account: other threads read a {@link #snapshot()} taken under the
+ * account lock, never the store itself.
+ */
+public class TieredOperationStore implements OperationStore {
+    private static final int DEFAULT_SEGMENT_OPERATIONS = 1024;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_ZONES = 256;
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final HistorySegmentFile segmentFile;
+    private final int segmentOperations;
+    private final int ringCapacity;
+    private final List<ZoneId> zones;
+    private final boolean readOnly;
+    private long[] epochMillis = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private long[] balances = new long[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private byte[] zoneIndexes = new byte[INITIAL_CAPACITY];
+    private long[] segmentOffsets = new long[4];
+    private int coldCount;
+    private int size;
+
+    public TieredOperationStore(HistorySegmentFile segmentFile, int hotOperations) {
+        this(segmentFile, hotOperations, DEFAULT_SEGMENT_OPERATIONS);
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param segmentFile       the file receiving the cold operations
+     * @param hotOperations     the number of most recent operations always kept on the heap
+     * @param segmentOperations the number of operations spilled at once
+     * @throws IllegalArgumentException if hotOperations or segmentOperations is not positive
+     */
+    public TieredOperationStore(HistorySegmentFile segmentFile, int hotOperations, int segmentOperations) {
+        if (hotOperations <= 0 || segmentOperations <= 0) {
+            throw new IllegalArgumentException("Hot and segment operation counts must be positive");
+        }
+        this.segmentFile = segmentFile;
+        this.segmentOperations = segmentOperations;
+        this.ringCapacity = Math.addExact(hotOperations, segmentOperations);
+        this.zones = new ArrayList<>(1);
+        this.readOnly = false;
+    }
+
+    private TieredOperationStore(TieredOperationStore source) {
+        this.segmentFile = source.segmentFile;
+        this.segmentOperations = source.segmentOperations;
+        this.ringCapacity = source.ringCapacity;
+        this.zones = List.copyOf(source.zones);
+        this.readOnly = true;
+        // Ring slots are reused after a spill, so the hot tier is copied
+        this.epochMillis = source.epochMillis.clone();
+        this.amounts = source.amounts.clone();
+        this.balances = source.balances.clone();
+        this.types = source.types.clone();
+        this.zoneIndexes = source.zoneIndexes.clone();
+        this.segmentOffsets = source.segmentOffsets;
+        this.coldCount = source.coldCount;
+        this.size = source.size;
+    }
+
+    @Override
+    public void append(OperationType type, ZonedDateTime timestamp, long amountCents, long balanceCents) {
+        append(type, timestamp.toEpochSecond() * 1000 + timestamp.getNano() / 1_000_000, timestamp.getZone(),
+                amountCents, balanceCents);
+    }
+
+    @Override
+    public void append(OperationType type, long timestampMillis, ZoneId zone, long amountCents, long balanceCents) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Operation store snapshot is read-only");
+        }
+        byte zoneIndex = (byte) zoneIndex(zone);
+        if (size - coldCount == ringCapacity) {
+            spill();
+        }
+        int slot = slot(size);
+        if (slot == types.length) {
+            grow();
+        }
+        epochMillis[slot] = timestampMillis;
+        amounts[slot] = amountCents;
+        balances[slot] = balanceCents;
+        types[slot] = (byte) type.ordinal();
+        zoneIndexes[slot] = zoneIndex;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of operations spilled to the segment file.
+     *
+     * @return the cold operation count
+     */
+    public int coldSize() {
+        return coldCount;
+    }
+
+    @Override
+    public Operation get(int index) {
+        return new Operation(typeAt(index), Instant.ofEpochMilli(epochMillisAt(index)).atZone(zoneAt(index)),
+                Money.ofCents(amountCentsAt(index)), Money.ofCents(balanceCentsAt(index)));
+    }
+
+    @Override
+    public OperationType typeAt(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= coldCount) {
+            return TYPES[types[slot(index)]];
+        }
+        return TYPES[coldSegment(index).get(coldRecordOffset(index) + OffHeapOperationStore.TYPE_OFFSET)];
+    }
+
+    @Override
+    public long epochMillisAt(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= coldCount) {
+            return epochMillis[slot(index)];
+        }
+        return coldSegment(index).getLong(coldRecordOffset(index));
+    }
+
+    @Override
+    public ZoneId zoneAt(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= coldCount) {
+            return zones.get(zoneIndexes[slot(index)] & 0xFF);
+        }
+        return zones.get(coldSegment(index).get(coldRecordOffset(index) + OffHeapOperationStore.ZONE_OFFSET) & 0xFF);
+    }
+
+    @Override
+    public long amountCentsAt(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= coldCount) {
+            return amounts[slot(index)];
+        }
+        return coldSegment(index).getLong(coldRecordOffset(index) + OffHeapOperationStore.AMOUNT_OFFSET);
+    }
+
+    @Override
+    public long balanceCentsAt(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= coldCount) {
+            return balances[slot(index)];
+        }
+        return coldSegment(index).getLong(coldRecordOffset(index) + OffHeapOperationStore.BALANCE_OFFSET);
+    }
+
+    /**
+     * Returns a read-only copy of the store. The cold segments are shared;
+     * the hot tier, at most {@code hotOperations + segmentOperations}
+     * operations, is copied.
+     *
+     * @return the snapshot
+     */
+    @Override
+    public OperationStore snapshot() {
+        return new TieredOperationStore(this);
+    }
+
+    private int slot(int index) {
+        // The columns only reach the ring capacity before the first spill, so
+        // smaller columns never wrap
+        return index % ringCapacity;
+    }
+
+    private ByteBuffer coldSegment(int index) {
+        return segmentFile.segment(segmentOffsets[index / segmentOperations],
+                segmentOperations * OffHeapOperationStore.RECORD_SIZE);
+    }
+
+    private int coldRecordOffset(int index) {
+        return index % segmentOperations * OffHeapOperationStore.RECORD_SIZE;
+    }
+
+    private void spill() {
+        int first = coldCount;
+        ByteBuffer segment = ByteBuffer.allocate(segmentOperations * OffHeapOperationStore.RECORD_SIZE);
+        for (int index = first; index < first + segmentOperations; index++) {
+            int slot = slot(index);
+            segment.putLong(epochMillis[slot])
+                    .putLong(amounts[slot])
+                    .putLong(balances[slot])
+                    .put(types[slot])
+                    .put(zoneIndexes[slot]);
+        }
+        int segmentIndex = first / segmentOperations;
+        if (segmentIndex == segmentOffsets.length) {
+            segmentOffsets = Arrays.copyOf(segmentOffsets, segmentIndex * 2);
+        }
+        segmentOffsets[segmentIndex] = segmentFile.append(segment.flip());
+        coldCount = first + segmentOperations;
+    }
+
+    private void grow() {
+        int capacity = Math.min(types.length * 2, ringCapacity);
+        epochMillis = Arrays.copyOf(epochMillis, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        balances = Arrays.copyOf(balances, capacity);
+        types = Arrays.copyOf(types, capacity);
+        zoneIndexes = Arrays.copyOf(zoneIndexes, capacity);
+    }
+
+    private int zoneIndex(ZoneId zone) {
+        for (int i = 0; i < zones.size(); i++) {
+            if (zones.get(i).equals(zone)) {
+                return i;
+            }
+        }
+        if (zones.size() == MAX_ZONES) {
+            throw new IllegalStateException("Too many distinct time zones in one history");
+        }
+        zones.add(zone);
+        return zones.size() - 1;
+    }
+}
@@ -0,0 +1,195 @@
+package bankkata.infrastructure.http;
+
+import bankkata.application.exception.ApplicationException;
+import bankkata.application.service.AccountApplicationService;
+import bankkata.domain.exception.AccountNotFoundException;
+import bankkata.domain.exception.InsufficientFundsException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal embedded HTTP server in front of an {@link AccountApplicationService},
+ * meant for load testing on a local machine.
+ * <p>
+ * Each request runs on its own thread, virtual when the runtime supports it,
+ * so there is no pool to size. Responses are plain text:
+ * <ul>
+ *     <li>{@code POST /accounts/{id}/deposit?amount=12.34}</li>
+ *     <li>{@code POST /accounts/{id}/withdraw?amount=12.34}</li>
+ *     <li>{@code GET /accounts/{id}/balance}</li>
+ *     <li>{@code GET /accounts/{id}/statement}</li>
+ * </ul>
+ * Unknown accounts are answered with 404, insufficient funds with 409 and
+ * invalid amounts with 400.
+ * <p>
+ * The JDK server writes headers and body separately, so without TCP_NODELAY
+ * each response waits for the client's delayed acknowledgement. The option
+ * is the JVM-wide system property {@code sun.net.httpserver.nodelay}, read
+ * once by the JDK, so it is left to the application to set it to
+ * {@code true} before the first server starts, as {@link bankkata.App} does.
+ */
+public final class AccountHttpServer implements AutoCloseable {
+    private static final String CONTEXT = "/accounts/";
+    private static final int BACKLOG = 16 * 1024;
+
+    private final AccountApplicationService applicationService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private AccountHttpServer(AccountApplicationService applicationService, HttpServer server,
+                              ExecutorService executor) {
+        this.applicationService = applicationService;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server.
+     *
+     * @param applicationService the service handling the requests
+     * @param address            the address to listen on; port 0 picks a free port
+     * @return the started server
+     * @throws IOException if the server cannot listen on the address
+     */
+    public static AccountHttpServer start(AccountApplicationService applicationService, InetSocketAddress address)
+            throws IOException {
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = RequestExecutors.threadPerRequest();
+        AccountHttpServer accountServer = new AccountHttpServer(applicationService, server, executor);
+        server.createContext(CONTEXT, accountServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return accountServer;
+    }
+
+    /**
+     * Returns the address the server listens on.
+     *
+     * @return the bound address
+     */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /**
+     * Returns whether requests run on virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    public boolean usesVirtualThreads() {
+        return RequestExecutors.usesVirtualThreads();
+    }
+
+    /**
+     * Stops accepting connections, waits up to a second for requests in
+     * progress and stops the request threads.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().substring(CONTEXT.length()).split("/");
+            if (path.length != 2 || path[0].isEmpty()) {
+                respond(exchange, 404, "Not found");
+                return;
+            }
+            String accountId = path[0];
+            String method = exchange.getRequestMethod();
+            try {
+                switch (path[1]) {
+                    case "deposit" -> {
+                        if (requireMethod(exchange, method, "POST")) {
+                            applicationService.deposit(accountId, amount(exchange.getRequestURI()));
+                            respond(exchange, 200, "OK");
+                        }
+                    }
+                    case "withdraw" -> {
+                        if (requireMethod(exchange, method, "POST")) {
+                            applicationService.withdraw(accountId, amount(exchange.getRequestURI()));
+                            respond(exchange, 200, "OK");
+                        }
+                    }
+                    case "balance" -> {
+                        if (requireMethod(exchange, method, "GET")) {
+                            double balance = applicationService.getBalance(accountId);
+                            respond(exchange, 200, String.format(Locale.ROOT, "%.2f", balance));
+                        }
+                    }
+                    case "statement" -> {
+                        if (requireMethod(exchange, method, "GET")) {
+                            respond(exchange, 200, applicationService.getStatement(accountId).formattedStatement());
+                        }
+                    }
+                    default -> respond(exchange, 404, "Not found");
+                }
+            } catch (RuntimeException e) {
+                respond(exchange, statusOf(e), String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+    private static boolean requireMethod(HttpExchange exchange, String method, String expected) throws IOException {
+        if (expected.equals(method)) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", expected);
+        respond(exchange, 405, "Method not allowed");
+        return false;
+    }
+
+    private static double amount(URI uri) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("amount=")) {
+                    return Double.parseDouble(parameter.substring("amount=".length()));
+                }
+            }
+        }
+        throw new IllegalArgumentException("Missing amount");
+    }
+
+    private static int statusOf(RuntimeException failure) {
+        Throwable cause = failure instanceof ApplicationException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof AccountNotFoundException) {
+            return 404;
+        }
+        if (cause instanceof InsufficientFundsException) {
+            return 409;
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return 400;
+        }
+        return 500;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        // A zero length would ask for a chunked body
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package bankkata.infrastructure.http;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors running each request on its own thread.
+ * <p>
+ * On Java 21 and later each request gets a virtual thread, so the number of
+ * concurrent requests is bounded by memory rather than by a pool size. The
+ * project still compiles for Java 17, so the virtual thread executor is looked
+ * up reflectively; on older runtimes a cached pool of daemon platform threads
+ * is used instead.
+ */
+final class RequestExecutors {
+    private static final MethodHandle VIRTUAL_THREAD_PER_TASK = virtualThreadPerTask();
+
+    private RequestExecutors() {
+    }
+
+    /**
+     * Creates an executor starting one thread per task.
+     *
+     * @return the executor
+     */
+    static ExecutorService threadPerRequest() {
+        if (VIRTUAL_THREAD_PER_TASK != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_PER_TASK.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to create virtual thread executor", e);
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "http-request-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns whether requests run on virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    static boolean usesVirtualThreads() {
+        return VIRTUAL_THREAD_PER_TASK != null;
+    }
+
+    private static MethodHandle virtualThreadPerTask() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
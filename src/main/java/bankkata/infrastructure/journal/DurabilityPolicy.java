@@ -0,0 +1,23 @@
+package bankkata.infrastructure.journal;
+
+/**
+ * Controls when appended journal records are forced to stable storage.
+ * This is the main trade-off between write throughput and the amount of
+ * data that can be lost on a crash.
+ */
+public enum DurabilityPolicy {
+    /**
+     * Every record is forced to disk before the append returns.
+     */
+    PER_OPERATION,
+    /**
+     * Group commit: a committing writer forces every record appended so far,
+     * so concurrent writers share a single fsync.
+     */
+    PER_BATCH,
+    /**
+     * Records are forced by a background thread at a fixed interval; a crash
+     * can lose the records of the last window.
+     */
+    TIME_WINDOW
+}
@@ -0,0 +1,384 @@
+package bankkata.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented binary journal on local disk.
+ * <p>
+ * Records are framed as {@code [length][crc32][payload]} and appended through a
+ * {@link FileChannel}. A position is the global byte offset of a record across
+ * all segments; each segment file is named after the position of its first
+ * record. A torn or corrupt tail in the last segment, as left by a crash
+ * during a write, is truncated when the journal is opened.
+ * <p>
+ * Interrupting a thread blocked in a write or a force closes the underlying
+ * channel. That call fails and nothing it covered is reported as durable;
+ * the next append reopens the segment after the last complete record.
+ * <p>
+ * This class is thread-safe.
+ */
+public class Journal implements AutoCloseable {
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private final JournalConfig config;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private final ByteBuffer[] frame = new ByteBuffer[2];
+    private final ScheduledExecutorService syncScheduler;
+    private FileChannel segment;
+    private long segmentBase;
+    private volatile long writePosition;
+    private volatile long durablePosition;
+    private boolean closed;
+
+    private Journal(JournalConfig config, long segmentBase, long writePosition) throws IOException {
+        this.config = config;
+        this.segmentBase = segmentBase;
+        this.writePosition = writePosition;
+        this.durablePosition = writePosition;
+        this.segment = openSegment(segmentBase);
+        this.segment.truncate(writePosition - segmentBase);
+        this.segment.position(writePosition - segmentBase);
+        if (config.durabilityPolicy() == DurabilityPolicy.TIME_WINDOW) {
+            long interval = config.syncInterval().toNanos();
+            this.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.syncScheduler.scheduleAtFixedRate(this::syncQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            this.syncScheduler = null;
+        }
+    }
+
+    /**
+     * Opens the journal, replaying every record from the given position, and
+     * prepares it for appending after the last valid record.
+     *
+     * @param config       the journal configuration
+     * @param fromPosition the position of the first record to replay, usually 0
+     *                     or a position returned by {@link #position()}
+     * @param handler      the callback receiving the replayed records
+     * @return the opened journal
+     * @throws UncheckedIOException  if the journal cannot be read or created
+     * @throws IllegalStateException if a segment other than the last is corrupt
+     */
+    public static Journal open(JournalConfig config, long fromPosition, RecordHandler handler) {
+        try {
+            Files.createDirectories(config.directory());
+            List<Long> bases = listSegmentBases(config.directory());
+            if (bases.isEmpty()) {
+                return new Journal(config, 0, 0);
+            }
+            int first = 0;
+            while (first + 1 < bases.size() && bases.get(first + 1) <= fromPosition) {
+                first++;
+            }
+            long end = bases.get(first);
+            for (int i = first; i < bases.size(); i++) {
+                long base = bases.get(i);
+                boolean last = i == bases.size() - 1;
+                long start = i == first ? Math.max(fromPosition, base) : base;
+                end = replaySegment(segmentPath(config.directory(), base), base, start, handler, last);
+            }
+            return new Journal(config, bases.get(bases.size() - 1), end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal in " + config.directory(), e);
+        }
+    }
+
+    /**
+     * Appends a record. With {@link DurabilityPolicy#PER_OPERATION} the record
+     * is durable when this method returns; otherwise {@link #commit(long)}
+     * must be called to wait for durability.
+     *
+     * @param payload the record payload, must not be empty
+     * @return the position just after the appended record
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (length == 0) {
+            throw new IllegalArgumentException("Journal records must not be empty");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        try {
+            synchronized (writeLock) {
+                if (closed) {
+                    throw new IllegalStateException("Journal is closed");
+                }
+                if (!segment.isOpen()) {
+                    reopenSegment();
+                }
+                long recordSize = HEADER_SIZE + (long) length;
+                if (writePosition > segmentBase && writePosition - segmentBase + recordSize > config.segmentSize()) {
+                    rollSegment();
+                }
+                header.clear();
+                header.putInt(length).putInt((int) crc.getValue()).flip();
+                frame[0] = header;
+                frame[1] = payload;
+                while (header.hasRemaining() || payload.hasRemaining()) {
+                    segment.write(frame);
+                }
+                frame[1] = null;
+                long end = writePosition + recordSize;
+                writePosition = end;
+                if (config.durabilityPolicy() == DurabilityPolicy.PER_OPERATION) {
+                    segment.force(false);
+                    durablePosition = end;
+                }
+                return end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal", e);
+        }
+    }
+
+    /**
+     * Makes sure every record up to the given position is durable according to
+     * the configured policy. With {@link DurabilityPolicy#PER_BATCH} the first
+     * committer forces everything written so far and concurrent committers whose
+     * records were included return without a further fsync.
+     *
+     * @param position a position returned by {@link #append(ByteBuffer)}
+     * @throws UncheckedIOException if the journal cannot be forced
+     */
+    public void commit(long position) {
+        if (config.durabilityPolicy() != DurabilityPolicy.PER_BATCH || durablePosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durablePosition < position) {
+                sync();
+            }
+        }
+    }
+
+    /**
+     * Forces every record appended so far to stable storage, whatever the
+     * durability policy.
+     *
+     * @return the durable position, at least the position of the journal
+     *         when this method was called
+     * @throws UncheckedIOException if the journal cannot be forced
+     */
+    public long force() {
+        synchronized (syncLock) {
+            if (durablePosition < writePosition) {
+                sync();
+            }
+            return durablePosition;
+        }
+    }
+
+    /**
+     * Returns the position at which the next record will be appended.
+     *
+     * @return the current end of the journal
+     */
+    public long position() {
+        return writePosition;
+    }
+
+    /**
+     * Returns the position up to which records are known to be on stable storage.
+     *
+     * @return the durable position
+     */
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Forces all appended records to disk and closes the journal.
+     */
+    @Override
+    public void close() {
+        if (syncScheduler != null) {
+            // Not interrupted: that would close the channel under a running force
+            syncScheduler.shutdown();
+            try {
+                syncScheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    if (!segment.isOpen()) {
+                        reopenSegment();
+                    }
+                    segment.force(false);
+                    durablePosition = writePosition;
+                    segment.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to close journal", e);
+                }
+            }
+        }
+    }
+
+    private void sync() {
+        FileChannel channel;
+        long base;
+        long target;
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            channel = segment;
+            base = segmentBase;
+            target = writePosition;
+        }
+        try {
+            // Forced outside the write lock so appends continue during the fsync
+            channel.force(false);
+        } catch (ClosedByInterruptException e) {
+            throw new UncheckedIOException("Interrupted while syncing journal", e);
+        } catch (ClosedChannelException e) {
+            synchronized (writeLock) {
+                // Only a roll, which forces the segment before closing it, or
+                // close() make the records durable
+                if (!closed && segmentBase == base) {
+                    throw new UncheckedIOException("Journal segment closed while syncing", e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync journal", e);
+        }
+        durablePosition = Math.max(durablePosition, target);
+    }
+
+    private void syncQuietly() {
+        synchronized (syncLock) {
+            try {
+                if (durablePosition < writePosition) {
+                    sync();
+                }
+            } catch (UncheckedIOException e) {
+                // Retried at the next interval; an exception would cancel the schedule
+            }
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        segment.force(false);
+        segment.close();
+        durablePosition = Math.max(durablePosition, writePosition);
+        segmentBase = writePosition;
+        segment = openSegment(segmentBase);
+    }
+
+    private void reopenSegment() throws IOException {
+        // Drops the partial record an interrupted write may have left behind
+        segment = openSegment(segmentBase);
+        segment.truncate(writePosition - segmentBase);
+        segment.position(writePosition - segmentBase);
+    }
+
+    private FileChannel openSegment(long base) throws IOException {
+        return FileChannel.open(segmentPath(config.directory(), base),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private static long replaySegment(Path path, long base, long from, RecordHandler handler, boolean tail)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = from - base;
+            if (offset > size) {
+                throw new IllegalStateException("Journal segment " + path + " ends before position " + from);
+            }
+            channel.position(offset);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+            while (true) {
+                if (buffer.remaining() < HEADER_SIZE && !fill(channel, buffer, HEADER_SIZE)) {
+                    break;
+                }
+                int length = buffer.getInt(buffer.position());
+                int checksum = buffer.getInt(buffer.position() + Integer.BYTES);
+                if (length <= 0 || length > size - offset - HEADER_SIZE) {
+                    break;
+                }
+                int recordSize = HEADER_SIZE + length;
+                if (buffer.remaining() < recordSize) {
+                    if (buffer.capacity() < recordSize) {
+                        buffer = ByteBuffer.allocate(recordSize).put(buffer).flip();
+                    }
+                    if (!fill(channel, buffer, recordSize)) {
+                        break;
+                    }
+                }
+                ByteBuffer payload = buffer.slice(buffer.position() + HEADER_SIZE, length);
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                handler.onRecord(base + offset, payload.asReadOnlyBuffer());
+                buffer.position(buffer.position() + recordSize);
+                offset += recordSize;
+            }
+            if (offset != size && !tail) {
+                throw new IllegalStateException("Corrupt journal segment " + path + " at offset " + offset);
+            }
+            return base + offset;
+        }
+    }
+
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        try {
+            while (buffer.position() < needed) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    private static List<Long> listSegmentBases(Path directory) throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(bases::add);
+        }
+        return bases;
+    }
+
+    private static Path segmentPath(Path directory, long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,64 @@
+package bankkata.infrastructure.journal;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of a {@link Journal}.
+ *
+ * @param directory        the directory holding the journal segments
+ * @param segmentSize      the size in bytes after which a new segment is started
+ * @param durabilityPolicy when appended records are forced to disk
+ * @param syncInterval     the flush interval used by {@link DurabilityPolicy#TIME_WINDOW}
+ */
+public record JournalConfig(Path directory, long segmentSize, DurabilityPolicy durabilityPolicy,
+                            Duration syncInterval) {
+
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(10);
+
+    public JournalConfig {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must not be null");
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        if (durabilityPolicy == null) {
+            throw new IllegalArgumentException("Durability policy must not be null");
+        }
+        if (syncInterval == null || syncInterval.isNegative() || syncInterval.isZero()) {
+            throw new IllegalArgumentException("Sync interval must be positive");
+        }
+    }
+
+    /**
+     * Returns a configuration using group commit and 64 MiB segments.
+     *
+     * @param directory the directory holding the journal segments
+     * @return the default configuration
+     */
+    public static JournalConfig defaults(Path directory) {
+        return new JournalConfig(directory, DEFAULT_SEGMENT_SIZE, DurabilityPolicy.PER_BATCH, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Returns a copy of this configuration with another durability policy.
+     *
+     * @param policy the durability policy
+     * @return the new configuration
+     */
+    public JournalConfig withDurabilityPolicy(DurabilityPolicy policy) {
+        return new JournalConfig(directory, segmentSize, policy, syncInterval);
+    }
+
+    /**
+     * Returns a copy of this configuration with another segment size.
+     *
+     * @param size the segment size in bytes
+     * @return the new configuration
+     */
+    public JournalConfig withSegmentSize(long size) {
+        return new JournalConfig(directory, size, durabilityPolicy, syncInterval);
+    }
+}
@@ -0,0 +1,17 @@
+package bankkata.infrastructure.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Callback receiving the records of a {@link Journal} during replay.
+ */
+@FunctionalInterface
+public interface RecordHandler {
+    /**
+     * Handles one record.
+     *
+     * @param position the journal position at which the record starts
+     * @param payload  a read-only view of the record payload, only valid during the call
+     */
+    void onRecord(long position, ByteBuffer payload);
+}
@@ -0,0 +1,106 @@
+package bankkata.infrastructure.repository;
+
+import bankkata.domain.model.AccountId;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Insert-only hash table from account IDs to their int handles, with open
+ * addressing, so that handles are stored unboxed.
+ * <p>
+ * Lookups take no lock. Insertions must be serialized by the caller; an
+ * insertion becomes visible to lookups when its key is published, after its
+ * handle was written, and a grown table is published only once filled.
+ */
+final class AccountDirectory {
+    static final int ABSENT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * Returns the handle of an account.
+     *
+     * @param accountId the account ID
+     * @return the handle, or {@link #ABSENT} if the ID was never added
+     */
+    int get(AccountId accountId) {
+        return table.get(accountId);
+    }
+
+    /**
+     * Adds the handle of an account that is not in the directory yet. Callers
+     * must serialize the calls to this method.
+     *
+     * @param accountId the account ID
+     * @param handle    the handle of the account
+     */
+    void add(AccountId accountId, int handle) {
+        Table current = table;
+        // Keeps the load factor at most one half
+        if ((size + 1) * 2 > current.capacity()) {
+            current = current.grow();
+        }
+        current.add(accountId, handle);
+        size++;
+        table = current;
+    }
+
+    /**
+     * One generation of the table. Keys are published with volatile writes
+     * after the handle at the same index.
+     */
+    private static final class Table {
+        private final AtomicReferenceArray<AccountId> keys;
+        private final int[] handles;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new AtomicReferenceArray<>(capacity);
+            this.handles = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return handles.length;
+        }
+
+        private int get(AccountId accountId) {
+            for (int i = indexOf(accountId); ; i = (i + 1) & mask) {
+                AccountId key = keys.get(i);
+                if (key == null) {
+                    return ABSENT;
+                }
+                if (key.equals(accountId)) {
+                    return handles[i];
+                }
+            }
+        }
+
+        private void add(AccountId accountId, int handle) {
+            int i = indexOf(accountId);
+            while (keys.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            handles[i] = handle;
+            keys.set(i, accountId);
+        }
+
+        private Table grow() {
+            Table grown = new Table(capacity() * 2);
+            for (int i = 0; i < capacity(); i++) {
+                AccountId key = keys.get(i);
+                if (key != null) {
+                    grown.add(key, handles[i]);
+                }
+            }
+            return grown;
+        }
+
+        private int indexOf(AccountId accountId) {
+            int h = accountId.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
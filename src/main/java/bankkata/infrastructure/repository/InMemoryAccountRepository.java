@@ -2,28 +2,127 @@ package bankkata.infrastructure.repository;
 
 import bankkata.domain.model.Account;
 import bankkata.domain.model.AccountId;
-import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.repository.IndexedAccountRepository;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 /**
  * In-memory implementation of the AccountRepository interface.
- * This implementation is thread-safe using ConcurrentHashMap.
+ * <p>
+ * Accounts are stored in an array indexed by their handle, made of pages
+ * that are added as accounts are opened, so that lookups by handle are two
+ * array reads and neighbouring handles share pages. An {@link AccountDirectory}
+ * maps each ID to its unboxed handle; it is only consulted by lookups and
+ * saves by ID.
+ * <p>
+ * This implementation is thread-safe. Lookups take no lock; opening an
+ * account is serialized.
  */
-public class InMemoryAccountRepository implements AccountRepository {
+public class InMemoryAccountRepository implements IndexedAccountRepository {
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
 
-    private final Map<AccountId, Account> accounts = new ConcurrentHashMap<>();
+    private final AccountDirectory handles = new AccountDirectory();
+    private volatile AtomicReferenceArray<Account>[] pages = newPages(16);
+    private volatile int accountCount;
 
     @Override
     public Optional<Account> findById(AccountId accountId) {
-        return Optional.ofNullable(accounts.get(accountId));
+        int handle = handles.get(accountId);
+        return handle == AccountDirectory.ABSENT ? Optional.empty() : Optional.of(slotOf(handle));
+    }
+
+    @Override
+    public OptionalInt findHandle(AccountId accountId) {
+        int handle = handles.get(accountId);
+        return handle == AccountDirectory.ABSENT ? OptionalInt.empty() : OptionalInt.of(handle);
+    }
+
+    @Override
+    public Optional<Account> findByHandle(int handle) {
+        return Optional.ofNullable(accountAt(handle));
     }
 
     @Override
     public Account save(Account account) {
-        accounts.put(account.getId(), account);
+        int handle = handles.get(account.getId());
+        if (handle == AccountDirectory.ABSENT) {
+            return open(account);
+        }
+        pages[handle >>> PAGE_BITS].set(handle & PAGE_MASK, account);
+        return account;
+    }
+
+    @Override
+    public Account save(int handle, Account account) {
+        Account stored = accountAt(handle);
+        if (stored == null) {
+            throw new IllegalArgumentException("Unknown account handle " + handle);
+        }
+        if (stored != account && !stored.getId().equals(account.getId())) {
+            throw new IllegalArgumentException("Account " + account.getId().value() + " does not have handle "
+                    + handle);
+        }
+        pages[handle >>> PAGE_BITS].set(handle & PAGE_MASK, account);
+        return account;
+    }
+
+    /**
+     * Visits the accounts in handle order, page by page.
+     */
+    @Override
+    public void forEachAccount(Consumer<Account> visitor) {
+        int count = accountCount;
+        AtomicReferenceArray<Account>[] current = pages;
+        for (int handle = 0; handle < count; handle++) {
+            visitor.accept(current[handle >>> PAGE_BITS].get(handle & PAGE_MASK));
+        }
+    }
+
+    private synchronized Account open(Account account) {
+        int existing = handles.get(account.getId());
+        if (existing != AccountDirectory.ABSENT) {
+            pages[existing >>> PAGE_BITS].set(existing & PAGE_MASK, account);
+            return account;
+        }
+        int handle = accountCount;
+        int page = handle >>> PAGE_BITS;
+        AtomicReferenceArray<Account>[] current = pages;
+        if (page >= current.length) {
+            AtomicReferenceArray<Account>[] grown = newPages(current.length * 2);
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        if (current[page] == null) {
+            current[page] = new AtomicReferenceArray<>(PAGE_SIZE);
+        }
+        current[page].set(handle & PAGE_MASK, account);
+        pages = current;
+        // Publish the handle last, so that readers finding it also find the account
+        handles.add(account.getId(), handle);
+        accountCount = handle + 1;
         return account;
     }
+
+    private Account accountAt(int handle) {
+        AtomicReferenceArray<Account>[] current = pages;
+        int page = handle >>> PAGE_BITS;
+        if (handle < 0 || page >= current.length || current[page] == null) {
+            return null;
+        }
+        return current[page].get(handle & PAGE_MASK);
+    }
+
+    private Account slotOf(int handle) {
+        return pages[handle >>> PAGE_BITS].get(handle & PAGE_MASK);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Account>[] newPages(int length) {
+        return (AtomicReferenceArray<Account>[]) new AtomicReferenceArray[length];
+    }
 }
@@ -0,0 +1,100 @@
+package bankkata.infrastructure.repository;
+
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Binary encoding of the account journal records.
+ * <p>
+ * Every record starts with a type byte and the length-prefixed UTF-8 account ID.
+ * Operation records then hold the operation sequence number within the account,
+ * the operation type, the timestamp as epoch seconds, nanos and zone ID, and
+ * the amount and resulting balance in cents.
+ */
+final class JournalRecordCodec {
+    static final byte ACCOUNT_OPENED = 1;
+    static final byte OPERATION_RECORDED = 2;
+
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    private JournalRecordCodec() {
+        // Private constructor to prevent instantiation
+    }
+
+    static ByteBuffer encodeAccountOpened(AccountId accountId) {
+        byte[] id = accountId.value().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Short.BYTES + id.length);
+        buffer.put(ACCOUNT_OPENED);
+        putBytes(buffer, id);
+        return buffer.flip();
+    }
+
+    static ByteBuffer encodeOperation(AccountId accountId, int sequence, Operation operation) {
+        byte[] id = accountId.value().getBytes(StandardCharsets.UTF_8);
+        byte[] zone = operation.getTimestamp().getZone().getId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Short.BYTES + id.length + Integer.BYTES + 1
+                + Long.BYTES + Integer.BYTES + Short.BYTES + zone.length + Long.BYTES * 2);
+        Instant instant = operation.getTimestamp().toInstant();
+        buffer.put(OPERATION_RECORDED);
+        putBytes(buffer, id);
+        buffer.putInt(sequence);
+        buffer.put((byte) operation.getType().ordinal());
+        buffer.putLong(instant.getEpochSecond());
+        buffer.putInt(instant.getNano());
+        putBytes(buffer, zone);
+        buffer.putLong(operation.getAmount().getCents());
+        buffer.putLong(operation.getBalanceAfterOperation().getCents());
+        return buffer.flip();
+    }
+
+    static void decode(ByteBuffer payload, Visitor visitor) {
+        byte type = payload.get();
+        AccountId accountId = new AccountId(getString(payload));
+        switch (type) {
+            case ACCOUNT_OPENED -> visitor.accountOpened(accountId);
+            case OPERATION_RECORDED -> {
+                int sequence = payload.getInt();
+                OperationType operationType = OPERATION_TYPES[payload.get()];
+                Instant instant = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+                ZoneId zone = ZoneId.of(getString(payload));
+                Money amount = Money.ofCents(payload.getLong());
+                Money balance = Money.ofCents(payload.getLong());
+                visitor.operationRecorded(accountId, sequence,
+                        new Operation(operationType, ZonedDateTime.ofInstant(instant, zone), amount, balance));
+            }
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Value is too long to be journaled");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Receives decoded journal records.
+     */
+    interface Visitor {
+        void accountOpened(AccountId accountId);
+
+        void operationRecorded(AccountId accountId, int sequence, Operation operation);
+    }
+}
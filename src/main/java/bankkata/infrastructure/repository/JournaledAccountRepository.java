@@ -0,0 +1,197 @@
+package bankkata.infrastructure.repository;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.AccountSnapshot;
+import bankkata.domain.model.Clock;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.repository.OperationLogRepository;
+import bankkata.infrastructure.journal.Journal;
+import bankkata.infrastructure.journal.JournalConfig;
+import bankkata.infrastructure.snapshot.Snapshot;
+import bankkata.infrastructure.snapshot.SnapshotStore;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Durable implementation of the AccountRepository interface.
+ * <p>
+ * Accounts are kept in memory, and every operation is appended to a
+ * write-ahead {@link Journal} when the account is saved. On startup the
+ * accounts are rebuilt by replaying the journal, optionally starting from the
+ * latest snapshot so that only the tail of the journal is replayed. Saving an
+ * account instance that is not the one currently stored under its ID replaces
+ * the stored account, as with {@link InMemoryAccountRepository}.
+ */
+public class JournaledAccountRepository implements OperationLogRepository, AutoCloseable {
+
+    private final Map<AccountId, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<AccountId, JournalCursor> cursors = new ConcurrentHashMap<>();
+    private final Journal journal;
+
+    /**
+     * Opens the repository, replaying the whole journal found in the configured directory.
+     *
+     * @param config the journal configuration
+     * @param clock  the clock used by the restored accounts
+     * @throws java.io.UncheckedIOException if the journal cannot be read
+     */
+    public JournaledAccountRepository(JournalConfig config, Clock clock) {
+        this(config, clock, Optional.empty());
+    }
+
+    /**
+     * Opens the repository from the latest snapshot, replaying only the journal
+     * records written after it. Operations older than the snapshot are not
+     * loaded into the restored accounts.
+     *
+     * @param config    the journal configuration
+     * @param clock     the clock used by the restored accounts
+     * @param snapshots the store holding the snapshots
+     * @throws java.io.UncheckedIOException if the journal cannot be read
+     */
+    public JournaledAccountRepository(JournalConfig config, Clock clock, SnapshotStore snapshots) {
+        this(config, clock, snapshots.loadLatest());
+    }
+
+    private JournaledAccountRepository(JournalConfig config, Clock clock, Optional<Snapshot> snapshot) {
+        Map<AccountId, RecoveredAccount> recovered = new LinkedHashMap<>();
+        snapshot.ifPresent(loaded -> loaded.accounts().forEach((accountId, accountSnapshot) ->
+                recovered.put(accountId, new RecoveredAccount(accountSnapshot))));
+        long fromPosition = snapshot.map(Snapshot::logPosition).orElse(0L);
+        this.journal = Journal.open(config, fromPosition, (position, payload) ->
+                JournalRecordCodec.decode(payload, new JournalRecordCodec.Visitor() {
+                    @Override
+                    public void accountOpened(AccountId accountId) {
+                        recovered.put(accountId, new RecoveredAccount(new AccountSnapshot(accountId, Money.ZERO, 0)));
+                    }
+
+                    @Override
+                    public void operationRecorded(AccountId accountId, int sequence, Operation operation) {
+                        RecoveredAccount account = recovered.get(accountId);
+                        if (account == null || sequence > account.operationCount()) {
+                            throw new IllegalStateException("Journal is missing operations of account "
+                                    + accountId.value() + " before position " + position);
+                        }
+                        // Records older than the snapshot state of the account are skipped
+                        if (sequence == account.operationCount()) {
+                            account.tail.add(operation);
+                        }
+                    }
+                }));
+        recovered.forEach((accountId, state) -> {
+            Account account = Account.restore(accountId, clock, state.snapshot, state.tail);
+            accounts.put(accountId, account);
+            cursors.put(accountId, new JournalCursor(account, account.getOperationCount(), account.getBalance()));
+        });
+    }
+
+    @Override
+    public Optional<Account> findById(AccountId accountId) {
+        return Optional.ofNullable(accounts.get(accountId));
+    }
+
+    @Override
+    public void forEachAccount(Consumer<Account> visitor) {
+        accounts.values().forEach(visitor);
+    }
+
+    /**
+     * Saves an account, journaling the operations performed since it was last
+     * saved and waiting for them to be durable according to the durability policy.
+     *
+     * @param account the account to save
+     * @return the saved account
+     * @throws java.io.UncheckedIOException if the journal cannot be written
+     */
+    @Override
+    public Account save(Account account) {
+        AccountId accountId = account.getId();
+        long position = -1;
+        synchronized (account) {
+            JournalCursor cursor = cursors.get(accountId);
+            int journaled = cursor != null && cursor.account == account ? cursor.journaled : -1;
+            if (journaled < 0) {
+                position = journal.append(JournalRecordCodec.encodeAccountOpened(accountId));
+                journaled = 0;
+            }
+            List<Operation> operations = account.getOperations();
+            int operationCount = account.getOperationCount();
+            int firstLoaded = operationCount - operations.size();
+            for (int sequence = journaled; sequence < operationCount; sequence++) {
+                Operation operation = operations.get(sequence - firstLoaded);
+                position = journal.append(JournalRecordCodec.encodeOperation(accountId, sequence, operation));
+            }
+            Money balance = operations.isEmpty()
+                    ? account.getBalance()
+                    : operations.get(operations.size() - 1).getBalanceAfterOperation();
+            cursors.put(accountId, new JournalCursor(account, operationCount, balance));
+            accounts.put(accountId, account);
+        }
+        if (position >= 0) {
+            journal.commit(position);
+        }
+        return account;
+    }
+
+    @Override
+    public long operationLogPosition() {
+        return journal.position();
+    }
+
+    @Override
+    public long syncOperationLog() {
+        return journal.force();
+    }
+
+    @Override
+    public void forEachLoggedAccount(Consumer<AccountSnapshot> visitor) {
+        for (JournalCursor cursor : cursors.values()) {
+            JournalCursor current;
+            // Waits for a save of this account in progress, so that every record
+            // journaled before the log position was read is reflected
+            synchronized (cursor.account) {
+                current = cursors.get(cursor.account.getId());
+            }
+            visitor.accept(new AccountSnapshot(current.account.getId(), current.balance, current.journaled));
+        }
+    }
+
+    /**
+     * Flushes and closes the underlying journal.
+     */
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    /**
+     * Journaled state of an account instance: how many of its operations have
+     * been journaled and the balance after the last of them.
+     */
+    private record JournalCursor(Account account, int journaled, Money balance) {
+    }
+
+    /**
+     * Account being rebuilt during recovery.
+     */
+    private static final class RecoveredAccount {
+        private final AccountSnapshot snapshot;
+        private final List<Operation> tail = new ArrayList<>();
+
+        private RecoveredAccount(AccountSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private int operationCount() {
+            return snapshot.operationCount() + tail.size();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package bankkata.infrastructure.snapshot;
+
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.AccountSnapshot;
+
+import java.util.Map;
+
+/**
+ * Snapshot of every account, loaded from a snapshot file.
+ *
+ * @param logPosition the operation log position from which to replay the tail
+ * @param accounts    the account snapshots by account ID
+ */
+public record Snapshot(long logPosition, Map<AccountId, AccountSnapshot> accounts) {
+}
@@ -0,0 +1,17 @@
+package bankkata.infrastructure.snapshot;
+
+/**
+ * Metrics of the snapshots written by a {@link SnapshotStore}.
+ *
+ * @param snapshotCount      the number of snapshots written successfully
+ * @param failureCount       the number of snapshot attempts that failed
+ * @param lastDurationNanos  how long the last snapshot took to write
+ * @param lastSizeBytes      the size of the last snapshot file
+ * @param lastAccountCount   the number of accounts in the last snapshot
+ * @param lastLogPosition    the operation log position of the last snapshot
+ */
+public record SnapshotMetrics(long snapshotCount, long failureCount, long lastDurationNanos, long lastSizeBytes,
+                              int lastAccountCount, long lastLogPosition) {
+
+    static final SnapshotMetrics EMPTY = new SnapshotMetrics(0, 0, 0, 0, 0, 0);
+}
@@ -0,0 +1,62 @@
+package bankkata.infrastructure.snapshot;
+
+import bankkata.domain.repository.OperationLogRepository;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes snapshots of a repository on a background thread.
+ * Failed attempts are counted in the {@link SnapshotMetrics} and retried at
+ * the next interval.
+ */
+public class SnapshotScheduler implements AutoCloseable {
+    private final OperationLogRepository repository;
+    private final SnapshotStore store;
+    private final ScheduledExecutorService executor;
+
+    public SnapshotScheduler(OperationLogRepository repository, SnapshotStore store, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.repository = repository;
+        this.store = store;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long nanos = interval.toNanos();
+        executor.scheduleWithFixedDelay(this::takeSnapshot, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the metrics of the snapshots written so far.
+     *
+     * @return the snapshot metrics
+     */
+    public SnapshotMetrics metrics() {
+        return store.metrics();
+    }
+
+    /**
+     * Stops taking snapshots, waiting for a snapshot in progress to complete.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void takeSnapshot() {
+        try {
+            store.write(repository);
+        } catch (RuntimeException e) {
+            // Already counted as a failure by the store; the next run retries
+        }
+    }
+}
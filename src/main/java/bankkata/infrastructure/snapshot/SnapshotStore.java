@@ -0,0 +1,242 @@
+package bankkata.infrastructure.snapshot;
+
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.AccountSnapshot;
+import bankkata.domain.model.Money;
+import bankkata.domain.repository.OperationLogRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes and loads compact snapshot files holding the ID, balance and
+ * operation count of every account.
+ * <p>
+ * A snapshot is written to a temporary file, forced to disk and atomically
+ * renamed to {@code snapshot-<logPosition>.snap}, and the rename is forced
+ * too, so a crash never leaves a partial snapshot behind. The log position is
+ * a durable one: the operation log is forced before the snapshot is taken, so
+ * a snapshot never points past the end of the log that survives a crash.
+ * Writers of the repository keep running while a snapshot is taken, so the
+ * accounts may reflect operations logged after that position; the log is
+ * forced again before the snapshot is renamed, so no account in a snapshot is
+ * ahead of the log either. Only the most recent snapshots are retained.
+ */
+public class SnapshotStore {
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final String TEMP_FILE = "snapshot.tmp";
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 1;
+    // magic, version and the CRC32 of everything after the header
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DEFAULT_RETAINED_SNAPSHOTS = 2;
+
+    private final Path directory;
+    private final int retainedSnapshots;
+    private volatile SnapshotMetrics metrics = SnapshotMetrics.EMPTY;
+
+    public SnapshotStore(Path directory) {
+        this(directory, DEFAULT_RETAINED_SNAPSHOTS);
+    }
+
+    /**
+     * Creates a store keeping a custom number of snapshot files.
+     *
+     * @param directory         the directory holding the snapshot files
+     * @param retainedSnapshots how many of the most recent snapshots to keep
+     * @throws IllegalArgumentException if retainedSnapshots is not positive
+     */
+    public SnapshotStore(Path directory, int retainedSnapshots) {
+        if (retainedSnapshots <= 0) {
+            throw new IllegalArgumentException("At least one snapshot must be retained");
+        }
+        this.directory = directory;
+        this.retainedSnapshots = retainedSnapshots;
+    }
+
+    /**
+     * Writes a snapshot of every account of the repository.
+     *
+     * @param repository the repository to snapshot
+     * @return the metrics including the snapshot just written
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public synchronized SnapshotMetrics write(OperationLogRepository repository) {
+        long start = System.nanoTime();
+        SnapshotMetrics previous = metrics;
+        try {
+            Files.createDirectories(directory);
+            // Captured before the scan: everything logged earlier is in the scan
+            long logPosition = repository.syncOperationLog();
+            Path temp = directory.resolve(TEMP_FILE);
+            int accountCount = writeFile(temp, logPosition, repository);
+            // The scan may have read operations logged after logPosition
+            repository.syncOperationLog();
+            Path target = directory.resolve(fileName(logPosition));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            deleteOldSnapshots();
+            metrics = new SnapshotMetrics(previous.snapshotCount() + 1, previous.failureCount(),
+                    System.nanoTime() - start, Files.size(target), accountCount, logPosition);
+            return metrics;
+        } catch (IOException e) {
+            metrics = failed(previous);
+            throw new UncheckedIOException("Failed to write snapshot to " + directory, e);
+        } catch (RuntimeException e) {
+            metrics = failed(previous);
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the most recent valid snapshot. Corrupt snapshot files are skipped.
+     *
+     * @return the snapshot, or empty if there is none
+     * @throws UncheckedIOException if the snapshot directory cannot be listed
+     */
+    public Optional<Snapshot> loadLatest() {
+        for (Path file : listSnapshots()) {
+            try {
+                return Optional.of(readFile(file));
+            } catch (IOException | IllegalStateException e) {
+                // Fall back to an older snapshot
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the metrics of the snapshots written so far.
+     *
+     * @return the snapshot metrics
+     */
+    public SnapshotMetrics metrics() {
+        return metrics;
+    }
+
+    private int writeFile(Path file, long logPosition, OperationLogRepository repository) throws IOException {
+        int[] accountCount = {0};
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), BUFFER_SIZE));
+            out.writeLong(logPosition);
+            try {
+                repository.forEachLoggedAccount(snapshot -> {
+                    try {
+                        out.writeBoolean(true);
+                        out.writeUTF(snapshot.accountId().value());
+                        out.writeLong(snapshot.balance().getCents());
+                        out.writeInt(snapshot.operationCount());
+                        accountCount[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.writeBoolean(false);
+            out.writeInt(accountCount[0]);
+            out.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(VERSION).putLong(crc.getValue()).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        return accountCount[0];
+    }
+
+    private Snapshot readFile(Path file) throws IOException {
+        try (InputStream raw = Files.newInputStream(file)) {
+            DataInputStream header = new DataInputStream(raw);
+            if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+                throw new IllegalStateException("Not a snapshot file: " + file);
+            }
+            long expectedCrc = header.readLong();
+            CheckedInputStream checked = new CheckedInputStream(raw, new CRC32());
+            DataInputStream in = new DataInputStream(new BufferedInputStream(checked, BUFFER_SIZE));
+            long logPosition = in.readLong();
+            Map<AccountId, AccountSnapshot> accounts = new HashMap<>();
+            while (in.readBoolean()) {
+                AccountId accountId = new AccountId(in.readUTF());
+                accounts.put(accountId, new AccountSnapshot(accountId, Money.ofCents(in.readLong()), in.readInt()));
+            }
+            if (in.readInt() != accounts.size() || in.read() != -1
+                    || checked.getChecksum().getValue() != expectedCrc) {
+                throw new IllegalStateException("Corrupt snapshot file: " + file);
+            }
+            return new Snapshot(logPosition, accounts);
+        }
+    }
+
+    private void forceDirectory() throws IOException {
+        // Makes the rename itself durable; the file content was forced before
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void deleteOldSnapshots() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = retainedSnapshots; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private List<Path> listSnapshots() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> snapshots = new ArrayList<>();
+            files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .forEach(snapshots::add);
+            return snapshots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list snapshots in " + directory, e);
+        }
+    }
+
+    private static String fileName(long logPosition) {
+        return String.format("%s%020d%s", PREFIX, logPosition, SUFFIX);
+    }
+
+    private static SnapshotMetrics failed(SnapshotMetrics previous) {
+        return new SnapshotMetrics(previous.snapshotCount(), previous.failureCount() + 1,
+                previous.lastDurationNanos(), previous.lastSizeBytes(), previous.lastAccountCount(),
+                previous.lastLogPosition());
+    }
+}
@@ -0,0 +1,36 @@
+package bankkata.infrastructure.wire;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of direct buffers of one size, so that connections only hold buffers
+ * while they have bytes in flight.
+ * <p>
+ * This class is not thread-safe; it is owned by the selector thread.
+ */
+final class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.pollFirst();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffers.size() < maxPooled) {
+            buffers.addFirst(buffer.clear());
+        }
+    }
+
+    int pooled() {
+        return buffers.size();
+    }
+}
@@ -0,0 +1,117 @@
+package bankkata.infrastructure.wire;
+
+import bankkata.domain.model.AccountId;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static bankkata.infrastructure.wire.WireProtocol.LENGTH_SIZE;
+import static bankkata.infrastructure.wire.WireProtocol.MAX_REQUEST_LENGTH;
+import static bankkata.infrastructure.wire.WireProtocol.RESPONSE_FRAME_SIZE;
+
+/**
+ * Blocking client of a {@link WireServer}, used by tests and load generators.
+ * <p>
+ * Requests are buffered by {@link #send} and written when the buffer is full,
+ * on {@link #flush()} or before {@link #receive()} blocks, so a caller can
+ * pipeline many requests and then read their responses in order.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class WireClient implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0);
+
+    private WireClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the address of the server
+     * @return the connected client
+     * @throws IOException if the connection fails
+     */
+    public static WireClient connect(InetSocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new WireClient(channel);
+    }
+
+    /**
+     * Buffers a request without waiting for its response.
+     *
+     * @param requestId   the ID echoed in the response
+     * @param command     the command
+     * @param accountId   the ID of the account
+     * @param amountCents the amount in cents, ignored for balance requests
+     * @throws IOException if writing buffered requests fails
+     */
+    public void send(int requestId, WireProtocol.Command command, AccountId accountId, long amountCents)
+            throws IOException {
+        if (out.remaining() < LENGTH_SIZE + MAX_REQUEST_LENGTH) {
+            flush();
+        }
+        WireProtocol.encodeRequest(out, requestId, command, accountId, amountCents);
+    }
+
+    /**
+     * Writes the buffered requests.
+     *
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Writes the buffered requests and reads the next response.
+     *
+     * @return the response to the oldest request without a response
+     * @throws IOException if the connection fails or is closed by the server
+     */
+    public WireResponse receive() throws IOException {
+        flush();
+        while (in.remaining() < RESPONSE_FRAME_SIZE) {
+            in.compact();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+        return WireProtocol.decodeResponse(in);
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     *
+     * @param command     the command
+     * @param accountId   the ID of the account
+     * @param amountCents the amount in cents, ignored for balance requests
+     * @return the response
+     * @throws IOException if the connection fails or is closed by the server
+     */
+    public WireResponse call(WireProtocol.Command command, AccountId accountId, long amountCents)
+            throws IOException {
+        send(0, command, accountId, amountCents);
+        return receive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
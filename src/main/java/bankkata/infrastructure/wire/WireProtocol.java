@@ -0,0 +1,97 @@
+package bankkata.infrastructure.wire;
+
+import bankkata.domain.model.AccountId;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary protocol for account commands.
+ * <p>
+ * Every frame starts with its length as an int, not counting the length
+ * itself; all numbers are big-endian. A request is
+ * {@code [length][request id:int][command:byte][amount in cents:long][account id length:short][account id:UTF-8]}
+ * and its response is
+ * {@code [length][request id:int][status:byte][balance in cents:long]}, where
+ * the balance is the one after the command, or 0 on failure. Requests can be
+ * pipelined; responses on a connection come back in request order.
+ */
+public final class WireProtocol {
+    static final int LENGTH_SIZE = Integer.BYTES;
+    static final int MAX_ACCOUNT_ID_BYTES = 1024;
+    static final int MIN_REQUEST_LENGTH = Integer.BYTES + 1 + Long.BYTES + Short.BYTES;
+    static final int MAX_REQUEST_LENGTH = MIN_REQUEST_LENGTH + MAX_ACCOUNT_ID_BYTES;
+    static final int RESPONSE_LENGTH = Integer.BYTES + 1 + Long.BYTES;
+    static final int RESPONSE_FRAME_SIZE = LENGTH_SIZE + RESPONSE_LENGTH;
+
+    private static final Command[] COMMANDS = Command.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private WireProtocol() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Commands of the protocol, encoded by their ordinal.
+     */
+    public enum Command {
+        DEPOSIT,
+        WITHDRAW,
+        BALANCE
+    }
+
+    /**
+     * Outcomes of a command, encoded by their ordinal.
+     */
+    public enum Status {
+        OK,
+        ACCOUNT_NOT_FOUND,
+        INSUFFICIENT_FUNDS,
+        INVALID_REQUEST,
+        ERROR
+    }
+
+    /**
+     * Encodes a request frame.
+     *
+     * @param buffer      the buffer to write to
+     * @param requestId   the ID echoed in the response
+     * @param command     the command
+     * @param accountId   the ID of the account
+     * @param amountCents the amount in cents, ignored for balance requests
+     * @throws IllegalArgumentException         if the account ID is too long
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void encodeRequest(ByteBuffer buffer, int requestId, Command command, AccountId accountId,
+                                     long amountCents) {
+        byte[] id = accountId.value().getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ACCOUNT_ID_BYTES) {
+            throw new IllegalArgumentException("Account ID is too long");
+        }
+        buffer.putInt(MIN_REQUEST_LENGTH + id.length);
+        buffer.putInt(requestId);
+        buffer.put((byte) command.ordinal());
+        buffer.putLong(amountCents);
+        buffer.putShort((short) id.length);
+        buffer.put(id);
+    }
+
+    static void encodeResponse(ByteBuffer buffer, int requestId, Status status, long balanceCents) {
+        buffer.putInt(RESPONSE_LENGTH);
+        buffer.putInt(requestId);
+        buffer.put((byte) status.ordinal());
+        buffer.putLong(balanceCents);
+    }
+
+    static WireResponse decodeResponse(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length != RESPONSE_LENGTH) {
+            throw new IllegalStateException("Invalid response length " + length);
+        }
+        return new WireResponse(buffer.getInt(), STATUSES[buffer.get()], buffer.getLong());
+    }
+
+    static Command command(byte code) {
+        return code >= 0 && code < COMMANDS.length ? COMMANDS[code] : null;
+    }
+}
@@ -0,0 +1,11 @@
+package bankkata.infrastructure.wire;
+
+/**
+ * Response to a request of the binary wire protocol.
+ *
+ * @param requestId    the ID of the request
+ * @param status       the outcome of the command
+ * @param balanceCents the balance after the command, or 0 on failure
+ */
+public record WireResponse(int requestId, WireProtocol.Status status, long balanceCents) {
+}
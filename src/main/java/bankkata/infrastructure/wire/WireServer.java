@@ -0,0 +1,324 @@
+package bankkata.infrastructure.wire;
+
+import bankkata.domain.exception.AccountNotFoundException;
+import bankkata.domain.exception.InsufficientFundsException;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.service.AccountService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static bankkata.infrastructure.wire.WireProtocol.LENGTH_SIZE;
+import static bankkata.infrastructure.wire.WireProtocol.MAX_ACCOUNT_ID_BYTES;
+import static bankkata.infrastructure.wire.WireProtocol.MAX_REQUEST_LENGTH;
+import static bankkata.infrastructure.wire.WireProtocol.MIN_REQUEST_LENGTH;
+import static bankkata.infrastructure.wire.WireProtocol.RESPONSE_FRAME_SIZE;
+
+/**
+ * Server of the {@link WireProtocol} in front of an {@link AccountService}.
+ * <p>
+ * A single selector thread accepts connections, decodes request frames
+ * straight from pooled direct buffers, applies them to the account service and
+ * encodes the responses into pooled direct buffers. Connections only hold
+ * buffers while they have bytes in flight. Requests are pipelined: a client
+ * may send many requests before reading the responses, which come back in
+ * order. When a client does not read its responses, the server stops reading
+ * its requests until the responses are written.
+ * <p>
+ * Commands run on the selector thread, so the account service must not block
+ * for long, as is the case with an in-memory repository. A connection sending
+ * a malformed frame is closed.
+ */
+public final class WireServer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 1024;
+
+    private final AccountService accountService;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final BufferPool bufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final byte[] accountIdBytes = new byte[MAX_ACCOUNT_ID_BYTES];
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private WireServer(AccountService accountService, ServerSocketChannel serverChannel, Selector selector) {
+        this.accountService = accountService;
+        this.serverChannel = serverChannel;
+        this.selector = selector;
+        this.thread = new Thread(this::run, "wire-selector");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts a server.
+     *
+     * @param accountService the service applying the commands
+     * @param address        the address to listen on; port 0 picks a free port
+     * @return the started server
+     * @throws IOException if the server cannot listen on the address
+     */
+    public static WireServer start(AccountService accountService, InetSocketAddress address) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        Selector selector = Selector.open();
+        try {
+            serverChannel.bind(address, 0);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        WireServer server = new WireServer(accountService, serverChannel, selector);
+        server.thread.start();
+        return server;
+    }
+
+    /**
+     * Returns the address the server listens on.
+     *
+     * @return the bound address
+     */
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the selector thread and closes every connection.
+     *
+     * @throws InterruptedException if interrupted while waiting for the selector thread
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        thread.join();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        handle(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Wire server selector failed", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                connection.onWritable();
+            }
+            if (key.isValid() && key.isReadable()) {
+                connection.onReadable();
+            }
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    private void apply(ByteBuffer in, ByteBuffer out) {
+        int end = in.position() + LENGTH_SIZE + in.getInt();
+        int requestId = in.getInt();
+        WireProtocol.Command command = WireProtocol.command(in.get());
+        long amountCents = in.getLong();
+        int idLength = in.getShort() & 0xFFFF;
+        if (command == null || idLength != end - in.position()) {
+            in.position(end);
+            WireProtocol.encodeResponse(out, requestId, WireProtocol.Status.INVALID_REQUEST, 0);
+            return;
+        }
+        in.get(accountIdBytes, 0, idLength);
+        AccountId accountId = new AccountId(new String(accountIdBytes, 0, idLength, StandardCharsets.UTF_8));
+
+        WireProtocol.Status status;
+        long balanceCents = 0;
+        try {
+            balanceCents = switch (command) {
+                case DEPOSIT -> accountService.depositAndGetBalance(accountId, Money.ofCents(amountCents))
+                        .balanceCents();
+                case WITHDRAW -> accountService.withdrawAndGetBalance(accountId, Money.ofCents(amountCents))
+                        .balanceCents();
+                case BALANCE -> accountService.getBalance(accountId).balanceCents();
+            };
+            status = WireProtocol.Status.OK;
+        } catch (AccountNotFoundException e) {
+            status = WireProtocol.Status.ACCOUNT_NOT_FOUND;
+        } catch (InsufficientFundsException e) {
+            status = WireProtocol.Status.INSUFFICIENT_FUNDS;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            status = WireProtocol.Status.INVALID_REQUEST;
+        } catch (RuntimeException e) {
+            status = WireProtocol.Status.ERROR;
+        }
+        WireProtocol.encodeResponse(out, requestId, status, balanceCents);
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        if (key.attachment() instanceof Connection connection) {
+            connection.close();
+        } else {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // Already closing
+            }
+        }
+    }
+
+    /**
+     * State of one client connection. Both buffers are kept in write mode and
+     * returned to the pool when empty.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer in;
+        private ByteBuffer out;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void onReadable() throws IOException {
+            if (in == null) {
+                in = bufferPool.acquire();
+            }
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            process();
+        }
+
+        void onWritable() throws IOException {
+            if (flush()) {
+                // Resume the requests left buffered while the output was full
+                process();
+            }
+        }
+
+        /**
+         * Applies the complete request frames read so far, writes the
+         * responses and selects what to wait for next.
+         */
+        private void process() throws IOException {
+            boolean outputFull = false;
+            if (in != null) {
+                in.flip();
+                while (in.remaining() >= LENGTH_SIZE) {
+                    int length = in.getInt(in.position());
+                    if (length < MIN_REQUEST_LENGTH || length > MAX_REQUEST_LENGTH) {
+                        close();
+                        return;
+                    }
+                    if (in.remaining() < LENGTH_SIZE + length) {
+                        break;
+                    }
+                    if (out != null && out.remaining() < RESPONSE_FRAME_SIZE && !flush()) {
+                        outputFull = true;
+                        break;
+                    }
+                    if (out == null) {
+                        out = bufferPool.acquire();
+                    }
+                    apply(in, out);
+                }
+                in.compact();
+                if (in.position() == 0) {
+                    bufferPool.release(in);
+                    in = null;
+                }
+            }
+            if (!outputFull) {
+                outputFull = !flush();
+            }
+            key.interestOps(outputFull ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        /**
+         * Writes the pending responses.
+         *
+         * @return true if every response was written
+         */
+        private boolean flush() throws IOException {
+            if (out == null) {
+                return true;
+            }
+            out.flip();
+            channel.write(out);
+            if (out.hasRemaining()) {
+                out.compact();
+                return false;
+            }
+            bufferPool.release(out);
+            out = null;
+            return true;
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closing
+            }
+            if (in != null) {
+                bufferPool.release(in);
+                in = null;
+            }
+            if (out != null) {
+                bufferPool.release(out);
+                out = null;
+            }
+        }
+    }
+}
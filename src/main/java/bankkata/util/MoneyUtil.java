@@ -8,6 +8,13 @@ import java.math.RoundingMode;
  */
 public final class MoneyUtil {
 
+    private static final int CENTS_PER_UNIT = 100;
+    // Below this magnitude adjacent doubles are far closer than half a cent, so
+    // a double equal to n / 100.0 can only have n / 100 as its decimal form
+    private static final double EXACT_CENTS_LIMIT = 1e12;
+    // BigDecimal.doubleValue divides by a power of ten below this magnitude
+    private static final long EXACT_DOUBLE_LIMIT = 1L << 52;
+
     private MoneyUtil() {
         // Private constructor to prevent instantiation
     }
@@ -51,4 +58,58 @@ public final class MoneyUtil {
     public static BigDecimal toBigDecimal(double amount) {
         return round(BigDecimal.valueOf(amount));
     }
+
+    /**
+     * Converts an amount to cents, rounding HALF_UP to two decimal places.
+     * The result is identical to {@code toBigDecimal(amount)} expressed in
+     * cents, but the common case does not allocate.
+     *
+     * @param amount the amount to convert
+     * @return the amount in cents
+     * @throws NumberFormatException if the amount is NaN or infinite
+     * @throws ArithmeticException   if the amount does not fit in a long number of cents
+     */
+    public static long toCents(double amount) {
+        if (Math.abs(amount) < EXACT_CENTS_LIMIT) {
+            double cents = Math.rint(amount * CENTS_PER_UNIT);
+            if (cents / CENTS_PER_UNIT == amount) {
+                return (long) cents;
+            }
+        }
+        return toCents(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Converts an amount to cents, rounding HALF_UP to two decimal places.
+     *
+     * @param amount the amount to convert
+     * @return the amount in cents
+     * @throws ArithmeticException if the amount does not fit in a long number of cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return round(amount).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts cents to an amount with a scale of two.
+     *
+     * @param cents the amount in cents
+     * @return a BigDecimal representation
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Converts cents to a double, identical to {@code fromCents(cents).doubleValue()}.
+     *
+     * @param cents the amount in cents
+     * @return a double representation
+     */
+    public static double toDouble(long cents) {
+        if (cents > -EXACT_DOUBLE_LIMIT && cents < EXACT_DOUBLE_LIMIT) {
+            return (double) cents / CENTS_PER_UNIT;
+        }
+        return fromCents(cents).doubleValue();
+    }
 }
@@ -1,5 +1,9 @@
 package bankkata;
 
+import bankkata.application.dto.AccountCommandDto;
+import bankkata.application.dto.CommandResultDto;
+import bankkata.application.dto.DailyTotalsDto;
+import bankkata.application.dto.StatementPageDto;
 import bankkata.application.service.AccountApplicationService;
 import bankkata.domain.model.AccountId;
 import bankkata.domain.repository.AccountRepository;
@@ -11,8 +15,16 @@ import bankkata.infrastructure.repository.InMemoryAccountRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,13 +36,14 @@ class BankingIntegrationTest {
 
     private final String accountId = "test123";
     private TestClock clock;
+    private AccountRepository accountRepository;
     private AccountApplicationService applicationService;
 
     @BeforeEach
     void setUp() {
         // Initialize components
         clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
-        AccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository = new InMemoryAccountRepository();
         StatementService statementService = new TextStatementFormatter();
         AccountService accountService = new AccountService(accountRepository);
         applicationService = new AccountApplicationService(accountService, statementService);
@@ -102,4 +115,174 @@ class BankingIntegrationTest {
         assertTrue(exception.getMessage().contains("Failed to deposit") ||
                 exception.getMessage().contains("not found"));
     }
+
+    @Test
+    void shouldStreamStatementIdenticalToGeneratedStatement() {
+        // Given
+        applicationService.deposit(accountId, 1000.0);
+        clock.setFixedDate(LocalDate.of(2025, 5, 20));
+        applicationService.withdraw(accountId, 250.75);
+        String expected = applicationService.getStatement(accountId).formattedStatement();
+
+        // When
+        StringWriter writer = new StringWriter();
+        applicationService.writeStatement(accountId, writer);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        applicationService.writeStatement(accountId, Channels.newChannel(bytes));
+
+        // Then
+        assertEquals(expected, writer.toString());
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldFailToStreamStatementOfNonExistentAccount() {
+        Exception exception = assertThrows(Exception.class,
+                () -> applicationService.writeStatement("non-existent", new StringWriter()));
+
+        assertTrue(exception.getMessage().contains("Failed to write statement"));
+    }
+
+    @Test
+    void shouldPageThroughStatementOfTimeRange() {
+        // Given
+        for (int day = 1; day <= 5; day++) {
+            clock.setFixedDate(LocalDate.of(2025, 6, day));
+            applicationService.deposit(accountId, day * 100.0);
+        }
+        ZonedDateTime from = ZonedDateTime.of(2025, 6, 2, 0, 0, 0, 0, clock.now().getZone());
+        ZonedDateTime to = from.plusDays(3);
+
+        // When
+        StatementPageDto first = applicationService.getStatement(accountId, from, to, 2, null);
+        StatementPageDto second = applicationService.getStatement(accountId, from, to, 2, first.nextCursor());
+
+        // Then
+        assertEquals(2, first.operations().size());
+        assertTrue(first.formattedStatement().contains("04/06/2025"));
+        assertTrue(first.formattedStatement().contains("03/06/2025"));
+        assertEquals(1, second.operations().size());
+        assertTrue(second.formattedStatement().contains("02/06/2025"));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void shouldRejectInvalidStatementCursor() {
+        ZonedDateTime now = clock.now();
+
+        Exception exception = assertThrows(Exception.class,
+                () -> applicationService.getStatement(accountId, now, now, 10, "not-a-cursor"));
+
+        assertTrue(exception.getMessage().contains("Failed to get statement"));
+    }
+
+    @Test
+    void shouldApplyBatchAndReportEachFailureWithoutStopping() {
+        // Given
+        List<AccountCommandDto> commands = List.of(
+                new AccountCommandDto(accountId, "DEPOSIT", 100.0),
+                new AccountCommandDto("unknown", "DEPOSIT", 10.0),
+                new AccountCommandDto(accountId, "WITHDRAWAL", 500.0),
+                new AccountCommandDto(accountId, "REFUND", 10.0),
+                new AccountCommandDto(accountId, "WITHDRAWAL", 40.0));
+
+        // When
+        List<CommandResultDto> results = applicationService.executeBatch(commands);
+
+        // Then
+        assertEquals(List.of(true, false, false, false, true),
+                results.stream().map(CommandResultDto::success).toList());
+        assertEquals("Account not found: unknown", results.get(1).failureReason());
+        assertEquals("Insufficient funds", results.get(2).failureReason());
+        assertTrue(results.get(3).failureReason().contains("REFUND"));
+        assertEquals(commands.get(4), results.get(4).command());
+        assertEquals(60.0, applicationService.getBalance(accountId), 0.001);
+        assertEquals(2, applicationService.getStatement(accountId).operations().size());
+    }
+
+    @Test
+    void shouldReportAmountOutOfRangeWithoutStoppingBatch() {
+        // Given
+        List<AccountCommandDto> commands = List.of(
+                new AccountCommandDto(accountId, "DEPOSIT", 1e30),
+                new AccountCommandDto(accountId, "DEPOSIT", 25.0));
+
+        // When
+        List<CommandResultDto> results = applicationService.executeBatch(commands);
+
+        // Then
+        assertFalse(results.get(0).success());
+        assertTrue(results.get(0).failureReason().startsWith("Invalid command: "));
+        assertTrue(results.get(1).success());
+        assertEquals(25.0, applicationService.getBalance(accountId), 0.001);
+    }
+
+    @Test
+    void shouldApplyStreamOfCommandsInChunks() {
+        // Given
+        List<CommandResultDto> results = new ArrayList<>();
+
+        // When
+        applicationService.executeBatch(IntStream.range(0, 25)
+                .mapToObj(i -> new AccountCommandDto(accountId, "DEPOSIT", 1.0)), 10, results::add);
+
+        // Then
+        assertEquals(25, results.size());
+        assertTrue(results.stream().allMatch(CommandResultDto::success));
+        assertEquals(25.0, applicationService.getBalance(accountId), 0.001);
+    }
+
+    @Test
+    void shouldTransferMoneyBetweenAccounts() {
+        // Given
+        String otherAccountId = "other456";
+        accountRepository.save(new bankkata.domain.model.Account(new AccountId(otherAccountId), clock));
+        applicationService.deposit(accountId, 100.0);
+
+        // When
+        applicationService.transfer(accountId, otherAccountId, 40.0);
+
+        // Then
+        assertEquals(60.0, applicationService.getBalance(accountId), 0.001);
+        assertEquals(40.0, applicationService.getBalance(otherAccountId), 0.001);
+        assertEquals("TRANSFER_IN", applicationService.getStatement(otherAccountId).operations().get(0).type());
+        assertThrows(Exception.class, () -> applicationService.transfer(accountId, "unknown", 1.0));
+        assertEquals(60.0, applicationService.getBalance(accountId), 0.001);
+    }
+
+    @Test
+    void shouldApplyKeyedDepositsAndWithdrawalsOnce() {
+        // When
+        applicationService.deposit(accountId, 100.0, "deposit-1");
+        applicationService.deposit(accountId, 100.0, "deposit-1");
+        applicationService.withdraw(accountId, 30.0, "withdraw-1");
+        applicationService.withdraw(accountId, 30.0, "withdraw-1");
+        Exception first = assertThrows(Exception.class,
+                () -> applicationService.withdraw(accountId, 500.0, "withdraw-2"));
+        applicationService.deposit(accountId, 1000.0);
+        Exception retry = assertThrows(Exception.class,
+                () -> applicationService.withdraw(accountId, 500.0, "withdraw-2"));
+
+        // Then
+        assertEquals(1070.0, applicationService.getBalance(accountId), 0.001);
+        assertEquals(3, applicationService.getStatement(accountId).operations().size());
+        assertSame(first, retry);
+    }
+
+    @Test
+    void shouldReportDailyTotalsAndEndOfDayBalance() {
+        // Given
+        applicationService.deposit(accountId, 100.0);
+        clock.setFixedDate(LocalDate.of(2025, 5, 20));
+        applicationService.withdraw(accountId, 25.5);
+
+        // When
+        List<DailyTotalsDto> totals = applicationService.getDailyTotals(accountId,
+                LocalDate.of(2025, 5, 20), LocalDate.of(2025, 5, 31));
+
+        // Then
+        assertEquals(List.of(new DailyTotalsDto(LocalDate.of(2025, 5, 20), 1, 0.0, 25.5, 74.5)), totals);
+        assertEquals(100.0, applicationService.getBalanceAt(accountId, LocalDate.of(2025, 5, 19)), 0.001);
+        assertThrows(Exception.class, () -> applicationService.getBalanceAt("unknown", LocalDate.of(2025, 5, 19)));
+    }
 }
@@ -0,0 +1,80 @@
+package bankkata.application.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the log-linear Histogram.
+ */
+class HistogramTest {
+
+    @Test
+    void shouldReportValuesWithinOneSixteenthOfTheirMagnitude() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long reported = Histogram.highestValueIn(Histogram.bucketOf(value));
+
+            assertTrue(reported >= value, () -> "value " + value);
+            assertTrue(reported - value <= value / 16, () -> "value " + value);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.highestValueIn(Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void shouldComputePercentilesOfRecordedValues() {
+        // Given
+        Histogram histogram = new Histogram();
+
+        // When
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        // Then
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500.5, snapshot.mean());
+        assertEquals(511, snapshot.p50());
+        assertEquals(927, snapshot.p90());
+        assertEquals(991, snapshot.p99());
+        assertEquals(1023, snapshot.max());
+    }
+
+    @Test
+    void shouldNotLoseValuesRecordedConcurrently() throws InterruptedException {
+        // Given
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i % 100);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(80_000, snapshot.count());
+        assertEquals(49.5, snapshot.mean());
+    }
+
+    @Test
+    void shouldReportEmptySnapshotWhenNothingRecorded() {
+        assertEquals(new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0), new Histogram().snapshot());
+    }
+}
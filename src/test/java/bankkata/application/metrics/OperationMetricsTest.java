@@ -0,0 +1,87 @@
+package bankkata.application.metrics;
+
+import bankkata.application.exception.ApplicationException;
+import bankkata.application.service.AccountApplicationService;
+import bankkata.application.service.StatementCache;
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the operation metrics recorded by the AccountApplicationService.
+ */
+class OperationMetricsTest {
+
+    private final String accountId = "metered";
+    private OperationMetrics metrics;
+    private AccountApplicationService applicationService;
+
+    @BeforeEach
+    void setUp() {
+        AccountRepository repository = new InMemoryAccountRepository();
+        repository.save(new Account(new AccountId(accountId),
+                new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0))));
+        TextStatementFormatter formatter = new TextStatementFormatter();
+        metrics = new OperationMetrics();
+        applicationService = new AccountApplicationService(new AccountService(repository), formatter,
+                new StatementCache(formatter, 0, 0), metrics);
+    }
+
+    @Test
+    void shouldCountSuccessesAndMeasureLatency() {
+        // When
+        applicationService.deposit(accountId, 100.0);
+        applicationService.deposit(accountId, 50.0);
+        applicationService.withdraw(accountId, 30.0);
+        applicationService.getBalance(accountId);
+        applicationService.getStatement(accountId);
+
+        // Then
+        OperationMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, stats(snapshot, MeteredOperation.DEPOSIT).successCount());
+        assertEquals(2, stats(snapshot, MeteredOperation.DEPOSIT).latencyNanos().count());
+        assertEquals(1, stats(snapshot, MeteredOperation.WITHDRAW).successCount());
+        assertEquals(1, stats(snapshot, MeteredOperation.GET_BALANCE).successCount());
+        assertEquals(1, stats(snapshot, MeteredOperation.GET_STATEMENT).successCount());
+        assertEquals(3, snapshot.historySizes().max());
+    }
+
+    @Test
+    void shouldCountFailuresByKind() {
+        // Given
+        applicationService.deposit(accountId, 10.0);
+
+        // When
+        assertThrows(ApplicationException.class, () -> applicationService.deposit("unknown", 10.0));
+        assertThrows(ApplicationException.class, () -> applicationService.getBalance("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> applicationService.withdraw(accountId, 20.0));
+        assertThrows(IllegalArgumentException.class, () -> applicationService.withdraw(accountId, -1.0));
+
+        // Then
+        OperationMetricsSnapshot snapshot = metrics.snapshot();
+        OperationMetricsSnapshot.OperationStats withdraw = stats(snapshot, MeteredOperation.WITHDRAW);
+        assertEquals(1L, stats(snapshot, MeteredOperation.DEPOSIT).failureCounts().get(FailureKind.ACCOUNT_NOT_FOUND));
+        assertEquals(1L, stats(snapshot, MeteredOperation.GET_BALANCE).failureCount());
+        assertEquals(1L, withdraw.failureCounts().get(FailureKind.INSUFFICIENT_FUNDS));
+        assertEquals(1L, withdraw.failureCounts().get(FailureKind.INVALID_AMOUNT));
+        assertEquals(0, withdraw.successCount());
+        assertEquals(2, withdraw.latencyNanos().count());
+    }
+
+    private static OperationMetricsSnapshot.OperationStats stats(OperationMetricsSnapshot snapshot,
+                                                                 MeteredOperation operation) {
+        return snapshot.operations().get(operation);
+    }
+}
@@ -0,0 +1,176 @@
+package bankkata.application.service;
+
+import bankkata.application.exception.ApplicationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the IdempotencyCache.
+ */
+class IdempotencyCacheTest {
+
+    private static final String PARAMETERS = "deposit 1.00 to account";
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void shouldRunCommandOncePerKey() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1), nanoTime::get);
+
+        // When
+        cache.execute("a", PARAMETERS, runs::incrementAndGet);
+        cache.execute("a", PARAMETERS, runs::incrementAndGet);
+        cache.execute("b", PARAMETERS, runs::incrementAndGet);
+
+        // Then
+        assertEquals(2, runs.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void shouldReplayApplicationFailureButRetryOtherFailures() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1), nanoTime::get);
+        ApplicationException failure = new ApplicationException("Insufficient funds");
+
+        // When
+        ApplicationException first = assertThrows(ApplicationException.class,
+                () -> cache.execute("rejected", PARAMETERS, () -> {
+                    runs.incrementAndGet();
+                    throw failure;
+                }));
+        ApplicationException replayed = assertThrows(ApplicationException.class,
+                () -> cache.execute("rejected", PARAMETERS, runs::incrementAndGet));
+        assertThrows(IllegalStateException.class, () -> cache.execute("crashed", PARAMETERS, () -> {
+            throw new IllegalStateException("Unexpected");
+        }));
+        cache.execute("crashed", PARAMETERS, runs::incrementAndGet);
+
+        // Then
+        assertSame(failure, first);
+        assertSame(failure, replayed);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void shouldRejectKeyReusedForAnotherCommand() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1), nanoTime::get);
+        cache.execute("a", PARAMETERS, runs::incrementAndGet);
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> cache.execute("a", "withdraw 1.00 from account", runs::incrementAndGet));
+
+        // Then
+        assertEquals("Idempotency key a was already used for another command", exception.getMessage());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldForgetKeysAfterTimeToLive() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofSeconds(10), nanoTime::get);
+        cache.execute("a", PARAMETERS, runs::incrementAndGet);
+
+        // When
+        nanoTime.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.execute("a", PARAMETERS, runs::incrementAndGet);
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        cache.execute("a", PARAMETERS, runs::incrementAndGet);
+
+        // Then
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void shouldBoundNumberOfRememberedKeys() {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(640, Duration.ofMinutes(1), nanoTime::get);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            cache.execute("key-" + i, PARAMETERS, runs::incrementAndGet);
+        }
+
+        // Then
+        assertEquals(100_000, runs.get());
+        assertTrue(cache.size() <= 640);
+    }
+
+    @Test
+    void shouldRejectFewerEntriesThanStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache(63, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache(64, Duration.ZERO));
+    }
+
+    @Test
+    void shouldNeverHoldMoreKeysThanMaximum() {
+        // Given a maximum that is not a multiple of the stripe count
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1), nanoTime::get);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.execute("key-" + i, PARAMETERS, runs::incrementAndGet);
+        }
+
+        // Then
+        assertTrue(cache.size() <= 100, "size: " + cache.size());
+    }
+
+    @Test
+    void shouldRunConcurrentDuplicatesOnce() throws Exception {
+        // Given
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1));
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    cache.execute("shared", PARAMETERS, () -> {
+                        runs.incrementAndGet();
+                        sleep(50);
+                    });
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(1, runs.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package bankkata.application.service;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.AccountSnapshot;
+import bankkata.domain.model.Money;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for the StatementCache.
+ */
+class StatementCacheTest {
+
+    private final TextStatementFormatter formatter = new TextStatementFormatter();
+    private TestClock clock;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
+        account = new Account(new AccountId("cached"), clock);
+    }
+
+    @Test
+    void shouldReturnCachedStatementWhenNothingChanged() {
+        // Given
+        StatementCache cache = new StatementCache(formatter, 10, 1 << 20);
+        account.deposit(new Money(100.0));
+        String first = cache.getStatement(account.getId(), account.snapshotHistory());
+
+        // When
+        String second = cache.getStatement(account.getId(), account.snapshotHistory());
+
+        // Then
+        assertSame(first, second);
+        assertEquals(new StatementCacheMetrics(1, 0, 1, 0, 1, 2L * first.length()), cache.metrics());
+    }
+
+    @Test
+    void shouldRenderOnlyNewRowsInFrontOfCachedOnes() {
+        // Given
+        StatementCache cache = new StatementCache(formatter, 10, 1 << 20);
+        account.deposit(new Money(100.0));
+        cache.getStatement(account.getId(), account.snapshotHistory());
+        clock.setFixedTime(LocalTime.of(11, 30));
+        account.withdraw(new Money(30.5));
+        account.deposit(new Money(0.01));
+
+        // When
+        String statement = cache.getStatement(account.getId(), account.snapshotHistory());
+
+        // Then
+        assertEquals(formatter.generateStatement(account.getOperations()), statement);
+        assertEquals(1, cache.metrics().extensionCount());
+    }
+
+    @Test
+    void shouldRenderInFullWhenHistoryWasReplaced() {
+        // Given
+        StatementCache cache = new StatementCache(formatter, 10, 1 << 20);
+        account.deposit(new Money(100.0));
+        cache.getStatement(account.getId(), account.snapshotHistory());
+        clock.setFixedDate(LocalDate.of(2025, 5, 20));
+        Account reloaded = Account.restore(account.getId(), clock, List.of());
+        reloaded.deposit(new Money(5.0));
+        reloaded.deposit(new Money(6.0));
+
+        // When
+        String statement = cache.getStatement(reloaded.getId(), reloaded.snapshotHistory());
+
+        // Then
+        assertEquals(formatter.generateStatement(reloaded.getOperations()), statement);
+        assertEquals(2, cache.metrics().missCount());
+    }
+
+    @Test
+    void shouldRenderInFullWhenAccountWasRestoredFromSnapshot() {
+        // Given a cached history and a restored one whose loaded tail ends with the same operation
+        StatementCache cache = new StatementCache(formatter, 10, 1 << 20);
+        account.deposit(new Money(100.0));
+        account.deposit(new Money(20.0));
+        cache.getStatement(account.getId(), account.snapshotHistory());
+        Account restored = Account.restore(account.getId(), clock,
+                new AccountSnapshot(account.getId(), new Money(100.0), 1), List.of(account.getOperations().get(1)));
+        restored.deposit(new Money(1.0));
+
+        // When
+        String statement = cache.getStatement(restored.getId(), restored.snapshotHistory());
+
+        // Then
+        assertEquals(formatter.generateStatement(restored.getOperations()), statement);
+        assertEquals(2, cache.metrics().missCount());
+        assertEquals(0, cache.metrics().extensionCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedStatements() {
+        // Given
+        StatementCache cache = new StatementCache(formatter, 2, 1 << 20);
+        Account second = new Account(new AccountId("second"), clock);
+        Account third = new Account(new AccountId("third"), clock);
+        cache.getStatement(account.getId(), account.snapshotHistory());
+        cache.getStatement(second.getId(), second.snapshotHistory());
+        cache.getStatement(account.getId(), account.snapshotHistory());
+
+        // When
+        cache.getStatement(third.getId(), third.snapshotHistory());
+        cache.getStatement(account.getId(), account.snapshotHistory());
+        cache.getStatement(second.getId(), second.snapshotHistory());
+
+        // Then
+        StatementCacheMetrics metrics = cache.metrics();
+        assertEquals(2, metrics.hitCount());
+        assertEquals(4, metrics.missCount());
+        assertEquals(2, metrics.evictionCount());
+        assertEquals(2, metrics.entryCount());
+    }
+
+    @Test
+    void shouldNotCacheStatementsLargerThanMemoryBound() {
+        // Given
+        StatementCache cache = new StatementCache(formatter, 10, 64);
+        account.deposit(new Money(100.0));
+
+        // When
+        cache.getStatement(account.getId(), account.snapshotHistory());
+        cache.getStatement(account.getId(), account.snapshotHistory());
+
+        // Then
+        assertEquals(new StatementCacheMetrics(0, 0, 2, 0, 0, 0), cache.metrics());
+    }
+}
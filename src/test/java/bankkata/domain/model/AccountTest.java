@@ -4,12 +4,17 @@ import bankkata.infrastructure.clock.TestClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalInt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests for the Account entity.
@@ -52,6 +57,28 @@ class AccountTest {
         assertEquals(new Money(60.0).getAmount(), account.getBalance().getAmount());
     }
 
+    @Test
+    void shouldPublishBalanceViewAfterEachOperation() {
+        // When
+        account.deposit(new Money(100.0));
+        clock.setFixedTime(LocalTime.of(11, 0));
+        account.withdraw(new Money(40.0));
+
+        // Then
+        assertEquals(new BalanceView(6000, 2, clock.now()), account.getBalanceView());
+    }
+
+    @Test
+    void shouldPublishSnapshotBalanceWhenRestoredWithoutTail() {
+        // When
+        Account restored = Account.restore(accountId, clock,
+                new AccountSnapshot(accountId, new Money(12.5), 7), List.of());
+
+        // Then
+        assertEquals(new BalanceView(1250, 7, null), restored.getBalanceView());
+        assertEquals(new Money(12.5), restored.getBalance());
+    }
+
     @Test
     void shouldRecordDepositOperation() {
         // When
@@ -108,4 +135,230 @@ class AccountTest {
         // Then
         assertThrows(IllegalArgumentException.class, () -> account.withdraw(excessiveAmount));
     }
+
+    @Test
+    void shouldFindOperationsWithinTimeRangeNewestPageFirst() {
+        // Given one deposit per day from the 19th to the 28th
+        for (int day = 19; day <= 28; day++) {
+            clock.setFixedDate(LocalDate.of(2025, 5, day));
+            account.deposit(new Money(day));
+        }
+        Instant from = clock.now().withDayOfMonth(21).toInstant();
+        Instant to = clock.now().withDayOfMonth(27).toInstant();
+
+        // When
+        OperationPage newest = account.findOperations(from, to, 4);
+        OperationPage older = account.findOperations(from, to, 4, newest.nextCursor().orElseThrow());
+
+        // Then
+        assertEquals(List.of(23.0, 24.0, 25.0, 26.0), amounts(newest));
+        assertEquals(List.of(21.0, 22.0), amounts(older));
+        assertEquals(OptionalInt.empty(), older.nextCursor());
+    }
+
+    @Test
+    void shouldFindNoOperationsOutsideTimeRange() {
+        // Given
+        account.deposit(new Money(100.0));
+
+        // When
+        OperationPage page = account.findOperations(Instant.EPOCH, Instant.EPOCH.plusSeconds(1), 10);
+
+        // Then
+        assertTrue(page.operations().isEmpty());
+        assertEquals(OptionalInt.empty(), page.nextCursor());
+    }
+
+    @Test
+    void shouldVisitOperationsWithinTimeRangeInOrder() {
+        // Given one deposit per day from the 19th to the 23rd
+        for (int day = 19; day <= 23; day++) {
+            clock.setFixedDate(LocalDate.of(2025, 5, day));
+            account.deposit(new Money(day));
+        }
+        Instant from = clock.now().withDayOfMonth(20).toInstant();
+        Instant to = clock.now().withDayOfMonth(23).toInstant();
+        List<Long> amounts = new ArrayList<>();
+
+        // When
+        account.forEachOperation(from, to, (history, index) -> amounts.add(history.amountCentsAt(index)));
+
+        // Then
+        assertEquals(List.of(2000L, 2100L, 2200L), amounts);
+    }
+
+    @Test
+    void shouldRejectNonPositivePageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> account.findOperations(Instant.EPOCH, Instant.now(), 0));
+    }
+
+    private static List<Double> amounts(OperationPage page) {
+        return page.operations().stream().map(operation -> operation.getAmount().toDouble()).toList();
+    }
+
+    @Test
+    void shouldTransferMoneyBetweenAccounts() {
+        // Given
+        Account target = new Account(new AccountId("target"), clock);
+        account.deposit(new Money(100.0));
+
+        // When
+        Account.transfer(account, target, new Money(30.0));
+
+        // Then
+        assertEquals(new Money(70.0), account.getBalance());
+        assertEquals(new Money(30.0), target.getBalance());
+        Operation out = account.getOperations().get(1);
+        Operation in = target.getOperations().get(0);
+        assertEquals(OperationType.TRANSFER_OUT, out.getType());
+        assertEquals(OperationType.TRANSFER_IN, in.getType());
+        assertEquals(out.getTimestamp(), in.getTimestamp());
+        assertEquals(new Money(30.0), in.getBalanceAfterOperation());
+    }
+
+    @Test
+    void shouldLeaveBothAccountsUnchangedWhenTransferIsRejected() {
+        // Given
+        Account target = new Account(new AccountId("target"), clock);
+        account.deposit(new Money(10.0));
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> Account.transfer(account, target, new Money(30.0)));
+        assertThrows(IllegalArgumentException.class, () -> Account.transfer(account, account, new Money(1.0)));
+
+        // Then
+        assertEquals(new Money(10.0), account.getBalance());
+        assertEquals(1, account.getOperations().size());
+        assertTrue(target.getOperations().isEmpty());
+    }
+
+    @Test
+    void shouldMaintainDailyTotalsAndEndOfDayBalances() {
+        // Given
+        Account other = new Account(new AccountId("other"), clock);
+        account.deposit(new Money(100.0));
+        account.withdraw(new Money(30.0));
+        clock.setFixedDate(LocalDate.of(2025, 5, 21));
+        Account.transfer(account, other, new Money(20.0));
+        account.deposit(new Money(5.0));
+
+        // When
+        List<DailyTotals> totals = account.getDailyTotals(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31));
+
+        // Then
+        assertEquals(List.of(
+                new DailyTotals(LocalDate.of(2025, 5, 19), 2, 10000, 3000, 7000),
+                new DailyTotals(LocalDate.of(2025, 5, 21), 2, 500, 2000, 5500)), totals);
+        assertEquals(List.of(new DailyTotals(LocalDate.of(2025, 5, 21), 1, 2000, 0, 2000)),
+                other.getDailyTotals(LocalDate.of(2025, 5, 21), LocalDate.of(2025, 5, 21)));
+        assertEquals(Money.ZERO, account.getBalanceAt(LocalDate.of(2025, 5, 18)));
+        assertEquals(new Money(70.0), account.getBalanceAt(LocalDate.of(2025, 5, 20)));
+        assertEquals(new Money(55.0), account.getBalanceAt(LocalDate.of(2025, 6, 1)));
+    }
+
+    @Test
+    void shouldAddOperationStampedOnEarlierDayToThatDay() {
+        // Given
+        clock.setFixedDate(LocalDate.of(2025, 5, 22));
+        account.deposit(new Money(10.0));
+        clock.setFixedDate(LocalDate.of(2025, 5, 20));
+
+        // When
+        account.deposit(new Money(1.0));
+
+        // Then
+        assertEquals(List.of(
+                new DailyTotals(LocalDate.of(2025, 5, 20), 1, 100, 0, 1100),
+                new DailyTotals(LocalDate.of(2025, 5, 22), 1, 1000, 0, 1000)),
+                account.getDailyTotals(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31)));
+    }
+
+    @Test
+    void shouldRefuseDailyFiguresThatMayMissOperationsBeforeSnapshot() {
+        // Given
+        Operation tail = new Operation(OperationType.DEPOSIT, clock.now(), new Money(2.5), new Money(15.0));
+
+        // When
+        Account restored = Account.restore(accountId, clock,
+                new AccountSnapshot(accountId, new Money(12.5), 7), List.of(tail));
+        clock.setFixedDate(LocalDate.of(2025, 5, 20));
+        restored.deposit(new Money(1.0));
+
+        // Then the snapshot day and earlier days are not available
+        assertThrows(IllegalArgumentException.class, () -> restored.getBalanceAt(LocalDate.of(2025, 5, 18)));
+        assertThrows(IllegalArgumentException.class,
+                () -> restored.getDailyTotals(LocalDate.of(2025, 5, 19), LocalDate.of(2025, 5, 20)));
+        assertEquals(new Money(15.0), restored.getBalanceAt(LocalDate.of(2025, 5, 19)));
+        assertEquals(new Money(16.0), restored.getBalanceAt(LocalDate.of(2025, 5, 20)));
+        assertEquals(List.of(new DailyTotals(LocalDate.of(2025, 5, 20), 1, 100, 0, 1600)),
+                restored.getDailyTotals(LocalDate.of(2025, 5, 20), LocalDate.of(2025, 5, 20)));
+    }
+
+    @Test
+    void shouldRefuseDailyFiguresOfAccountRestoredWithoutTail() {
+        // When
+        Account restored = Account.restore(accountId, clock,
+                new AccountSnapshot(accountId, new Money(12.5), 7), List.of());
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> restored.getBalanceAt(LocalDate.of(2025, 5, 19)));
+        assertThrows(IllegalArgumentException.class,
+                () -> restored.getDailyTotals(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31)));
+    }
+
+    @Test
+    void shouldLeaveBalanceUnchangedWhenOperationCannotBeStored() {
+        // Given
+        FailingStore store = new FailingStore();
+        Account failing = new Account(accountId, clock, store);
+        failing.deposit(new Money(257.0));
+        store.failing = true;
+
+        // When
+        assertThrows(IllegalStateException.class, () -> failing.deposit(new Money(100.0)));
+        store.failing = false;
+        failing.withdraw(new Money(7.0));
+
+        // Then
+        assertEquals(new Money(250.0), failing.getBalance());
+        assertEquals(2, failing.getOperationCount());
+        assertEquals(new Money(250.0), failing.getOperations().get(1).getBalanceAfterOperation());
+    }
+
+    @Test
+    void shouldReverseTransferOutWhenTransferInCannotBeStored() {
+        // Given
+        FailingStore targetStore = new FailingStore();
+        Account target = new Account(new AccountId("target"), clock, targetStore);
+        account.deposit(new Money(50.0));
+        targetStore.failing = true;
+
+        // When
+        assertThrows(IllegalStateException.class, () -> Account.transfer(account, target, new Money(20.0)));
+
+        // Then
+        assertEquals(new Money(50.0), account.getBalance());
+        assertEquals(Money.ZERO, target.getBalance());
+        List<Operation> operations = account.getOperations();
+        assertEquals(OperationType.TRANSFER_OUT, operations.get(1).getType());
+        assertEquals(OperationType.TRANSFER_IN, operations.get(2).getType());
+        assertEquals(new Money(50.0), operations.get(2).getBalanceAfterOperation());
+    }
+
+    /**
+     * Store refusing appends on demand, as a full or failing store would.
+     */
+    private static final class FailingStore extends ColumnarOperationStore {
+        private boolean failing;
+
+        @Override
+        public void append(OperationType type, long epochMillis, ZoneId zone, long amountCents,
+                           long balanceCents) {
+            if (failing) {
+                throw new IllegalStateException("Store is full");
+            }
+            super.append(type, epochMillis, zone, amountCents, balanceCents);
+        }
+    }
 }
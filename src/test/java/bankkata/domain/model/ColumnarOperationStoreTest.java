@@ -0,0 +1,77 @@
+package bankkata.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the ColumnarOperationStore.
+ */
+class ColumnarOperationStoreTest {
+
+    private static final ZonedDateTime PARIS = ZonedDateTime.of(2025, 5, 19, 10, 0, 0, 123_456_789,
+            ZoneId.of("Europe/Paris"));
+
+    @Test
+    void shouldMaterializeOperationsFromColumns() {
+        // Given
+        ColumnarOperationStore store = new ColumnarOperationStore(1);
+        for (int i = 0; i < 100; i++) {
+            store.append(i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAWAL,
+                    PARIS.plusMinutes(i), 100 + i, 1_000 + i);
+        }
+
+        // When
+        Operation operation = store.get(41);
+
+        // Then
+        assertEquals(100, store.size());
+        assertEquals(OperationType.WITHDRAWAL, operation.getType());
+        assertEquals(PARIS.plusMinutes(41).withNano(123_000_000), operation.getTimestamp());
+        assertEquals(Money.ofCents(141), operation.getAmount());
+        assertEquals(Money.ofCents(1_041), operation.getBalanceAfterOperation());
+        assertEquals(PARIS.plusMinutes(41).toInstant().toEpochMilli(), store.epochMillisAt(41));
+    }
+
+    @Test
+    void shouldKeepZoneOfEachOperation() {
+        // Given
+        ColumnarOperationStore store = new ColumnarOperationStore();
+        ZonedDateTime utc = PARIS.withZoneSameInstant(ZoneId.of("UTC"));
+        store.append(OperationType.DEPOSIT, PARIS, 1, 1);
+        store.append(OperationType.DEPOSIT, utc, 1, 2);
+        store.append(OperationType.DEPOSIT, PARIS, 1, 3);
+
+        // When
+        List<Operation> operations = store.asList();
+
+        // Then
+        assertEquals(PARIS.getZone(), operations.get(0).getTimestamp().getZone());
+        assertEquals(utc.getZone(), operations.get(1).getTimestamp().getZone());
+        assertEquals(PARIS.getZone(), operations.get(2).getTimestamp().getZone());
+        assertThrows(UnsupportedOperationException.class, () -> operations.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(3));
+    }
+
+    @Test
+    void shouldBehaveLikeListStoreInsideAccount() {
+        // Given
+        Account account = new Account(new AccountId("columnar"), () -> PARIS, new ColumnarOperationStore());
+
+        // When
+        account.deposit(new Money(100.0));
+        account.withdraw(new Money(30.0));
+        OperationPage page = account.findOperations(Instant.EPOCH, PARIS.plusDays(1).toInstant(), 10);
+
+        // Then
+        assertEquals(new Money(70.0), account.getBalance());
+        assertEquals(2, page.operations().size());
+        assertEquals(new Money(70.0), account.getOperations().get(1).getBalanceAfterOperation());
+    }
+}
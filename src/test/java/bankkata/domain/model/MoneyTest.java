@@ -0,0 +1,70 @@
+package bankkata.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the Money value object.
+ */
+class MoneyTest {
+
+    @Test
+    void shouldRoundHalfUpToTwoDecimalPlaces() {
+        assertEquals(101L, new Money(1.005).getCents());
+        assertEquals(new BigDecimal("123.46"), new Money(123.456).getAmount());
+        assertEquals(new BigDecimal("123.46"), new Money(new BigDecimal("123.455")).getAmount());
+    }
+
+    @Test
+    void shouldAddAndSubtractInCents() {
+        // Given
+        Money amount = new Money(0.1);
+
+        // When
+        Money result = amount.add(new Money(0.2)).subtract(new Money(0.05));
+
+        // Then
+        assertEquals(Money.ofCents(25), result);
+        assertEquals(0.25, result.toDouble());
+    }
+
+    @Test
+    void shouldBeEqualRegardlessOfInputScale() {
+        assertEquals(new Money(new BigDecimal("10")), new Money(10.0));
+        assertEquals(new Money(new BigDecimal("10")).hashCode(), new Money(10.0).hashCode());
+    }
+
+    @Test
+    void shouldThrowOnOverflow() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+        Money min = Money.ofCents(Long.MIN_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.add(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> min.subtract(Money.ofCents(1)));
+    }
+
+    @Test
+    void shouldCompareAmounts() {
+        assertTrue(new Money(10.0).isGreaterThan(new Money(9.99)));
+        assertFalse(new Money(9.99).isGreaterThan(new Money(9.99)));
+        assertTrue(Money.ZERO.isLessThanOrEqualToZero());
+        assertTrue(new Money(-0.01).isLessThanOrEqualToZero());
+    }
+
+    @Test
+    void shouldReuseZeroInstance() {
+        assertSame(Money.ZERO, Money.ofCents(0));
+    }
+
+    @Test
+    void shouldRenderPlainAmount() {
+        assertEquals("1234.50", new Money(1234.5).toString());
+    }
+}
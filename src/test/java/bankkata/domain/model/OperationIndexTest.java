@@ -0,0 +1,57 @@
+package bankkata.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the OperationIndex.
+ */
+class OperationIndexTest {
+
+    private long[] history = new long[0];
+    private final OperationIndex index = new OperationIndex(position -> history[position]);
+
+    @Test
+    void shouldFindFirstOperationAtOrAfterTimestamp() {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            append(i * 10L);
+        }
+
+        // Then
+        assertEquals(0, index.firstAtOrAfter(-5));
+        assertEquals(5, index.firstAtOrAfter(50));
+        assertEquals(6, index.firstAtOrAfter(51));
+        assertEquals(100, index.firstAtOrAfter(1000));
+        assertEquals(42, index.operationAt(42));
+    }
+
+    @Test
+    void shouldKeepIndexSortedWhenOperationsArriveOutOfOrder() {
+        // Given
+        append(100);
+        append(300);
+        append(200);
+        append(200);
+        append(400);
+
+        // Then
+        assertEquals(5, index.size());
+        assertEquals(0, index.operationAt(0));
+        assertEquals(2, index.operationAt(1));
+        assertEquals(3, index.operationAt(2));
+        assertEquals(1, index.operationAt(3));
+        assertEquals(4, index.operationAt(4));
+        assertEquals(1, index.firstAtOrAfter(200));
+        assertEquals(3, index.firstAtOrAfter(201));
+    }
+
+    private void append(long epochMillis) {
+        history = Arrays.copyOf(history, history.length + 1);
+        history[history.length - 1] = epochMillis;
+        index.add(epochMillis);
+    }
+}
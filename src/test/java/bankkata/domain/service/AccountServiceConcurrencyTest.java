@@ -0,0 +1,396 @@
+package bankkata.domain.service;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.BalanceView;
+import bankkata.domain.model.HistorySnapshot;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationType;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contention stress tests for the AccountService locking.
+ */
+class AccountServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+
+    private TestClock clock;
+    private AccountRepository accountRepository;
+    private AccountService accountService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
+        accountRepository = new InMemoryAccountRepository();
+        // Few stripes so that different accounts are forced to share locks too
+        accountService = new AccountService(accountRepository, 4);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldNotLoseUpdatesWhenDepositingConcurrentlyIntoSameAccount() throws Exception {
+        // Given
+        AccountId accountId = openAccount("hot");
+
+        // When
+        runConcurrently(thread -> accountService.deposit(accountId, new Money(1.0)));
+
+        // Then
+        Account account = accountService.getAccount(accountId);
+        int expectedOperations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(new Money(expectedOperations).getAmount(), account.getBalance().getAmount());
+        assertEquals(expectedOperations, account.getOperations().size());
+        assertRunningBalancesAreConsistent(account);
+    }
+
+    @Test
+    void shouldKeepBalanceConsistentUnderConcurrentDepositsAndWithdrawals() throws Exception {
+        // Given
+        AccountId accountId = openAccount("mixed");
+        accountService.deposit(accountId, new Money(100.0));
+        AtomicInteger rejectedWithdrawals = new AtomicInteger();
+
+        // When
+        runConcurrently(thread -> {
+            if (thread % 2 == 0) {
+                accountService.deposit(accountId, new Money(1.0));
+            } else {
+                try {
+                    accountService.withdraw(accountId, new Money(1.0));
+                } catch (IllegalArgumentException e) {
+                    rejectedWithdrawals.incrementAndGet();
+                }
+            }
+        });
+
+        // Then
+        Account account = accountService.getAccount(accountId);
+        int deposits = THREADS / 2 * OPERATIONS_PER_THREAD;
+        int withdrawals = THREADS / 2 * OPERATIONS_PER_THREAD - rejectedWithdrawals.get();
+        assertEquals(new Money(100.0 + deposits - withdrawals).getAmount(), account.getBalance().getAmount());
+        assertEquals(1 + deposits + withdrawals, account.getOperations().size());
+        assertRunningBalancesAreConsistent(account);
+    }
+
+    @Test
+    void shouldIsolateOperationsOnDifferentAccounts() throws Exception {
+        // Given
+        List<AccountId> accountIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            accountIds.add(openAccount("account-" + i));
+        }
+
+        // When
+        runConcurrently(thread -> accountService.deposit(accountIds.get(thread), new Money(2.5)));
+
+        // Then
+        for (AccountId accountId : accountIds) {
+            Account account = accountService.getAccount(accountId);
+            assertEquals(new Money(2.5 * OPERATIONS_PER_THREAD).getAmount(), account.getBalance().getAmount());
+            assertEquals(OPERATIONS_PER_THREAD, account.getOperations().size());
+        }
+    }
+
+    @Test
+    void shouldConserveMoneyWhenTransferringConcurrentlyInBothDirections() throws Exception {
+        // Given a ring of accounts, transfers run both ways between neighbours
+        List<AccountId> accountIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            AccountId accountId = openAccount("ring-" + i);
+            accountService.deposit(accountId, new Money(50.0));
+            accountIds.add(accountId);
+        }
+        AtomicInteger rejectedTransfers = new AtomicInteger();
+
+        // When
+        runConcurrently(thread -> {
+            AccountId from = accountIds.get(thread);
+            AccountId to = accountIds.get((thread + (thread % 2 == 0 ? 1 : THREADS - 1)) % THREADS);
+            try {
+                accountService.transfer(from, to, new Money(1.0));
+            } catch (IllegalArgumentException e) {
+                rejectedTransfers.incrementAndGet();
+            }
+        });
+
+        // Then
+        BigDecimal total = BigDecimal.ZERO;
+        int operations = 0;
+        for (AccountId accountId : accountIds) {
+            Account account = accountService.getAccount(accountId);
+            total = total.add(account.getBalance().getAmount());
+            operations += account.getOperations().size();
+            assertRunningBalancesAreConsistent(account);
+        }
+        int transfers = THREADS * OPERATIONS_PER_THREAD - rejectedTransfers.get();
+        assertEquals(new Money(50.0 * THREADS).getAmount(), total);
+        assertEquals(THREADS + 2 * transfers, operations);
+    }
+
+    @Test
+    void shouldReadConsistentBalancesWithoutLockingWhileWritersAreActive() throws Exception {
+        // Given
+        AccountId accountId = openAccount("read-hot");
+        int[] lastSeenCounts = new int[THREADS];
+        AtomicInteger inconsistentReads = new AtomicInteger();
+
+        // When half of the threads deposit one cent at a time and the others read
+        runConcurrently(thread -> {
+            if (thread % 2 == 0) {
+                accountService.deposit(accountId, Money.ofCents(1));
+                return;
+            }
+            BalanceView view = accountService.getBalance(accountId);
+            if (view.balanceCents() != view.operationCount() || view.operationCount() < lastSeenCounts[thread]) {
+                inconsistentReads.incrementAndGet();
+            }
+            lastSeenCounts[thread] = view.operationCount();
+        });
+
+        // Then
+        BalanceView view = accountService.getBalance(accountId);
+        assertEquals(0, inconsistentReads.get());
+        assertEquals(THREADS / 2 * OPERATIONS_PER_THREAD, view.operationCount());
+        assertEquals(view.operationCount(), view.balanceCents());
+        assertEquals(clock.now(), view.lastOperationTimestamp());
+    }
+
+    @Test
+    void shouldReadConsistentHistorySnapshotsWhileWritersAreActive() throws Exception {
+        // Given
+        AccountId accountId = openAccount("history-hot");
+        int[] lastSeenSizes = new int[THREADS];
+        AtomicInteger inconsistentReads = new AtomicInteger();
+
+        // When half of the threads deposit one cent at a time and the others snapshot the history
+        runConcurrently(thread -> {
+            if (thread % 2 == 0) {
+                accountService.deposit(accountId, Money.ofCents(1));
+                return;
+            }
+            HistorySnapshot history = accountService.getHistorySnapshot(accountId);
+            int size = history.size();
+            List<Operation> operations = history.asList();
+            for (int i = Math.max(0, size - 10); i < size; i++) {
+                if (operations.get(i).getBalanceAfterOperation().getCents() != i + 1) {
+                    inconsistentReads.incrementAndGet();
+                }
+            }
+            if (size < lastSeenSizes[thread] || operations.size() != size) {
+                inconsistentReads.incrementAndGet();
+            }
+            lastSeenSizes[thread] = size;
+        });
+
+        // Then
+        assertEquals(0, inconsistentReads.get());
+        assertEquals(THREADS / 2 * OPERATIONS_PER_THREAD, accountService.getHistorySnapshot(accountId).size());
+    }
+
+    @Test
+    void shouldSerializeOperationsByHandleAndByIdOnSameAccount() throws Exception {
+        // Given
+        AccountId accountId = openAccount("handled");
+        int handle = accountService.handleOf(accountId);
+
+        // When
+        runConcurrently(thread -> {
+            if (thread % 2 == 0) {
+                accountService.deposit(handle, new Money(1.0));
+            } else {
+                accountService.deposit(accountId, new Money(1.0));
+            }
+        });
+
+        // Then
+        long expectedCents = THREADS * OPERATIONS_PER_THREAD * 100L;
+        assertEquals(expectedCents, accountService.getBalance(handle).balanceCents());
+        assertRunningBalancesAreConsistent(accountService.getAccount(accountId));
+    }
+
+    @Test
+    void shouldKeepLedgerTotalsOfAllOperations() {
+        // Given an account restored with a balance before the service is created
+        AccountId restoredId = new AccountId("restored");
+        accountRepository.save(Account.restore(restoredId, clock,
+                List.of(new Operation(OperationType.DEPOSIT, clock.now(), new Money(30.0), new Money(30.0)))));
+        accountService = new AccountService(accountRepository, 4);
+        AccountId accountId = openAccount("ledger");
+
+        // When
+        accountService.deposit(accountId, new Money(10.0));
+        accountService.withdraw(restoredId, new Money(2.5));
+        accountService.transfer(restoredId, accountId, new Money(1.0));
+        accountService.execute(List.of(
+                AccountCommand.deposit(accountId, new Money(4.0)),
+                AccountCommand.withdrawal(accountId, new Money(1_000.0))));
+
+        // Then
+        LedgerTotals totals = accountService.getLedgerTotals();
+        assertEquals(new Money(41.5), totals.totalBalance());
+        assertEquals(2, totals.operationCount(OperationType.DEPOSIT));
+        assertEquals(1, totals.operationCount(OperationType.WITHDRAWAL));
+        assertEquals(1, totals.operationCount(OperationType.TRANSFER_OUT));
+        assertEquals(1, totals.operationCount(OperationType.TRANSFER_IN));
+        assertEquals(totals, accountService.getConsistentLedgerTotals());
+    }
+
+    @Test
+    void shouldReturnBalanceRightAfterEachConcurrentDeposit() throws Exception {
+        // Given
+        AccountId accountId = openAccount("hot");
+        Set<Long> balances = ConcurrentHashMap.newKeySet();
+
+        // When
+        runConcurrently(thread -> balances.add(
+                accountService.depositAndGetBalance(accountId, Money.ofCents(1)).balanceCents()));
+
+        // Then every deposit saw its own balance, and no later one
+        int expectedOperations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(expectedOperations, balances.size());
+        assertEquals(1L, balances.stream().mapToLong(Long::longValue).min().orElseThrow());
+        assertEquals(expectedOperations, balances.stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    @Test
+    void shouldNotCountOperationsWhoseSaveFailedInLedger() {
+        // Given a repository failing the saves of one account
+        AccountId failing = new AccountId("failing");
+        accountRepository = new InMemoryAccountRepository() {
+            @Override
+            public Account save(Account account) {
+                if (account.getId().equals(failing) && account.getOperationCount() > 0) {
+                    throw new IllegalStateException("save failed");
+                }
+                return super.save(account);
+            }
+        };
+        AccountId accountId = openAccount("saved");
+        openAccount("failing");
+        accountService = new AccountService(accountRepository, 4);
+
+        // When
+        accountService.deposit(accountId, new Money(10.0));
+        assertThrows(IllegalStateException.class, () -> accountService.deposit(failing, new Money(5.0)));
+        assertThrows(IllegalStateException.class,
+                () -> accountService.transfer(accountId, failing, new Money(1.0)));
+        List<CommandResult> results = accountService.execute(List.of(AccountCommand.deposit(failing, new Money(2.0))));
+
+        // Then
+        assertEquals("Account could not be saved: save failed", results.get(0).failureReason());
+        LedgerTotals totals = accountService.getConsistentLedgerTotals();
+        assertEquals(new Money(10.0), totals.totalBalance());
+        assertEquals(1, totals.operationCount(OperationType.DEPOSIT));
+        assertEquals(0, totals.operationCount(OperationType.TRANSFER_IN));
+        assertEquals(0, totals.operationCount(OperationType.TRANSFER_OUT));
+    }
+
+    @Test
+    void shouldReadConsistentLedgerTotalsWhileTransfersAreInFlight() throws Exception {
+        // Given a ring of accounts whose total balance never changes
+        List<AccountId> accountIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            AccountId accountId = openAccount("reconciled-" + i);
+            accountService.deposit(accountId, new Money(50.0));
+            accountIds.add(accountId);
+        }
+        long expectedCents = 50_00L * THREADS;
+        AtomicInteger inconsistentReads = new AtomicInteger();
+
+        // When one thread reconciles while the others transfer
+        runConcurrently(thread -> {
+            if (thread == 0) {
+                LedgerTotals totals = accountService.getConsistentLedgerTotals();
+                if (totals.totalBalanceCents() != expectedCents
+                        || totals.operationCount(OperationType.TRANSFER_IN)
+                        != totals.operationCount(OperationType.TRANSFER_OUT)) {
+                    inconsistentReads.incrementAndGet();
+                }
+                return;
+            }
+            try {
+                accountService.transfer(accountIds.get(thread), accountIds.get((thread + 1) % THREADS),
+                        new Money(1.0));
+            } catch (IllegalArgumentException e) {
+                // Source account drained; the ring keeps moving elsewhere
+            }
+        });
+
+        // Then
+        assertEquals(0, inconsistentReads.get());
+        assertEquals(expectedCents, accountService.getLedgerTotals().totalBalanceCents());
+    }
+
+    private AccountId openAccount(String id) {
+        AccountId accountId = new AccountId(id);
+        accountRepository.save(new Account(accountId, clock));
+        return accountId;
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    task.run(thread);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private void assertRunningBalancesAreConsistent(Account account) {
+        BigDecimal running = BigDecimal.ZERO;
+        for (Operation operation : account.getOperations()) {
+            BigDecimal amount = operation.getAmount().getAmount();
+            running = operation.getType().isCredit() ? running.add(amount) : running.subtract(amount);
+            assertEquals(0, running.compareTo(operation.getBalanceAfterOperation().getAmount()));
+            assertTrue(running.signum() >= 0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
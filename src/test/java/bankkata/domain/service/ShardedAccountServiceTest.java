@@ -0,0 +1,345 @@
+package bankkata.domain.service;
+
+import bankkata.domain.exception.AccountNotFoundException;
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the single-writer-per-shard execution engine.
+ */
+class ShardedAccountServiceTest {
+
+    private final TestClock clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
+
+    @Test
+    void shouldApplyCommandsFromManyThreadsWithoutLosingUpdates() throws Exception {
+        // Given
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountId first = openAccount(repository, "first");
+        AccountId second = openAccount(repository, "second");
+        int threads = 4;
+        int depositsPerThread = 2_000;
+
+        try (ShardedAccountService service = new ShardedAccountService(repository,
+                new ShardConfig(2, 128, ShardConfig.OverflowPolicy.BLOCK))) {
+            // When
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                AccountId target = t % 2 == 0 ? first : second;
+                Thread producer = new Thread(() -> {
+                    for (int i = 0; i < depositsPerThread; i++) {
+                        service.deposit(target, new Money(1.0));
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+        }
+
+        // Then - close drains every queued command
+        int expected = threads / 2 * depositsPerThread;
+        assertEquals(new Money(expected).getAmount(), repository.findById(first).orElseThrow().getBalance().getAmount());
+        assertEquals(new Money(expected).getAmount(), repository.findById(second).orElseThrow().getBalance().getAmount());
+        assertEquals(expected, repository.findById(first).orElseThrow().getOperations().size());
+    }
+
+    @Test
+    void shouldCompleteFutureWithUpdatedAccount() throws Exception {
+        // Given
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountId accountId = openAccount(repository, "account");
+
+        try (ShardedAccountService service = new ShardedAccountService(repository)) {
+            // When
+            service.deposit(accountId, new Money(100.0));
+            Account account = service.withdraw(accountId, new Money(40.0)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(new Money(60.0).getAmount(), account.getBalance().getAmount());
+        }
+    }
+
+    @Test
+    void shouldFailFutureWhenOperationIsInvalid() throws Exception {
+        // Given
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountId accountId = openAccount(repository, "account");
+
+        try (ShardedAccountService service = new ShardedAccountService(repository)) {
+            // When
+            CompletableFuture<Account> overdraft = service.withdraw(accountId, new Money(10.0));
+            CompletableFuture<Account> unknown = service.deposit(new AccountId("missing"), new Money(10.0));
+
+            // Then
+            ExecutionException insufficient = assertThrows(ExecutionException.class,
+                    () -> overdraft.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, insufficient.getCause());
+            ExecutionException notFound = assertThrows(ExecutionException.class,
+                    () -> unknown.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AccountNotFoundException.class, notFound.getCause());
+        }
+    }
+
+    @Test
+    void shouldRejectCommandsWhenShardQueueIsFull() throws Exception {
+        // Given a shard stuck on its first command
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AccountRepository repository = new BlockingRepository(entered, release);
+        AccountId accountId = openAccount(repository, "account");
+
+        try (ShardedAccountService service = new ShardedAccountService(repository,
+                new ShardConfig(1, 2, ShardConfig.OverflowPolicy.REJECT))) {
+            CompletableFuture<Account> inFlight = service.deposit(accountId, new Money(1.0));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // When the queue fills up
+            CompletableFuture<Account> queued1 = service.deposit(accountId, new Money(1.0));
+            CompletableFuture<Account> queued2 = service.deposit(accountId, new Money(1.0));
+            CompletableFuture<Account> rejected = service.deposit(accountId, new Money(1.0));
+
+            // Then
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> rejected.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+
+            release.countDown();
+            assertEquals(new Money(3.0).getAmount(), CompletableFuture.allOf(inFlight, queued1, queued2)
+                    .thenCompose(ignored -> queued2)
+                    .get(5, TimeUnit.SECONDS)
+                    .getBalance().getAmount());
+        }
+    }
+
+    @Test
+    void shouldRejectCommandsAfterClose() throws Exception {
+        // Given
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountId accountId = openAccount(repository, "account");
+        ShardedAccountService service = new ShardedAccountService(repository);
+        service.close();
+
+        // When
+        CompletableFuture<Account> result = service.deposit(accountId, new Money(1.0));
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldApplyBatchGroupedByAccountAcrossShards() throws Exception {
+        // Given
+        AccountRepository repository = new InMemoryAccountRepository();
+        List<AccountId> accounts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            accounts.add(openAccount(repository, "account-" + i));
+        }
+        List<AccountCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            commands.add(AccountCommand.deposit(accounts.get(i % 8), new Money(2.0)));
+        }
+        commands.add(AccountCommand.withdrawal(accounts.get(0), new Money(1000.0)));
+        commands.add(AccountCommand.withdrawal(accounts.get(0), new Money(5.0)));
+
+        try (ShardedAccountService service = new ShardedAccountService(repository,
+                new ShardConfig(3, 16, ShardConfig.OverflowPolicy.BLOCK))) {
+            // When
+            List<CommandResult> results = service.execute(commands).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(82, results.size());
+            assertTrue(results.subList(0, 80).stream().allMatch(CommandResult::succeeded));
+            assertEquals("Insufficient funds", results.get(80).failureReason());
+            assertTrue(results.get(81).succeeded());
+            assertEquals(new Money(15.0), repository.findById(accounts.get(0)).orElseThrow().getBalance());
+            assertEquals(new Money(20.0), repository.findById(accounts.get(7)).orElseThrow().getBalance());
+        }
+    }
+
+    @Test
+    void shouldReportBatchCommandsAsFailedAfterClose() throws Exception {
+        // Given
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountId accountId = openAccount(repository, "account");
+        ShardedAccountService service = new ShardedAccountService(repository);
+        service.close();
+
+        // When
+        List<CommandResult> results = service.execute(List.of(AccountCommand.deposit(accountId, new Money(1.0))))
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("Account service is closed", results.get(0).failureReason());
+    }
+
+    @Test
+    void shouldSettleEveryCommandSubmittedWhileClosing() throws Exception {
+        // Given producers blocked on tiny queues
+        AccountRepository repository = new InMemoryAccountRepository();
+        AccountId accountId = openAccount(repository, "account");
+        ShardedAccountService service = new ShardedAccountService(repository,
+                new ShardConfig(2, 1, ShardConfig.OverflowPolicy.BLOCK));
+        List<CompletableFuture<Account>> futures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                CompletableFuture<Account> future;
+                do {
+                    future = service.deposit(accountId, new Money(1.0));
+                    futures.add(future);
+                } while (!future.isCompletedExceptionally());
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        // When
+        Thread.sleep(20);
+        service.close();
+        for (Thread producer : producers) {
+            producer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // Then every future is settled, and exactly the applied deposits succeeded
+        long succeeded = 0;
+        for (CompletableFuture<Account> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(RejectedExecutionException.class, e.getCause());
+            }
+        }
+        assertEquals(succeeded, repository.findById(accountId).orElseThrow().getOperations().size());
+    }
+
+    @Test
+    void shouldFailFutureAndKeepShardRunningWhenCommandThrowsError() throws Exception {
+        // Given
+        FailingRepository repository = new FailingRepository();
+        AccountId accountId = openAccount(repository, "account");
+        repository.failNextSave = true;
+
+        try (ShardedAccountService service = new ShardedAccountService(repository,
+                new ShardConfig(1, 16, ShardConfig.OverflowPolicy.BLOCK))) {
+            // When
+            CompletableFuture<Account> failed = service.deposit(accountId, new Money(1.0));
+            CompletableFuture<Account> next = service.deposit(accountId, new Money(2.0));
+
+            // Then
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, exception.getCause());
+            assertEquals(new Money(3.0), next.get(5, TimeUnit.SECONDS).getBalance());
+        }
+    }
+
+    @Test
+    void shouldReportBatchCommandsOfAccountThatCannotBeSavedAsFailed() throws Exception {
+        // Given
+        FailingRepository repository = new FailingRepository();
+        AccountId first = openAccount(repository, "first");
+        AccountId broken = openAccount(repository, "broken");
+        AccountId last = openAccount(repository, "last");
+        repository.unsavable = broken;
+        List<AccountCommand> commands = List.of(
+                AccountCommand.deposit(first, new Money(1.0)),
+                AccountCommand.deposit(broken, new Money(2.0)),
+                AccountCommand.withdrawal(broken, new Money(5.0)),
+                AccountCommand.deposit(last, new Money(3.0)));
+
+        try (ShardedAccountService service = new ShardedAccountService(repository,
+                new ShardConfig(1, 16, ShardConfig.OverflowPolicy.BLOCK))) {
+            // When
+            List<CommandResult> results = service.execute(commands).get(5, TimeUnit.SECONDS);
+
+            // Then the other groups still report their results
+            assertTrue(results.get(0).succeeded());
+            assertEquals("Account could not be saved: disk full", results.get(1).failureReason());
+            assertEquals("Insufficient funds", results.get(2).failureReason());
+            assertTrue(results.get(3).succeeded());
+            assertEquals(new Money(3.0), repository.findById(last).orElseThrow().getBalance());
+        }
+    }
+
+    private AccountId openAccount(AccountRepository repository, String id) {
+        AccountId accountId = new AccountId(id);
+        repository.save(new Account(accountId, clock));
+        return accountId;
+    }
+
+    /**
+     * Repository whose next save can be made to throw an error, and whose
+     * saves of one account can be made to fail.
+     */
+    private static final class FailingRepository extends InMemoryAccountRepository {
+        private volatile boolean failNextSave;
+        private volatile AccountId unsavable;
+
+        @Override
+        public Account save(Account account) {
+            if (account.getId().equals(unsavable)) {
+                throw new UncheckedIOException("disk full", new IOException());
+            }
+            if (failNextSave) {
+                failNextSave = false;
+                throw new StackOverflowError("save failed");
+            }
+            return super.save(account);
+        }
+    }
+
+    /**
+     * Repository whose first lookup blocks until released, to keep a shard busy.
+     */
+    private static final class BlockingRepository extends InMemoryAccountRepository {
+        private final CountDownLatch entered;
+        private final CountDownLatch release;
+
+        private BlockingRepository(CountDownLatch entered, CountDownLatch release) {
+            this.entered = entered;
+            this.release = release;
+        }
+
+        @Override
+        public Optional<Account> findById(AccountId accountId) {
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.findById(accountId);
+        }
+    }
+}
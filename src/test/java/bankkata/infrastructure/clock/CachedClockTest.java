@@ -0,0 +1,82 @@
+package bankkata.infrastructure.clock;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.ColumnarOperationStore;
+import bankkata.domain.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the CachedClock.
+ */
+class CachedClockTest {
+
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+
+    @Test
+    void shouldReadSystemTimeInCachedZone() {
+        // Given
+        CachedClock clock = CachedClock.precise(PARIS);
+
+        // When
+        long before = System.currentTimeMillis();
+        long epochMillis = clock.epochMillis();
+        long after = System.currentTimeMillis();
+
+        // Then
+        assertTrue(before <= epochMillis && epochMillis <= after);
+        assertSame(PARIS, clock.zone());
+        assertEquals(PARIS, clock.now().getZone());
+    }
+
+    @Test
+    void shouldAdvanceCoarseTimeWithTicker() throws Exception {
+        try (CachedClock clock = CachedClock.coarse(Duration.ofMillis(1), PARIS)) {
+            // Given
+            long start = clock.epochMillis();
+
+            // When
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (clock.epochMillis() < start + 20 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            // Then
+            assertTrue(clock.epochMillis() >= start + 20);
+            assertTrue(clock.epochMillis() <= System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void shouldRejectNonPositiveResolution() {
+        assertThrows(IllegalArgumentException.class, () -> CachedClock.coarse(Duration.ZERO));
+    }
+
+    @Test
+    void shouldStampOperationsWithClockTimeAndZone() {
+        // Given
+        CachedClock clock = CachedClock.precise(PARIS);
+        Account account = new Account(new AccountId("stamped"), clock, new ColumnarOperationStore(4));
+
+        // When
+        long before = clock.epochMillis();
+        account.deposit(new Money(10.0));
+        long after = clock.epochMillis();
+
+        // Then
+        long stamped = account.getOperationHistory().epochMillisAt(0);
+        assertTrue(before <= stamped && stamped <= after);
+        assertEquals(Instant.ofEpochMilli(stamped).atZone(PARIS), account.getOperations().get(0).getTimestamp());
+        assertEquals(account.getOperations().get(0).getTimestamp(),
+                account.getBalanceView().lastOperationTimestamp());
+    }
+}
@@ -0,0 +1,163 @@
+package bankkata.infrastructure.export;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.OperationHistory;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the StatementExporter.
+ */
+class StatementExporterTest {
+
+    private final TestClock clock = new TestClock(LocalDate.of(2025, 5, 31), LocalTime.of(23, 0));
+    private final TextStatementFormatter formatter = new TextStatementFormatter();
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository();
+    private final AccountService accountService = new AccountService(repository);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldWriteStatementOfEveryAccountAcrossShards() throws IOException {
+        // Given
+        int accountCount = 2_000;
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < accountCount; i++) {
+            Account account = new Account(new AccountId("account-" + i), clock);
+            for (int j = 0; j <= i % 5; j++) {
+                account.deposit(new Money(10.0 + j));
+            }
+            repository.save(account);
+            expected.put(account.getId().value(), formatter.generateStatement(account.getOperations()));
+        }
+        List<StatementExportProgress> reports = new ArrayList<>();
+        StatementExporter exporter = new StatementExporter(accountService, formatter, 4, Duration.ofMillis(1));
+
+        // When
+        StatementExportReport report = exporter.export(directory, reports::add);
+
+        // Then
+        assertEquals(4, report.files().size());
+        assertEquals(accountCount, report.totals().accountCount());
+        assertEquals(report.totals(), reports.get(reports.size() - 1));
+        long fileBytes = 0;
+        Map<String, String> exported = new HashMap<>();
+        for (Path file : report.files()) {
+            fileBytes += Files.size(file);
+            exported.putAll(parse(Files.readString(file)));
+        }
+        assertEquals(fileBytes, report.totals().byteCount());
+        assertEquals(expected, exported);
+    }
+
+    @Test
+    void shouldWriteEmptyShardsForEmptyRepository() throws IOException {
+        // When
+        StatementExportReport report = new StatementExporter(accountService, formatter, 2).export(directory, p -> { });
+
+        // Then
+        assertEquals(0, report.totals().accountCount());
+        for (Path file : report.files()) {
+            assertEquals(0, Files.size(file));
+        }
+    }
+
+    @Test
+    void shouldFailWhenShardFileCannotBeWritten() throws IOException {
+        // Given
+        for (int i = 0; i < 1_000; i++) {
+            repository.save(new Account(new AccountId("account-" + i), clock));
+        }
+        Files.createDirectory(directory.resolve("statements-000.txt"));
+        StatementExporter exporter = new StatementExporter(accountService, formatter, 2);
+
+        // Then
+        assertThrows(IOException.class, () -> exporter.export(directory, p -> { }));
+    }
+
+    @Test
+    void shouldFailWhenWorkerThrowsError() {
+        // Given
+        for (int i = 0; i < 1_000; i++) {
+            repository.save(new Account(new AccountId("account-" + i), clock));
+        }
+        TextStatementFormatter failingFormatter = new TextStatementFormatter() {
+            @Override
+            public void writeStatement(OperationHistory history, Writer writer) {
+                throw new StackOverflowError();
+            }
+        };
+        StatementExporter exporter = new StatementExporter(accountService, failingFormatter, 2);
+
+        // Then
+        assertThrows(StackOverflowError.class, () -> exporter.export(directory, p -> { }));
+    }
+
+    @Test
+    void shouldDeleteShardsOfExportWithHigherParallelism() throws IOException {
+        // Given
+        repository.save(new Account(new AccountId("account-1"), clock));
+        new StatementExporter(accountService, formatter, 4).export(directory, p -> { });
+        Files.writeString(directory.resolve("statements-notes.txt"), "kept");
+
+        // When
+        StatementExportReport report = new StatementExporter(accountService, formatter, 2).export(directory, p -> { });
+
+        // Then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(Set.of("statements-000.txt", "statements-001.txt", "statements-notes.txt"),
+                    files.map(file -> file.getFileName().toString()).collect(Collectors.toSet()));
+        }
+        assertEquals(2, report.files().size());
+    }
+
+    @Test
+    void shouldReportThroughput() {
+        // Given
+        StatementExportProgress progress = new StatementExportProgress(500, 2_000, 250_000_000);
+
+        // Then
+        assertEquals(2_000.0, progress.accountsPerSecond(), 1e-9);
+        assertEquals(8_000.0, progress.bytesPerSecond(), 1e-9);
+        assertEquals(0.0, new StatementExportProgress(0, 0, 0).accountsPerSecond());
+    }
+
+    private static Map<String, String> parse(String shard) {
+        String separator = System.lineSeparator();
+        Map<String, String> statements = new HashMap<>();
+        for (String block : shard.split(separator + separator)) {
+            if (block.isEmpty()) {
+                continue;
+            }
+            int headerEnd = block.indexOf(separator);
+            statements.put(block.substring("Account: ".length(), headerEnd),
+                    block.substring(headerEnd + separator.length()) + separator);
+        }
+        return statements;
+    }
+}
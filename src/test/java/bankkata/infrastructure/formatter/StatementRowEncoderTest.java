@@ -0,0 +1,114 @@
+package bankkata.infrastructure.formatter;
+
+import bankkata.domain.model.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the StatementRowEncoder matches the String.format based rendering.
+ */
+class StatementRowEncoderTest {
+
+    private static final ZonedDateTime TIMESTAMP =
+            ZonedDateTime.of(2025, 5, 9, 7, 3, 9, 0, ZoneId.of("Europe/Paris"));
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 9, 10, 99, 100, 101, 12345, 100000000, 999999999, 1000000000,
+            -1, -99, -100, -12345, -999999999, Long.MAX_VALUE, Long.MIN_VALUE + 1})
+    void shouldEncodeAmountsLikeStringFormat(long cents) {
+        assertEncodedLikeReference(Locale.US, OperationType.DEPOSIT, TIMESTAMP, cents, -cents);
+    }
+
+    @Test
+    void shouldEncodeEveryOperationTypeLikeStringFormat() {
+        for (OperationType type : OperationType.values()) {
+            assertEncodedLikeReference(Locale.US, type, TIMESTAMP, 5000, 12050);
+        }
+    }
+
+    @Test
+    void shouldEncodeDatesAndTimesLikeStringFormat() {
+        ZonedDateTime timestamp = ZonedDateTime.of(999, 12, 31, 23, 59, 59, 999_999_999, ZoneId.of("UTC"));
+        for (int i = 0; i < 1000; i++) {
+            assertEncodedLikeReference(Locale.US, OperationType.WITHDRAWAL, timestamp, 1, 2);
+            timestamp = timestamp.plusDays(367).plusHours(5).plusMinutes(7).plusSeconds(11);
+        }
+    }
+
+    @Test
+    void shouldUseLocaleDecimalSeparator() {
+        assertEncodedLikeReference(Locale.GERMANY, OperationType.DEPOSIT, TIMESTAMP, 123456, -7);
+    }
+
+    @Test
+    void shouldEncodeEpochMillisLikeZonedDateTime() {
+        StatementRowEncoder encoder = new StatementRowEncoder(Locale.US);
+        Random random = new Random(42);
+        ZoneId[] zones = {ZoneId.of("UTC"), ZoneId.of("Europe/Paris"), ZoneId.of("America/St_Johns"),
+                ZoneId.of("+05:45"), ZoneId.of("Pacific/Kiritimati")};
+        for (int i = 0; i < 100_000; i++) {
+            // Years 1 to 9999, crossing daylight saving transitions and leap days
+            long epochMillis = -62_135_596_800_000L + (long) (random.nextDouble() * 315_537_897_599_000L);
+            ZoneId zone = zones[i % zones.length];
+            ZonedDateTime timestamp = Instant.ofEpochMilli(epochMillis).atZone(zone);
+            if (timestamp.getYear() < 1 || timestamp.getYear() > 9999) {
+                assertEquals(-1, encoder.tryEncode(OperationType.DEPOSIT, epochMillis, zone, 1, 2));
+                continue;
+            }
+
+            int length = encoder.tryEncode(OperationType.DEPOSIT, epochMillis, zone, 1, 2);
+
+            assertEquals(reference(Locale.US, OperationType.DEPOSIT, timestamp, 1, 2),
+                    new String(encoder.buffer(), 0, length), timestamp::toString);
+        }
+    }
+
+    @Test
+    void shouldNotEncodeRowsOutsideFastPath() {
+        StatementRowEncoder encoder = new StatementRowEncoder(Locale.US);
+        long year10000 = ZonedDateTime.of(10000, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC")).toInstant().toEpochMilli();
+        StatementRowEncoder thaiDigits = new StatementRowEncoder(Locale.forLanguageTag("th-TH-u-nu-thai"));
+
+        assertEquals(-1, encoder.tryEncode(OperationType.DEPOSIT, year10000, ZoneId.of("UTC"), 1, 1));
+        assertEquals(-1, encoder.tryEncode(OperationType.DEPOSIT, 0, ZoneId.of("UTC"), Long.MIN_VALUE, 1));
+        assertEquals(-1, encoder.tryEncode(OperationType.DEPOSIT, 0, ZoneId.of("UTC"), 1, Long.MIN_VALUE));
+        assertEquals(-1, thaiDigits.tryEncode(OperationType.DEPOSIT, 0, ZoneId.of("UTC"), 1, 1));
+        assertTrue(encoder.tryEncode(OperationType.DEPOSIT, year10000 - 1, ZoneId.of("UTC"), 1, 1) > 0);
+    }
+
+    private static void assertEncodedLikeReference(Locale locale, OperationType type, ZonedDateTime timestamp,
+                                                   long amountCents, long balanceCents) {
+        StatementRowEncoder encoder = new StatementRowEncoder(locale);
+
+        int length = encoder.tryEncode(type, timestamp.toInstant().toEpochMilli(), timestamp.getZone(),
+                amountCents, balanceCents);
+
+        assertEquals(reference(locale, type, timestamp, amountCents, balanceCents),
+                new String(encoder.buffer(), 0, length));
+    }
+
+    /**
+     * Renders a row the way the formatter did before the encoder existed.
+     */
+    private static String reference(Locale locale, OperationType type, ZonedDateTime timestamp,
+                                    long amountCents, long balanceCents) {
+        return String.format(locale, "| %9s | %10s | %10s | %10s | %10s |",
+                type,
+                timestamp.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                timestamp.format(DateTimeFormatter.ofPattern("HH:mm:ss")),
+                String.format(locale, "%.2f", BigDecimal.valueOf(amountCents, 2)),
+                String.format(locale, "%.2f", BigDecimal.valueOf(balanceCents, 2)));
+    }
+}
@@ -1,5 +1,8 @@
 package bankkata.infrastructure.formatter;
 
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.ColumnarOperationStore;
 import bankkata.domain.model.Money;
 import bankkata.domain.model.Operation;
 import bankkata.domain.model.OperationType;
@@ -7,11 +10,16 @@ import bankkata.infrastructure.clock.TestClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.DecimalFormatSymbols;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -83,4 +91,71 @@ class TextStatementFormatterTest {
         assertTrue(lines[4].contains("DEPOSIT"));
         assertTrue(lines[4].contains("19/05/2025"));
     }
+
+    @Test
+    void shouldWriteSameStatementAsGenerated() throws IOException {
+        // Given
+        Operation deposit = new Operation(OperationType.DEPOSIT, clock.now(), new Money(100.0), new Money(100.0));
+        clock.setFixedTime(LocalTime.of(11, 30, 15));
+        Operation withdrawal = new Operation(OperationType.WITHDRAWAL, clock.now(), new Money(30.5), new Money(69.5));
+        List<Operation> operations = List.of(deposit, withdrawal);
+        StringWriter writer = new StringWriter();
+
+        // When
+        formatter.writeStatement(operations, writer);
+
+        // Then
+        assertEquals(formatter.generateStatement(operations), writer.toString());
+    }
+
+    @Test
+    void shouldWriteSameStatementFromOperationHistory() throws IOException {
+        // Given
+        Account account = new Account(new AccountId("history"), clock, new ColumnarOperationStore());
+        account.deposit(new Money(100.0));
+        clock.setFixedDate(LocalDate.of(2025, 12, 31));
+        clock.setFixedTime(LocalTime.of(23, 59, 59));
+        account.withdraw(new Money(30.5));
+        account.deposit(new Money(0.01));
+        StringWriter writer = new StringWriter();
+
+        // When
+        formatter.writeStatement(account.getOperationHistory(), writer);
+
+        // Then
+        assertEquals(formatter.generateStatement(account.getOperations()), writer.toString());
+    }
+
+    @Test
+    void shouldRenderStatementExactlyLikeBaselineLayout() throws IOException {
+        // Given
+        Account account = new Account(new AccountId("baseline"), clock);
+        account.deposit(new Money(100.0));
+        clock.setFixedTime(LocalTime.of(10, 30, 5));
+        account.withdraw(new Money(10.5));
+        List<Operation> operations = List.of(
+                account.getOperations().get(0),
+                account.getOperations().get(1),
+                new Operation(OperationType.TRANSFER_OUT, clock.now(), new Money(20.0), new Money(69.5)),
+                new Operation(OperationType.TRANSFER_IN, clock.now(), new Money(1234567.89), new Money(1234637.39)));
+        String separator = System.lineSeparator();
+        String expected = String.join(separator,
+                "| OPERATION | DATE | TIME | AMOUNT | BALANCE |",
+                "|-----------|------------|------------|------------|------------|",
+                "| TRANSFER_IN | 19/05/2025 |   10:30:05 | 1234567.89 | 1234637.39 |",
+                "| TRANSFER_OUT | 19/05/2025 |   10:30:05 |      20.00 |      69.50 |",
+                "| WITHDRAWAL | 19/05/2025 |   10:30:05 |      10.50 |      89.50 |",
+                "|   DEPOSIT | 19/05/2025 |   10:00:00 |     100.00 |     100.00 |",
+                "").replace('.', DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT))
+                .getDecimalSeparator());
+        StringWriter writer = new StringWriter();
+
+        // When
+        String statement = formatter.generateStatement(operations);
+        formatter.writeStatement(operations, writer);
+
+        // Then
+        assertEquals(expected, statement);
+        assertEquals(expected, writer.toString());
+    }
 }
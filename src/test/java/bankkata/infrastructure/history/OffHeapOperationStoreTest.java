@@ -0,0 +1,117 @@
+package bankkata.infrastructure.history;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.ColumnarOperationStore;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationStore;
+import bankkata.domain.model.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the off-heap operation store.
+ */
+class OffHeapOperationStoreTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2025, 5, 19, 10, 0, 0, 0, ZoneId.of("Europe/Paris"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldStoreOperationsAcrossGrowingAndFixedBlocks() {
+        try (OffHeapArena arena = OffHeapArena.direct(256 * 1024)) {
+            assertStoresLikeColumnarStore(new OffHeapOperationStore(arena), 20_000);
+        }
+    }
+
+    @Test
+    void shouldStoreOperationsInMappedFilesAndDeleteThemOnClose() throws Exception {
+        OffHeapArena arena = OffHeapArena.mapped(directory, 256 * 1024);
+        assertStoresLikeColumnarStore(new OffHeapOperationStore(arena), 20_000);
+
+        arena.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldShareArenaBetweenAccounts() {
+        try (OffHeapArena arena = OffHeapArena.direct(64 * 1024)) {
+            // Given
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                accounts.add(new Account(new AccountId("account-" + i), () -> START, new OffHeapOperationStore(arena)));
+            }
+
+            // When
+            for (int round = 1; round <= 50; round++) {
+                for (Account account : accounts) {
+                    account.deposit(Money.ofCents(round));
+                }
+            }
+
+            // Then
+            for (Account account : accounts) {
+                assertEquals(Money.ofCents(50 * 51 / 2), account.getBalance());
+                assertEquals(Money.ofCents(50 * 51 / 2), account.getOperations().get(49).getBalanceAfterOperation());
+            }
+            assertEquals(100L * (16 + 32 + 64) * OffHeapOperationStore.RECORD_SIZE, arena.allocatedBytes());
+        }
+    }
+
+    @Test
+    void shouldRejectReadsOutsideHistory() {
+        try (OffHeapArena arena = OffHeapArena.direct(1024)) {
+            OffHeapOperationStore store = new OffHeapOperationStore(arena);
+            store.append(OperationType.DEPOSIT, START, 1, 1);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> store.epochMillisAt(1));
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(2048));
+        }
+    }
+
+    private static void assertStoresLikeColumnarStore(OperationStore store, int count) {
+        // Given
+        ColumnarOperationStore expected = new ColumnarOperationStore();
+        ZoneId utc = ZoneId.of("UTC");
+        for (int i = 0; i < count; i++) {
+            OperationType type = OperationType.values()[i % OperationType.values().length];
+            ZonedDateTime timestamp = START.plusSeconds(i * 37L).plusNanos(i * 1_000_000L);
+            if (i % 1000 == 999) {
+                timestamp = timestamp.withZoneSameInstant(utc);
+            }
+            store.append(type, timestamp, i, -i * 3L);
+            expected.append(type, timestamp, i, -i * 3L);
+        }
+
+        // Then
+        assertEquals(count, store.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.typeAt(i), store.typeAt(i));
+            assertEquals(expected.epochMillisAt(i), store.epochMillisAt(i));
+            assertEquals(expected.zoneAt(i), store.zoneAt(i));
+            assertEquals(expected.amountCentsAt(i), store.amountCentsAt(i));
+            assertEquals(expected.balanceCentsAt(i), store.balanceCentsAt(i));
+        }
+        Operation last = store.get(count - 1);
+        assertEquals(Instant.ofEpochMilli(expected.epochMillisAt(count - 1)), last.getTimestamp().toInstant());
+        assertEquals(Money.ofCents(count - 1), last.getAmount());
+    }
+}
@@ -0,0 +1,155 @@
+package bankkata.infrastructure.history;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.ColumnarOperationStore;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationType;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the tiered operation store.
+ */
+class TieredOperationStoreTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2025, 5, 19, 10, 0, 0, 0, ZoneId.of("Europe/Paris"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadSpilledAndHotOperationsLikeColumnarStore() {
+        // Given a read-ahead window smaller than two segments
+        try (HistorySegmentFile segmentFile = HistorySegmentFile.create(directory, 10_000)) {
+            TieredOperationStore store = new TieredOperationStore(segmentFile, 1000, 256);
+            ColumnarOperationStore expected = new ColumnarOperationStore();
+            ZoneId utc = ZoneId.of("UTC");
+
+            // When
+            for (int i = 0; i < 20_000; i++) {
+                OperationType type = OperationType.values()[i % OperationType.values().length];
+                ZonedDateTime timestamp = START.plusSeconds(i * 37L).plusNanos(i * 1_000_000L);
+                if (i % 1000 == 999) {
+                    timestamp = timestamp.withZoneSameInstant(utc);
+                }
+                store.append(type, timestamp, i, -i * 3L);
+                expected.append(type, timestamp, i, -i * 3L);
+            }
+
+            // Then
+            assertEquals(20_000, store.size());
+            assertEquals(18_944, store.coldSize());
+            assertEquals(18_944L * OffHeapOperationStore.RECORD_SIZE, segmentFile.sizeBytes());
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals(expected.typeAt(i), store.typeAt(i));
+                assertEquals(expected.epochMillisAt(i), store.epochMillisAt(i));
+                assertEquals(expected.zoneAt(i), store.zoneAt(i));
+                assertEquals(expected.amountCentsAt(i), store.amountCentsAt(i));
+                assertEquals(expected.balanceCentsAt(i), store.balanceCentsAt(i));
+            }
+            // Backwards too, as statements may be rendered newest first
+            for (int i = 19_999; i >= 0; i -= 7) {
+                assertEquals(expected.balanceCentsAt(i), store.balanceCentsAt(i));
+            }
+            Operation first = store.get(0);
+            assertEquals(Instant.ofEpochMilli(expected.epochMillisAt(0)), first.getTimestamp().toInstant());
+            assertEquals(Money.ZERO, first.getAmount());
+        }
+    }
+
+    @Test
+    void shouldServeNewestFirstScansFromReadAheadWindow() {
+        // Given 100 spilled segments of 1664 bytes and a window of 64 KiB
+        try (HistorySegmentFile segmentFile = HistorySegmentFile.create(directory, 64 * 1024)) {
+            TieredOperationStore store = new TieredOperationStore(segmentFile, 16, 64);
+            for (int i = 0; i < 6_480; i++) {
+                store.append(OperationType.DEPOSIT, START, 1, i + 1);
+            }
+
+            // When a statement reads the cold history newest first
+            for (int i = store.coldSize() - 1; i >= 0; i--) {
+                assertEquals(i + 1, store.balanceCentsAt(i));
+            }
+
+            // Then each window fill serves the following segments too
+            assertEquals(6_400, store.coldSize());
+            assertTrue(segmentFile.windowFills() <= 8, "window fills: " + segmentFile.windowFills());
+        }
+    }
+
+    @Test
+    void shouldServeFullHistoryOfAccountsSharingSegmentFile() {
+        try (HistorySegmentFile segmentFile = HistorySegmentFile.create(directory)) {
+            // Given
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                accounts.add(new Account(new AccountId("account-" + i), () -> START,
+                        new TieredOperationStore(segmentFile, 8, 16)));
+            }
+
+            // When the accounts spill their segments in turn
+            for (int round = 1; round <= 100; round++) {
+                for (Account account : accounts) {
+                    account.deposit(Money.ofCents(round));
+                }
+            }
+
+            // Then
+            TextStatementFormatter formatter = new TextStatementFormatter();
+            for (Account account : accounts) {
+                List<Operation> operations = account.getOperations();
+                assertEquals(100, operations.size());
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(Money.ofCents((i + 1) * (i + 2) / 2), operations.get(i).getBalanceAfterOperation());
+                }
+                assertEquals(formatter.generateStatement(List.copyOf(operations)),
+                        formatter.generateStatement(account.getOperationHistory(), 100));
+            }
+            assertEquals(10L * 80 * OffHeapOperationStore.RECORD_SIZE, segmentFile.sizeBytes());
+        }
+    }
+
+    @Test
+    void shouldDeleteSegmentFileOnClose() throws Exception {
+        HistorySegmentFile segmentFile = HistorySegmentFile.create(directory);
+        TieredOperationStore store = new TieredOperationStore(segmentFile, 1, 1);
+        store.append(OperationType.DEPOSIT, START, 1, 1);
+        store.append(OperationType.DEPOSIT, START, 1, 2);
+        store.append(OperationType.DEPOSIT, START, 1, 3);
+
+        segmentFile.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidSizesAndReadsOutsideHistory() {
+        try (HistorySegmentFile segmentFile = HistorySegmentFile.create(directory)) {
+            TieredOperationStore store = new TieredOperationStore(segmentFile, 4);
+            store.append(OperationType.DEPOSIT, START, 1, 1);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> store.epochMillisAt(1));
+            assertThrows(IllegalArgumentException.class, () -> new TieredOperationStore(segmentFile, 0));
+            assertThrows(IllegalArgumentException.class, () -> new TieredOperationStore(segmentFile, 4, 0));
+            assertThrows(IllegalArgumentException.class, () -> HistorySegmentFile.create(directory, 0));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package bankkata.infrastructure.http;
+
+import bankkata.application.service.AccountApplicationService;
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.formatter.TextStatementFormatter;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the AccountHttpServer over a real socket.
+ */
+class AccountHttpServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private AccountApplicationService applicationService;
+    private AccountHttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        repository.save(new Account(new AccountId("alice"),
+                new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0))));
+        applicationService = new AccountApplicationService(new AccountService(repository),
+                new TextStatementFormatter());
+        server = AccountHttpServer.start(applicationService, new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldDepositWithdrawAndReadBalanceAndStatement() throws Exception {
+        // When
+        HttpResponse<String> deposit = send("POST", "/accounts/alice/deposit?amount=100.50");
+        HttpResponse<String> withdraw = send("POST", "/accounts/alice/withdraw?amount=0.50");
+        HttpResponse<String> balance = send("GET", "/accounts/alice/balance");
+        HttpResponse<String> statement = send("GET", "/accounts/alice/statement");
+
+        // Then
+        assertEquals(200, deposit.statusCode());
+        assertEquals(200, withdraw.statusCode());
+        assertEquals("100.00", balance.body());
+        assertEquals(applicationService.getStatement("alice").formattedStatement(), statement.body());
+    }
+
+    @Test
+    void shouldMapFailuresToStatusCodes() throws Exception {
+        assertEquals(404, send("GET", "/accounts/bob/balance").statusCode());
+        assertEquals(409, send("POST", "/accounts/alice/withdraw?amount=1").statusCode());
+        assertEquals(400, send("POST", "/accounts/alice/deposit?amount=-1").statusCode());
+        assertEquals(400, send("POST", "/accounts/alice/deposit").statusCode());
+        assertEquals(405, send("GET", "/accounts/alice/deposit?amount=1").statusCode());
+        assertEquals(404, send("GET", "/accounts/alice/unknown").statusCode());
+    }
+
+    @Test
+    void shouldServeConcurrentRequests() throws Exception {
+        // When
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(request("POST", "/accounts/alice/deposit?amount=1"),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // Then
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+        assertEquals(200.0, applicationService.getBalance("alice"));
+        assertTrue(send("GET", "/accounts/alice/statement").body().contains("DEPOSIT"));
+    }
+
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        return client.send(request(method, path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path) {
+        URI uri = URI.create("http://127.0.0.1:" + server.address().getPort() + path);
+        return HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+}
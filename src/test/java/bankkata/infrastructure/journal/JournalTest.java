@@ -0,0 +1,295 @@
+package bankkata.infrastructure.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the segmented Journal.
+ */
+class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayRecordsFromGivenPosition() {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory).withSegmentSize(64);
+        long middle;
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(record("first-" + i));
+            }
+            middle = journal.position();
+            for (int i = 0; i < 5; i++) {
+                journal.commit(journal.append(record("second-" + i)));
+            }
+        }
+
+        // When
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, middle, (position, payload) -> replayed.add(text(payload)))) {
+            // Then
+            assertEquals(List.of("second-0", "second-1", "second-2", "second-3", "second-4"), replayed);
+            assertEquals(journal.position(), journal.durablePosition());
+        }
+    }
+
+    @Test
+    void shouldShareForcesBetweenConcurrentCommitters() throws Exception {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory);
+        int threads = 4;
+        int recordsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            // When
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < recordsPerThread; i++) {
+                        long position = journal.append(record("record"));
+                        journal.commit(position);
+                        assertTrue(journal.durablePosition() >= position);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            assertEquals(threads * recordsPerThread, replayed.size());
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndContinueAfterReopening() throws IOException {
+        // Given segments of 64 bytes, each holding four 16-byte records
+        JournalConfig config = JournalConfig.defaults(directory).withSegmentSize(64);
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            for (int i = 0; i < 10; i++) {
+                journal.commit(journal.append(record("rec-" + i + "!!!")));
+            }
+        }
+        assertEquals(List.of("00000000000000000000.journal", "00000000000000000064.journal",
+                "00000000000000000128.journal"), segmentNames());
+
+        // When
+        List<Long> positions = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> positions.add(position))) {
+            assertEquals(160, journal.position());
+            for (int i = 10; i < 13; i++) {
+                journal.commit(journal.append(record("rec-" + i + "!!")));
+            }
+        }
+
+        // Then
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            assertEquals(13, replayed.size());
+            assertEquals("rec-12!!", replayed.get(12));
+            assertEquals(4, segmentNames().size());
+        }
+        assertEquals(List.of(0L, 16L, 32L, 48L, 64L, 80L, 96L, 112L, 128L, 144L), positions);
+    }
+
+    @Test
+    void shouldTruncateTornTailOnOpen() throws IOException {
+        // Given a record whose write was cut short by a crash
+        JournalConfig config = JournalConfig.defaults(directory);
+        long end;
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            journal.append(record("complete"));
+            end = journal.position();
+            journal.append(record("torn record"));
+        }
+        Path segment = directory.resolve(segmentNames().get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(end + 12);
+        }
+
+        // When
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            // Then
+            assertEquals(List.of("complete"), replayed);
+            assertEquals(end, journal.position());
+            assertEquals(end, Files.size(segment));
+            journal.append(record("next"));
+        }
+        replayed.clear();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            assertEquals(List.of("complete", "next"), replayed);
+        }
+    }
+
+    @Test
+    void shouldTruncateCorruptTailOnOpen() throws IOException {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory);
+        long end;
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            journal.append(record("complete"));
+            end = journal.position();
+            journal.append(record("corrupt"));
+            journal.append(record("unreachable"));
+        }
+        Path segment = directory.resolve(segmentNames().get(0));
+        byte[] content = Files.readAllBytes(segment);
+        content[(int) end + 8] ^= 0x7F;
+        Files.write(segment, content);
+
+        // When
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            // Then the corrupt record and everything after it are dropped
+            assertEquals(List.of("complete"), replayed);
+            assertEquals(end, journal.position());
+        }
+    }
+
+    @Test
+    void shouldRejectCorruptionBeforeLastSegment() throws IOException {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory).withSegmentSize(64);
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(record("rec-" + i + "!!!"));
+            }
+        }
+        Path first = directory.resolve(segmentNames().get(0));
+        byte[] content = Files.readAllBytes(first);
+        content[40] ^= 0x7F;
+        Files.write(first, content);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> Journal.open(config, 0, (position, payload) -> {
+        }));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityPolicy.class)
+    void shouldMakeCommittedRecordsDurableUnderEachPolicy(DurabilityPolicy policy) {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory).withDurabilityPolicy(policy);
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            // When
+            long position = 0;
+            for (int i = 0; i < 20; i++) {
+                position = journal.append(record("record-" + i));
+                journal.commit(position);
+                if (policy == DurabilityPolicy.PER_OPERATION || policy == DurabilityPolicy.PER_BATCH) {
+                    // Then
+                    assertEquals(position, journal.durablePosition());
+                }
+            }
+            assertEquals(position, journal.force());
+            assertEquals(position, journal.durablePosition());
+        }
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            assertEquals(20, replayed.size());
+        }
+    }
+
+    @Test
+    void shouldSyncPeriodicallyUnderTimeWindowPolicy() throws InterruptedException {
+        // Given
+        JournalConfig config = new JournalConfig(directory, 1024, DurabilityPolicy.TIME_WINDOW,
+                Duration.ofMillis(5));
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            // When
+            long position = journal.append(record("record"));
+
+            // Then without any commit
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (journal.durablePosition() < position && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(position, journal.durablePosition());
+        }
+    }
+
+    @Test
+    void shouldNotReportRecordsDurableWhenSyncIsInterrupted() {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory);
+        List<String> replayed = new ArrayList<>();
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> {
+        })) {
+            long position = journal.append(record("interrupted"));
+
+            // When the committing thread is interrupted, which closes the segment channel
+            Thread.currentThread().interrupt();
+            UncheckedIOException exception;
+            try {
+                exception = assertThrows(UncheckedIOException.class, () -> journal.commit(position));
+            } finally {
+                Thread.interrupted();
+            }
+
+            // Then
+            assertInstanceOf(ClosedByInterruptException.class, exception.getCause());
+            assertTrue(journal.durablePosition() < position);
+            journal.commit(journal.append(record("after")));
+            assertEquals(journal.position(), journal.durablePosition());
+        }
+        try (Journal journal = Journal.open(config, 0, (position, payload) -> replayed.add(text(payload)))) {
+            assertEquals(List.of("interrupted", "after"), replayed);
+        }
+    }
+
+    private List<String> segmentNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static ByteBuffer record(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(ByteBuffer payload) {
+        return StandardCharsets.UTF_8.decode(payload).toString();
+    }
+}
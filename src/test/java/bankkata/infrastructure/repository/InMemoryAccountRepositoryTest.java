@@ -0,0 +1,75 @@
+package bankkata.infrastructure.repository;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.infrastructure.clock.TestClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the InMemoryAccountRepository handle index.
+ */
+class InMemoryAccountRepositoryTest {
+
+    private final TestClock clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
+    private final InMemoryAccountRepository repository = new InMemoryAccountRepository();
+
+    @Test
+    void shouldAssignDenseHandlesAcrossPages() {
+        // Given
+        int accountCount = 100_000;
+
+        // When
+        for (int i = 0; i < accountCount; i++) {
+            repository.save(new Account(new AccountId("account-" + i), clock));
+        }
+
+        // Then
+        for (int i = 0; i < accountCount; i += 997) {
+            AccountId accountId = new AccountId("account-" + i);
+            assertEquals(OptionalInt.of(i), repository.findHandle(accountId));
+            assertEquals(accountId, repository.findByHandle(i).orElseThrow().getId());
+            assertSame(repository.findById(accountId).orElseThrow(), repository.findByHandle(i).orElseThrow());
+        }
+        assertEquals(Optional.empty(), repository.findByHandle(accountCount));
+        assertEquals(Optional.empty(), repository.findByHandle(-1));
+        assertEquals(OptionalInt.empty(), repository.findHandle(new AccountId("unknown")));
+    }
+
+    @Test
+    void shouldKeepHandleWhenAccountIsReplaced() {
+        // Given
+        AccountId accountId = new AccountId("replaced");
+        repository.save(new Account(new AccountId("other"), clock));
+        repository.save(new Account(accountId, clock));
+        Account replacement = new Account(accountId, clock);
+
+        // When
+        repository.save(replacement);
+
+        // Then
+        assertEquals(OptionalInt.of(1), repository.findHandle(accountId));
+        assertSame(replacement, repository.findByHandle(1).orElseThrow());
+        assertSame(replacement, repository.findById(accountId).orElseThrow());
+    }
+
+    @Test
+    void shouldRejectSavingUnderAnotherAccountsHandle() {
+        // Given
+        repository.save(new Account(new AccountId("first"), clock));
+        Account second = repository.save(new Account(new AccountId("second"), clock));
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> repository.save(0, second));
+        assertThrows(IllegalArgumentException.class, () -> repository.save(2, second));
+        assertSame(second, repository.save(1, second));
+    }
+}
@@ -0,0 +1,166 @@
+package bankkata.infrastructure.repository;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.Money;
+import bankkata.domain.model.Operation;
+import bankkata.domain.model.OperationType;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.journal.DurabilityPolicy;
+import bankkata.infrastructure.journal.JournalConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the JournaledAccountRepository.
+ */
+class JournaledAccountRepositoryTest {
+
+    private final AccountId accountId = new AccountId("test123");
+
+    @TempDir
+    Path directory;
+
+    private TestClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
+        clock.setZoneId(ZoneId.of("Europe/Paris"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityPolicy.class)
+    void shouldRestoreAccountsAfterReopen(DurabilityPolicy policy) {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory).withDurabilityPolicy(policy);
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            AccountService accountService = new AccountService(repository);
+            repository.save(new Account(accountId, clock));
+            accountService.deposit(accountId, new Money(100.0));
+            clock.setFixedDate(LocalDate.of(2025, 5, 20));
+            accountService.withdraw(accountId, new Money(40.5));
+        }
+
+        // When
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            // Then
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(59.5), account.getBalance());
+            List<Operation> operations = account.getOperations();
+            assertEquals(2, operations.size());
+            assertEquals(OperationType.WITHDRAWAL, operations.get(1).getType());
+            assertEquals(new Money(40.5), operations.get(1).getAmount());
+            assertEquals(new Money(59.5), operations.get(1).getBalanceAfterOperation());
+            assertEquals(clock.now(), operations.get(1).getTimestamp());
+        }
+    }
+
+    @Test
+    void shouldContinueJournalingAfterReopen() {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory);
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            repository.save(new Account(accountId, clock));
+            new AccountService(repository).deposit(accountId, new Money(10.0));
+        }
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            new AccountService(repository).deposit(accountId, new Money(5.0));
+        }
+
+        // When
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            // Then
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(15.0), account.getBalance());
+            assertEquals(2, account.getOperations().size());
+        }
+    }
+
+    @Test
+    void shouldReplayAcrossSegments() throws IOException {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory).withSegmentSize(256);
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            AccountService accountService = new AccountService(repository);
+            repository.save(new Account(accountId, clock));
+            for (int i = 0; i < 50; i++) {
+                accountService.deposit(accountId, new Money(1.0));
+            }
+        }
+
+        // When
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock);
+             Stream<Path> segments = Files.list(directory)) {
+            // Then
+            assertTrue(segments.count() > 1);
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(50.0), account.getBalance());
+            assertEquals(50, account.getOperations().size());
+        }
+    }
+
+    @Test
+    void shouldDiscardTornRecordAtTheEndOfTheJournal() throws IOException {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory);
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            repository.save(new Account(accountId, clock));
+            new AccountService(repository).deposit(accountId, new Money(10.0));
+        }
+        Path segment;
+        try (Stream<Path> segments = Files.list(directory)) {
+            segment = segments.findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // When
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            new AccountService(repository).deposit(accountId, new Money(5.0));
+        }
+
+        // Then
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(15.0), account.getBalance());
+            assertEquals(2, account.getOperations().size());
+        }
+    }
+
+    @Test
+    void shouldReplaceAccountWhenNewInstanceIsSaved() {
+        // Given
+        JournalConfig config = JournalConfig.defaults(directory);
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            repository.save(new Account(accountId, clock));
+            new AccountService(repository).deposit(accountId, new Money(10.0));
+
+            // When
+            repository.save(new Account(accountId, clock));
+        }
+
+        // Then
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(config, clock)) {
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(Money.ZERO, account.getBalance());
+            assertTrue(account.getOperations().isEmpty());
+        }
+    }
+}
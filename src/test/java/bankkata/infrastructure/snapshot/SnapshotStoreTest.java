@@ -0,0 +1,246 @@
+package bankkata.infrastructure.snapshot;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.model.AccountSnapshot;
+import bankkata.domain.model.Money;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.journal.DurabilityPolicy;
+import bankkata.infrastructure.journal.JournalConfig;
+import bankkata.infrastructure.repository.JournaledAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for snapshot writing and snapshot-based recovery.
+ */
+class SnapshotStoreTest {
+
+    private final AccountId accountId = new AccountId("test123");
+
+    @TempDir
+    Path directory;
+
+    private TestClock clock;
+    private JournalConfig journalConfig;
+    private SnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0));
+        journalConfig = JournalConfig.defaults(directory.resolve("journal"));
+        store = new SnapshotStore(directory.resolve("snapshots"));
+    }
+
+    @Test
+    void shouldWriteAndLoadSnapshot() {
+        // Given
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock)) {
+            repository.save(new Account(accountId, clock));
+            AccountService accountService = new AccountService(repository);
+            accountService.deposit(accountId, new Money(100.0));
+            accountService.withdraw(accountId, new Money(25.0));
+
+            // When
+            SnapshotMetrics metrics = store.write(repository);
+
+            // Then
+            assertEquals(1, metrics.snapshotCount());
+            assertEquals(1, metrics.lastAccountCount());
+            assertEquals(repository.operationLogPosition(), metrics.lastLogPosition());
+            assertTrue(metrics.lastSizeBytes() > 0);
+            assertTrue(metrics.lastDurationNanos() > 0);
+        }
+        Snapshot snapshot = store.loadLatest().orElseThrow();
+        assertEquals(new AccountSnapshot(accountId, new Money(75.0), 2), snapshot.accounts().get(accountId));
+    }
+
+    @Test
+    void shouldRecoverFromSnapshotAndJournalTail() {
+        // Given
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock)) {
+            repository.save(new Account(accountId, clock));
+            AccountService accountService = new AccountService(repository);
+            accountService.deposit(accountId, new Money(100.0));
+            accountService.deposit(accountId, new Money(50.0));
+            store.write(repository);
+            accountService.withdraw(accountId, new Money(30.0));
+        }
+
+        // When
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock, store)) {
+            // Then only the tail is loaded, on top of the snapshot
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(120.0), account.getBalance());
+            assertEquals(3, account.getOperationCount());
+            assertEquals(1, account.getOperations().size());
+
+            // And further operations continue the sequence
+            new AccountService(repository).deposit(accountId, new Money(5.0));
+        }
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock, store)) {
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(125.0), account.getBalance());
+            assertEquals(4, account.getOperationCount());
+        }
+    }
+
+    @Test
+    void shouldRecoverWhenJournalEndsAtDurablePositionOfSnapshot() throws IOException {
+        // Given a journal forced only once an hour, cut after a crash at what the snapshot recorded
+        JournalConfig lazyConfig = new JournalConfig(journalConfig.directory(), journalConfig.segmentSize(),
+                DurabilityPolicy.TIME_WINDOW, Duration.ofHours(1));
+        long logPosition;
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(lazyConfig, clock)) {
+            repository.save(new Account(accountId, clock));
+            new AccountService(repository).deposit(accountId, new Money(40.0));
+            logPosition = store.write(repository).lastLogPosition();
+            assertEquals(repository.operationLogPosition(), logPosition);
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(journalConfig.directory())) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(logPosition);
+        }
+
+        // When
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(lazyConfig, clock, store)) {
+            // Then
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(40.0), account.getBalance());
+            assertEquals(1, account.getOperationCount());
+        }
+    }
+
+    @Test
+    void shouldMakeOperationsLoggedDuringScanDurableBeforePublishingSnapshot() throws IOException {
+        // Given a journal forced only once an hour, and a deposit saved between sync and scan
+        JournalConfig lazyConfig = new JournalConfig(journalConfig.directory(), journalConfig.segmentSize(),
+                DurabilityPolicy.TIME_WINDOW, Duration.ofHours(1));
+        long[] lastSync = {-1};
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(lazyConfig, clock) {
+            private boolean scanned;
+
+            @Override
+            public long syncOperationLog() {
+                lastSync[0] = super.syncOperationLog();
+                return lastSync[0];
+            }
+
+            @Override
+            public void forEachLoggedAccount(Consumer<AccountSnapshot> visitor) {
+                if (!scanned) {
+                    scanned = true;
+                    new AccountService(this).deposit(accountId, new Money(2.0));
+                }
+                super.forEachLoggedAccount(visitor);
+            }
+        }) {
+            repository.save(new Account(accountId, clock));
+            new AccountService(repository).deposit(accountId, new Money(40.0));
+
+            // When
+            long logPosition = store.write(repository).lastLogPosition();
+
+            // Then
+            assertTrue(logPosition < repository.operationLogPosition());
+            assertEquals(repository.operationLogPosition(), lastSync[0]);
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(journalConfig.directory())) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(lastSync[0]);
+        }
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(lazyConfig, clock, store)) {
+            Account account = repository.findById(accountId).orElseThrow();
+            assertEquals(new Money(42.0), account.getBalance());
+            assertEquals(2, account.getOperationCount());
+        }
+    }
+
+    @Test
+    void shouldFallBackToOlderSnapshotWhenLatestIsCorrupt() throws IOException {
+        // Given
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock)) {
+            repository.save(new Account(accountId, clock));
+            AccountService accountService = new AccountService(repository);
+            accountService.deposit(accountId, new Money(10.0));
+            store.write(repository);
+            accountService.deposit(accountId, new Money(10.0));
+            store.write(repository);
+        }
+        Path latest;
+        try (Stream<Path> files = Files.list(directory.resolve("snapshots"))) {
+            latest = files.max(Path::compareTo).orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(latest);
+        content[content.length - 6] ^= 0x7F;
+        Files.write(latest, content);
+
+        // When
+        Snapshot snapshot = store.loadLatest().orElseThrow();
+
+        // Then
+        assertEquals(1, snapshot.accounts().get(accountId).operationCount());
+    }
+
+    @Test
+    void shouldRetainOnlyRecentSnapshots() throws IOException {
+        // Given
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock)) {
+            repository.save(new Account(accountId, clock));
+            AccountService accountService = new AccountService(repository);
+            for (int i = 0; i < 4; i++) {
+                accountService.deposit(accountId, new Money(1.0));
+                // When
+                store.write(repository);
+            }
+        }
+
+        // Then
+        try (Stream<Path> files = Files.list(directory.resolve("snapshots"))) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void shouldTakeSnapshotsPeriodically() throws Exception {
+        // Given
+        try (JournaledAccountRepository repository = new JournaledAccountRepository(journalConfig, clock)) {
+            repository.save(new Account(accountId, clock));
+
+            // When
+            try (SnapshotScheduler scheduler = new SnapshotScheduler(repository, store, Duration.ofMillis(10))) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (scheduler.metrics().snapshotCount() < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(5);
+                }
+
+                // Then
+                assertTrue(scheduler.metrics().snapshotCount() >= 2);
+                assertEquals(0, scheduler.metrics().failureCount());
+            }
+        }
+    }
+}
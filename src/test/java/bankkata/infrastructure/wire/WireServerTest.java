@@ -0,0 +1,143 @@
+package bankkata.infrastructure.wire;
+
+import bankkata.domain.model.Account;
+import bankkata.domain.model.AccountId;
+import bankkata.domain.repository.AccountRepository;
+import bankkata.domain.service.AccountService;
+import bankkata.infrastructure.clock.TestClock;
+import bankkata.infrastructure.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the WireServer over a real socket.
+ */
+class WireServerTest {
+
+    private static final AccountId ALICE = new AccountId("alice");
+
+    private AccountService accountService;
+    private WireServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AccountRepository repository = new InMemoryAccountRepository();
+        repository.save(new Account(ALICE, new TestClock(LocalDate.of(2025, 5, 19), LocalTime.of(10, 0))));
+        accountService = new AccountService(repository);
+        server = WireServer.start(accountService, new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void shouldDepositWithdrawAndReadBalance() throws Exception {
+        try (WireClient client = WireClient.connect(server.address())) {
+            // When
+            WireResponse deposit = client.call(WireProtocol.Command.DEPOSIT, ALICE, 10_050);
+            WireResponse withdraw = client.call(WireProtocol.Command.WITHDRAW, ALICE, 50);
+            WireResponse balance = client.call(WireProtocol.Command.BALANCE, ALICE, 0);
+
+            // Then
+            assertEquals(new WireResponse(0, WireProtocol.Status.OK, 10_050), deposit);
+            assertEquals(new WireResponse(0, WireProtocol.Status.OK, 10_000), withdraw);
+            assertEquals(new WireResponse(0, WireProtocol.Status.OK, 10_000), balance);
+            assertEquals(10_000, accountService.getBalance(ALICE).balanceCents());
+        }
+    }
+
+    @Test
+    void shouldMapFailuresToStatuses() throws Exception {
+        try (WireClient client = WireClient.connect(server.address())) {
+            assertEquals(WireProtocol.Status.ACCOUNT_NOT_FOUND,
+                    client.call(WireProtocol.Command.BALANCE, new AccountId("bob"), 0).status());
+            assertEquals(WireProtocol.Status.INSUFFICIENT_FUNDS,
+                    client.call(WireProtocol.Command.WITHDRAW, ALICE, 100).status());
+            assertEquals(WireProtocol.Status.INVALID_REQUEST,
+                    client.call(WireProtocol.Command.DEPOSIT, ALICE, -100).status());
+        }
+    }
+
+    @Test
+    void shouldAnswerPipelinedRequestsInOrder() throws Exception {
+        // Given
+        int requestCount = 2_000;
+
+        try (WireClient client = WireClient.connect(server.address())) {
+            // When
+            for (int i = 0; i < requestCount; i++) {
+                client.send(i, WireProtocol.Command.DEPOSIT, ALICE, 1);
+            }
+
+            // Then
+            for (int i = 0; i < requestCount; i++) {
+                assertEquals(new WireResponse(i, WireProtocol.Status.OK, i + 1), client.receive());
+            }
+        }
+    }
+
+    @Test
+    void shouldDecodeRequestsSplitAcrossReads() throws Exception {
+        // Given
+        ByteBuffer request = ByteBuffer.allocate(64);
+        WireProtocol.encodeRequest(request, 7, WireProtocol.Command.DEPOSIT, ALICE, 100);
+        request.flip();
+
+        try (SocketChannel channel = SocketChannel.open(server.address())) {
+            // When
+            while (request.hasRemaining()) {
+                channel.write(request.slice(request.position(), 1));
+                request.position(request.position() + 1);
+                Thread.sleep(1);
+            }
+            ByteBuffer response = ByteBuffer.allocate(WireProtocol.RESPONSE_FRAME_SIZE);
+            while (response.hasRemaining()) {
+                channel.read(response);
+            }
+
+            // Then
+            assertEquals(new WireResponse(7, WireProtocol.Status.OK, 100),
+                    WireProtocol.decodeResponse(response.flip()));
+        }
+    }
+
+    @Test
+    void shouldCloseConnectionOnMalformedFrame() throws Exception {
+        try (WireClient client = WireClient.connect(server.address());
+             SocketChannel channel = SocketChannel.open(server.address())) {
+            // When
+            channel.write(ByteBuffer.allocate(8).putInt(-1).putInt(0).flip());
+            ByteBuffer response = ByteBuffer.allocate(1);
+
+            // Then
+            assertEquals(-1, channel.read(response));
+            assertEquals(WireProtocol.Status.OK, client.call(WireProtocol.Command.BALANCE, ALICE, 0).status());
+        }
+    }
+
+    @Test
+    void shouldFailClientReadsAfterServerClose() throws Exception {
+        try (WireClient client = WireClient.connect(server.address())) {
+            client.call(WireProtocol.Command.BALANCE, ALICE, 0);
+
+            // When
+            server.close();
+
+            // Then
+            assertThrows(IOException.class, () -> client.call(WireProtocol.Command.BALANCE, ALICE, 0));
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package bankkata.util;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class MoneyUtilTest {
 
@@ -151,4 +154,39 @@ class MoneyUtilTest {
         // Then
         assertEquals(new BigDecimal("-50.26"), result);
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, -0.0, 0.01, 1.005, 2.675, 123.456, -50.257, 0.125, -0.125, 99999.995, 1e12, 1.7e15})
+    void toCentsDouble_ShouldMatchBigDecimalRounding(double amount) {
+        // Given
+        long expected = MoneyUtil.toBigDecimal(amount).unscaledValue().longValueExact();
+
+        // When
+        long result = MoneyUtil.toCents(amount);
+
+        // Then
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void toCentsDouble_ShouldRejectAmountsThatOverflow() {
+        assertThrows(ArithmeticException.class, () -> MoneyUtil.toCents(1e30));
+    }
+
+    @Test
+    void toCentsBigDecimal_ShouldRoundHalfUp() {
+        assertEquals(-5026L, MoneyUtil.toCents(new BigDecimal("-50.257")));
+        assertEquals(13L, MoneyUtil.toCents(new BigDecimal("0.125")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, -1L, 12345L, -5026L, 1L << 52, Long.MAX_VALUE, Long.MIN_VALUE})
+    void toDouble_ShouldMatchBigDecimalConversion(long cents) {
+        assertEquals(MoneyUtil.fromCents(cents).doubleValue(), MoneyUtil.toDouble(cents));
+    }
+
+    @Test
+    void fromCents_ShouldHaveTwoDecimalPlaces() {
+        assertEquals(new BigDecimal("123.45"), MoneyUtil.fromCents(12345L));
+    }
+}